@@ -43,9 +43,9 @@ BEGIN
          SYSTIMESTAMP
   FROM TASKS T
   JOIN PROJECTS P ON P.PROJECT_ID = T.PROJECT_ID
-  WHERE T.DUE_DATE IS NOT NULL
-    AND T.STATUS NOT IN ('DONE', 'CANCELLED')
-    AND TRUNC(T.DUE_DATE) = TRUNC(SYSDATE) + 3
+  WHERE T.STATUS IN ('TODO', 'IN_PROGRESS', 'BLOCKED', 'ON_HOLD')
+    AND T.DUE_DATE >= TRUNC(SYSDATE) + 3   -- half-open range: indexable, unlike TRUNC(T.DUE_DATE)
+    AND T.DUE_DATE <  TRUNC(SYSDATE) + 4
     AND NOT EXISTS (
       SELECT 1 
       FROM NOTIFICATIONS N
@@ -69,9 +69,9 @@ BEGIN
        SYSTIMESTAMP
 FROM TASKS T
 JOIN PROJECTS P ON P.PROJECT_ID = T.PROJECT_ID
-WHERE T.DUE_DATE IS NOT NULL
-  AND T.STATUS NOT IN ('DONE', 'CANCELLED')
-  AND TRUNC(T.DUE_DATE) = TRUNC(SYSDATE)
+WHERE T.STATUS IN ('TODO', 'IN_PROGRESS', 'BLOCKED', 'ON_HOLD')
+  AND T.DUE_DATE >= TRUNC(SYSDATE)
+  AND T.DUE_DATE <  TRUNC(SYSDATE) + 1
   AND NOT EXISTS (
     SELECT 1 FROM NOTIFICATIONS N
     WHERE N.TASK_ID = T.TASK_ID
@@ -0,0 +1,10 @@
+--------------------------------------------------------------------------------
+-- V10: activity log index for streaming exports
+-- ProjectExporter reads a project's log with
+--   WHERE PROJECT_ID = :p ORDER BY LOG_ID
+-- With (PROJECT_ID, LOG_ID) that is a range scan already in order, so rows
+-- stream out from the first fetch instead of waiting for a sort of the whole
+-- project's log. IX_LOGS_PROJECT (PROJECT_ID alone) becomes redundant.
+--------------------------------------------------------------------------------
+CREATE INDEX IX_LOGS_PROJECT_LOG ON ACTIVITY_LOGS (PROJECT_ID, LOG_ID);
+DROP INDEX IX_LOGS_PROJECT;
@@ -0,0 +1,17 @@
+--------------------------------------------------------------------------------
+-- V3: let Oracle cache sequence values
+-- The app now reserves IDs in blocks (db.sequence.blockSize) with
+--   SELECT <seq>.NEXTVAL FROM DUAL CONNECT BY LEVEL <= n
+-- With NOCACHE every one of those values is a dictionary update; a server-side
+-- cache turns them into memory operations. Gaps after an instance restart are
+-- expected and harmless.
+--------------------------------------------------------------------------------
+ALTER SEQUENCE USERS_SEQ           CACHE 100;
+ALTER SEQUENCE PROJECTS_SEQ        CACHE 100;
+ALTER SEQUENCE PROJECT_MEMBERS_SEQ CACHE 100;
+ALTER SEQUENCE TASKS_SEQ           CACHE 1000;
+ALTER SEQUENCE TASK_DEP_SEQ        CACHE 100;
+ALTER SEQUENCE COMMENTS_SEQ        CACHE 100;
+ALTER SEQUENCE ATTACHMENTS_SEQ     CACHE 100;
+ALTER SEQUENCE ACTIVITY_LOGS_SEQ   CACHE 1000;
+ALTER SEQUENCE NOTIFICATIONS_SEQ   CACHE 1000;
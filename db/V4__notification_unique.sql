@@ -0,0 +1,20 @@
+--------------------------------------------------------------------------------
+-- V4: one notification per (task, user, type)
+-- NotificationDAO now generates due-soon / deadline notifications with a single
+-- INSERT ... SELECT ... WHERE NOT EXISTS per run. This index backs that
+-- anti-join and turns a concurrent duplicate into ORA-00001 instead of a
+-- second row. Existing duplicates are removed first (the oldest row is kept),
+-- including rows with a NULL TYPE from PRC_RAISE_OVERDUE_NOTIFICATIONS: the
+-- index treats those as equal too, and PARTITION BY groups NULLs together.
+--------------------------------------------------------------------------------
+DELETE FROM NOTIFICATIONS
+ WHERE ROWID IN (SELECT RID
+                   FROM (SELECT ROWID AS RID,
+                                ROW_NUMBER() OVER (PARTITION BY TASK_ID, USER_ID, TYPE
+                                                   ORDER BY NOTIF_ID) AS RN
+                           FROM NOTIFICATIONS)
+                  WHERE RN > 1);
+
+CREATE UNIQUE INDEX UX_NOTIF_UNIQ ON NOTIFICATIONS (TASK_ID, USER_ID, TYPE);
+
+COMMIT;
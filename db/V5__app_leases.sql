@@ -0,0 +1,13 @@
+--------------------------------------------------------------------------------
+-- V5: leases shared by all app instances (see org.example.upnext.dao.LeaseDAO)
+-- Every running app schedules notification generation; the instance holding
+-- the 'notifications' lease does the work and records the last completed run
+-- in STATE. A lease whose EXPIRES_AT has passed may be taken over by anyone,
+-- so a crashed holder is replaced after one TTL.
+--------------------------------------------------------------------------------
+CREATE TABLE APP_LEASES (
+  NAME        VARCHAR2(64)   PRIMARY KEY,
+  HOLDER      VARCHAR2(200)  NOT NULL,
+  EXPIRES_AT  TIMESTAMP      NOT NULL,
+  STATE       VARCHAR2(200)
+);
@@ -0,0 +1,9 @@
+--------------------------------------------------------------------------------
+-- V6: index for the keyset-paged notification inbox
+-- NotificationDAO pages with
+--   ... AND (CREATED_AT < :c OR (CREATED_AT = :c AND NOTIF_ID < :id))
+--   ORDER BY CREATED_AT DESC, NOTIF_ID DESC FETCH FIRST :n ROWS ONLY
+-- With this index a user's page is a short descending range scan that stops
+-- after :n rows, however deep into the inbox it starts.
+--------------------------------------------------------------------------------
+CREATE INDEX IX_NOTIF_USER_CREATED ON NOTIFICATIONS (USER_ID, CREATED_AT, NOTIF_ID);
@@ -0,0 +1,10 @@
+--------------------------------------------------------------------------------
+-- V7: covering indexes for the unread badge
+-- countUnread / lastNotificationId / markAllRead filter on
+--   USER_ID = :u [AND IS_READ = 'N'] AND TASK_ID IN (SELECT TASK_ID FROM TASKS WHERE PROJECT_ID = :p)
+-- IX_NOTIF_UNREAD holds every column those read from NOTIFICATIONS, and
+-- IX_TASKS_PROJECT_TASK gives a project's TASK_IDs, so the badge query never
+-- visits either table. IX_TASKS_PROJECT_TASK also serves TaskDAO.findIdsByProject.
+--------------------------------------------------------------------------------
+CREATE INDEX IX_NOTIF_UNREAD       ON NOTIFICATIONS (USER_ID, IS_READ, TASK_ID, NOTIF_ID);
+CREATE INDEX IX_TASKS_PROJECT_TASK ON TASKS (PROJECT_ID, TASK_ID);
@@ -0,0 +1,64 @@
+--------------------------------------------------------------------------------
+-- V8: index for deadline scans
+-- The deadline queries (TaskDAO.findTasksDueOn, the notification generator in
+-- NotificationDAOImpl, the PRC_RAISE_* procedures below) all filter on
+--   STATUS IN (<open statuses>) AND DUE_DATE >= :day AND DUE_DATE < :day + n
+-- With STATUS leading, Oracle walks one DUE_DATE range per open status
+-- (INLIST ITERATOR + INDEX RANGE SCAN). ASSIGNEE_ID is included so the
+-- "ASSIGNEE_ID IS NOT NULL" filter is checked in the index before any table
+-- row is visited. The predicates must compare the bare DUE_DATE column: a
+-- TRUNC(DUE_DATE) = ... form cannot use this index (or IX_TASKS_DUE_DATE).
+-- Compare plans with tools.DueDateQueryBenchmark.
+--------------------------------------------------------------------------------
+CREATE INDEX IX_TASKS_STATUS_DUE ON TASKS (STATUS, DUE_DATE, ASSIGNEE_ID);
+
+-- Same procedures as db/Notification.sql, with half-open DUE_DATE ranges
+-- instead of TRUNC(T.DUE_DATE) = ...
+CREATE OR REPLACE PROCEDURE PRC_RAISE_DUE_SOON_NOTIF AS
+BEGIN
+  INSERT INTO NOTIFICATIONS (NOTIF_ID, USER_ID, TASK_ID, MESSAGE, TYPE, IS_READ, CREATED_AT)
+  SELECT NOTIFICATIONS_SEQ.NEXTVAL,
+         P.OWNER_ID,  -- Use project owner instead of ASSIGNEE_ID
+         T.TASK_ID,
+         'Task "' || T.TITLE || '" is due in 3 days (' || TO_CHAR(T.DUE_DATE, 'YYYY-MM-DD') || ')',
+         'DUE_SOON_3D',
+         'N',
+         SYSTIMESTAMP
+  FROM TASKS T
+  JOIN PROJECTS P ON P.PROJECT_ID = T.PROJECT_ID
+  WHERE T.STATUS IN ('TODO', 'IN_PROGRESS', 'BLOCKED', 'ON_HOLD')
+    AND T.DUE_DATE >= TRUNC(SYSDATE) + 3
+    AND T.DUE_DATE <  TRUNC(SYSDATE) + 4
+    AND NOT EXISTS (
+      SELECT 1
+      FROM NOTIFICATIONS N
+      WHERE N.TASK_ID = T.TASK_ID
+        AND N.TYPE = 'DUE_SOON_3D'
+    );
+END;
+/
+
+CREATE OR REPLACE PROCEDURE PRC_RAISE_DEADLINE_NOTIF AS
+BEGIN
+  INSERT INTO NOTIFICATIONS (NOTIF_ID, USER_ID, TASK_ID, MESSAGE, TYPE, IS_READ, CREATED_AT)
+  SELECT NOTIFICATIONS_SEQ.NEXTVAL,
+         P.OWNER_ID,
+         T.TASK_ID,
+         ' Task "' || T.TITLE || '" deadline has passed (' || TO_CHAR(T.DUE_DATE, 'YYYY-MM-DD') || ')',
+         'DEADLINE_PASSED',
+         'N',
+         SYSTIMESTAMP
+  FROM TASKS T
+  JOIN PROJECTS P ON P.PROJECT_ID = T.PROJECT_ID
+  WHERE T.STATUS IN ('TODO', 'IN_PROGRESS', 'BLOCKED', 'ON_HOLD')
+    AND T.DUE_DATE >= TRUNC(SYSDATE)
+    AND T.DUE_DATE <  TRUNC(SYSDATE) + 1
+    AND NOT EXISTS (
+      SELECT 1 FROM NOTIFICATIONS N
+      WHERE N.TASK_ID = T.TASK_ID
+        AND N.TYPE = 'DEADLINE_PASSED'
+    );
+END;
+/
+
+SHOW ERRORS;
@@ -0,0 +1,50 @@
+--------------------------------------------------------------------------------
+-- V9: recompute IS_BLOCKED only where a status change can affect it
+-- The statement-level TRG_TASKS_STATUS_RECALC_BLOCK (UpNext_Project_Schema.sql)
+-- re-evaluated every task that has any predecessor after every status update.
+-- Only the direct successors of a task that moved into or out of DONE can
+-- change, so this compound trigger collects those tasks per statement and
+-- updates just their successors (IX_DEP_PRED finds them). The app answers
+-- "is it blocked / what did this unblock" from service.DependencyGraph.
+--------------------------------------------------------------------------------
+CREATE OR REPLACE TRIGGER TRG_TASKS_STATUS_RECALC_BLOCK
+FOR UPDATE OF STATUS ON TASKS
+COMPOUND TRIGGER
+  TYPE T_IDS IS TABLE OF TASKS.TASK_ID%TYPE INDEX BY PLS_INTEGER;
+  G_CHANGED T_IDS;
+
+  AFTER EACH ROW IS
+  BEGIN
+    IF (NVL(:OLD.STATUS, '-') = 'DONE') <> (NVL(:NEW.STATUS, '-') = 'DONE') THEN
+      G_CHANGED(G_CHANGED.COUNT + 1) := :NEW.TASK_ID;
+    END IF;
+  END AFTER EACH ROW;
+
+  AFTER STATEMENT IS
+  BEGIN
+    FORALL I IN 1 .. G_CHANGED.COUNT
+      UPDATE TASKS S
+         SET IS_BLOCKED =
+           CASE
+             WHEN EXISTS (
+               SELECT 1
+                 FROM TASK_DEPENDENCIES D
+                 JOIN TASKS P ON P.TASK_ID = D.PREDECESSOR_TASK_ID
+                WHERE D.SUCCESSOR_TASK_ID = S.TASK_ID
+                  AND P.STATUS <> 'DONE'
+             )
+             THEN 'Y' ELSE 'N'
+           END
+       WHERE S.TASK_ID IN (SELECT D.SUCCESSOR_TASK_ID
+                             FROM TASK_DEPENDENCIES D
+                            WHERE D.PREDECESSOR_TASK_ID = G_CHANGED(I));
+    G_CHANGED.DELETE;
+  END AFTER STATEMENT;
+END;
+/
+
+-- The EXISTS above looks up a task's predecessors by SUCCESSOR_TASK_ID. The base
+-- IX_DEP_SUCC indexes only that column, so each hit also read the dependency row
+-- for PREDECESSOR_TASK_ID; with both columns the lookup stays in the index.
+DROP INDEX IX_DEP_SUCC;
+CREATE INDEX IX_DEP_SUCC ON TASK_DEPENDENCIES (SUCCESSOR_TASK_ID, PREDECESSOR_TASK_ID);
@@ -24,11 +24,26 @@ public class MainApp extends Application {
         stage.setTitle(title);
         stage.setScene(scene);
         stage.show();*/
+        try {
+            var source = org.example.upnext.events.ChangeSource.fromConfig();
+            if (source != null) org.example.upnext.events.EventBus.shared().attach(source);
+        } catch (Exception e) {
+            // the app still works, screens just learn of other users' changes by polling
+            System.err.println("Change notifications unavailable: " + e.getMessage());
+        }
+
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/LandingView.fxml"));
         Scene scene = new Scene(loader.load(), 920, 600);
         stage.setScene(scene);
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        try { org.example.upnext.service.NotificationScheduler.shutdown(); } catch (Exception ignored) {}
+        try { org.example.upnext.events.EventBus.shared().close(); } catch (Exception ignored) {}
+        try { org.example.upnext.config.Db.shutdown(); } catch (Exception ignored) {}
+    }
+
     public static void main(String[] args) { launch(args); }
 }
@@ -0,0 +1,409 @@
+package org.example.upnext.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Small bounded JDBC connection pool used by {@link Db}.
+ * Callers get a proxy whose close() hands the physical session back to the pool.
+ */
+final class ConnectionPool {
+
+    private final String url, user, password;
+    private final int minSize, maxSize;
+    private final long maxWaitMs, idleTimeoutMs, validationIntervalMs, leakDetectionMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>(); // guarded by lock, LIFO
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private int total;        // open physical connections, guarded by lock
+    private int pending;      // connections being opened, guarded by lock
+    private boolean closed;   // guarded by lock
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "db-pool-housekeeper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    ConnectionPool(String url, String user, String password,
+                   int minSize, int maxSize, long maxWaitMs,
+                   long idleTimeoutMs, long validationIntervalMs, long leakDetectionMs) {
+        if (maxSize < 1) throw new IllegalArgumentException("pool maxSize must be >= 1");
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = Math.max(0, Math.min(minSize, maxSize));
+        this.maxSize = maxSize;
+        this.maxWaitMs = maxWaitMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.validationIntervalMs = validationIntervalMs;
+        this.leakDetectionMs = leakDetectionMs;
+
+        long period = Math.min(idleTimeoutMs, 30_000);
+        if (leakDetectionMs > 0) period = Math.min(period, leakDetectionMs);
+        period = Math.max(1000, period);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // ===== borrow / return =====
+
+    /**
+     * Borrows a session with no CLIENT_IDENTIFIER, so an untagged write is not attributed to
+     * whichever user the session last carried (cheap: only sent when the session had one).
+     */
+    Connection borrow() throws SQLException {
+        return borrow(null);
+    }
+
+    /**
+     * Borrows a session tagged with the given CLIENT_IDENTIFIER (null/blank clears it).
+     * The identifier is remembered per physical session, so it is only re-sent when it changes.
+     */
+    Connection borrow(String clientIdentifier) throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+
+        while (true) {
+            PooledConnection pc = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) throw new SQLException("Connection pool is closed");
+                    pc = idle.pollFirst();
+                    if (pc != null) break;
+                    if (total + pending < maxSize) { pending++; create = true; break; }
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) {
+                        throw new SQLTimeoutException("Timed out after " + maxWaitMs + " ms waiting for a DB connection ("
+                                + borrowed.size() + " active, max " + maxSize + ")");
+                    }
+                    try {
+                        available.awaitNanos(left);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a DB connection", e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    pc = new PooledConnection(DriverManager.getConnection(url, user, password));
+                    createdCount.incrementAndGet();
+                } catch (SQLException e) {
+                    lock.lock();
+                    try { pending--; available.signal(); } finally { lock.unlock(); }
+                    throw e;
+                }
+                lock.lock();
+                try { pending--; total++; } finally { lock.unlock(); }
+            } else if (!validate(pc)) {
+                discard(pc);
+                continue; // try the next idle one (or open a fresh one)
+            }
+
+            try {
+                applyClientIdentifier(pc, clientIdentifier);
+            } catch (SQLException e) {
+                discard(pc);
+                throw e;
+            }
+
+            recordWait(System.nanoTime() - start);
+            pc.borrowedAt = System.currentTimeMillis();
+            pc.borrowSite = leakDetectionMs > 0 ? new Throwable("Connection borrowed here") : null;
+            pc.leakReported = false;
+            borrowed.add(pc);
+            return pc.newHandle();
+        }
+    }
+
+    private void giveBack(PooledConnection pc) {
+        borrowed.remove(pc);
+        if (pc.leakReported) {
+            System.err.println("[Db] previously reported leaked connection returned after "
+                    + (System.currentTimeMillis() - pc.borrowedAt) + " ms");
+        }
+
+        boolean healthy = reset(pc);
+        lock.lock();
+        try {
+            if (!healthy || closed) {
+                total--;
+            } else {
+                pc.lastUsed = System.currentTimeMillis();
+                idle.addFirst(pc);
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (!healthy || closed) closeQuietly(pc.physical);
+    }
+
+    /**
+     * OCSID.CLIENTID is an end-to-end metrics attribute: the driver ships it with the next
+     * statement instead of making its own round trip. Drivers that don't know it get the
+     * classic DBMS_SESSION call.
+     */
+    private void applyClientIdentifier(PooledConnection pc, String id) throws SQLException {
+        if (id != null && id.isBlank()) id = null;
+        if (Objects.equals(pc.clientIdentifier, id)) return;
+        try {
+            pc.physical.setClientInfo("OCSID.CLIENTID", id);
+        } catch (SQLClientInfoException e) {
+            if (id == null) {
+                try (CallableStatement cs = pc.physical.prepareCall("{ call DBMS_SESSION.CLEAR_IDENTIFIER }")) {
+                    cs.execute();
+                }
+            } else {
+                try (CallableStatement cs = pc.physical.prepareCall("{ call DBMS_SESSION.SET_IDENTIFIER(?) }")) {
+                    cs.setString(1, id);
+                    cs.execute();
+                }
+            }
+        }
+        pc.clientIdentifier = id;
+    }
+
+    /** Undo whatever the borrower left behind so the next one gets a clean session. */
+    private boolean reset(PooledConnection pc) {
+        try {
+            Connection c = pc.physical;
+            if (c.isClosed()) return false;
+            if (!c.getAutoCommit()) {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+            if (c.isReadOnly()) c.setReadOnly(false);
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /** Pings sessions that sat idle longer than the validation interval; recently used ones are trusted. */
+    private boolean validate(PooledConnection pc) {
+        try {
+            if (pc.physical.isClosed()) return false;
+            if (System.currentTimeMillis() - pc.lastUsed < validationIntervalMs) return true;
+            return pc.physical.isValid(5);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pc) {
+        lock.lock();
+        try { total--; available.signal(); } finally { lock.unlock(); }
+        evictedCount.incrementAndGet();
+        closeQuietly(pc.physical);
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // ===== housekeeping: idle eviction, min size, leak detection =====
+
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            List<PooledConnection> expired = new ArrayList<>();
+            int missing;
+            lock.lock();
+            try {
+                if (closed) return;
+                // oldest idle connections sit at the tail of the deque
+                Iterator<PooledConnection> it = idle.descendingIterator();
+                while (it.hasNext() && total - expired.size() > minSize) {
+                    PooledConnection pc = it.next();
+                    if (now - pc.lastUsed >= idleTimeoutMs) {
+                        it.remove();
+                        expired.add(pc);
+                    }
+                }
+                total -= expired.size();
+                missing = minSize - (total + pending);
+                if (missing > 0) pending += missing;
+            } finally {
+                lock.unlock();
+            }
+            for (PooledConnection pc : expired) {
+                evictedCount.incrementAndGet();
+                closeQuietly(pc.physical);
+            }
+            for (int i = 0; i < missing; i++) topUp();
+
+            if (leakDetectionMs > 0) {
+                for (PooledConnection pc : borrowed) {
+                    if (!pc.leakReported && now - pc.borrowedAt > leakDetectionMs) {
+                        pc.leakReported = true;
+                        leakCount.incrementAndGet();
+                        System.err.println("[Db] possible connection leak: held for "
+                                + (now - pc.borrowedAt) + " ms");
+                        if (pc.borrowSite != null) pc.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("[Db] pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    private void topUp() {
+        PooledConnection pc = null;
+        try {
+            pc = new PooledConnection(DriverManager.getConnection(url, user, password));
+            createdCount.incrementAndGet();
+        } catch (SQLException e) {
+            System.err.println("[Db] could not pre-open pooled connection: " + e.getMessage());
+        }
+        lock.lock();
+        try {
+            pending--;
+            if (pc != null && !closed) {
+                total++;
+                idle.addLast(pc);
+                available.signal();
+                pc = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (pc != null) closeQuietly(pc.physical);
+    }
+
+    // ===== lifecycle / metrics =====
+
+    void close() {
+        housekeeper.shutdownNow();
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            total -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pc : toClose) closeQuietly(pc.physical);
+    }
+
+    Db.PoolStats stats() {
+        int idleNow, totalNow, waiting;
+        lock.lock();
+        try {
+            idleNow = idle.size();
+            totalNow = total;
+            waiting = lock.getWaitQueueLength(available);
+        } finally {
+            lock.unlock();
+        }
+        long borrows = borrowCount.get();
+        return new Db.PoolStats(
+                borrowed.size(), idleNow, totalNow, maxSize, waiting,
+                borrows,
+                borrows == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.get() / borrows) / 1000.0,
+                TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()) / 1000.0,
+                createdCount.get(), evictedCount.get(), leakCount.get());
+    }
+
+    private static void closeQuietly(Connection c) {
+        try { c.close(); } catch (SQLException ignored) {}
+    }
+
+    // ===== pooled session + per-borrow handle =====
+
+    private final class PooledConnection {
+        final Connection physical;
+        volatile long lastUsed = System.currentTimeMillis();
+        volatile long borrowedAt;
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+        String clientIdentifier;   // what CLIENT_IDENTIFIER is set to on this session; only touched by its borrower
+
+        PooledConnection(Connection physical) { this.physical = physical; }
+
+        /** Each borrow gets its own handle, so a stale reference can't touch the next borrower's session. */
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pc;
+        private boolean released;
+
+        Handle(PooledConnection pc) { this.pc = pc; }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!released) { released = true; giveBack(pc); }
+                    }
+                    return null;
+                case "isClosed":
+                    synchronized (this) { return released || pc.physical.isClosed(); }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + pc.physical + "]";
+                default:
+                    synchronized (this) {
+                        if (released) throw new SQLException("Connection is closed");
+                    }
+                    try {
+                        return method.invoke(pc.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -5,14 +5,18 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
 
 public class Db {
     private static String url, user, password;
+    private static Properties props = new Properties();
+    private static ConnectionPool pool;
 
     static {
         try {
             Properties p = loadProps();
+            props = p;
             url = firstNonNull(p.getProperty("jdbc.url"), p.getProperty("db.url"));
             user = firstNonNull(p.getProperty("jdbc.user"), p.getProperty("db.user"));
             password = firstNonNull(p.getProperty("jdbc.password"), p.getProperty("db.password"));
@@ -23,6 +27,15 @@ public class Db {
 
             if (url == null) throw new IllegalStateException("jdbc.url is null (config not found or wrong keys)");
             Class.forName("oracle.jdbc.driver.OracleDriver"); // ok for ojdbc11/17
+
+            pool = new ConnectionPool(url, user, password,
+                    intProperty("db.pool.minSize", 1),
+                    intProperty("db.pool.maxSize", 8),
+                    longProperty("db.pool.maxWaitMs", 10_000),
+                    longProperty("db.pool.idleTimeoutMs", 300_000),
+                    longProperty("db.pool.validationIntervalMs", 30_000),
+                    longProperty("db.pool.leakDetectionMs", 60_000));
+            System.out.println("[Db] pool         = " + pool.stats());
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize DB config", e);
         }
@@ -52,7 +65,81 @@ public class Db {
 
     private static String firstNonNull(String a, String b) { return a != null ? a : b; }
 
+    public static String property(String key, String def) { return props.getProperty(key, def); }
+
+    public static int intProperty(String key, int def) {
+        String v = props.getProperty(key);
+        return v == null || v.isBlank() ? def : Integer.parseInt(v.trim());
+    }
+
+    public static long longProperty(String key, long def) {
+        String v = props.getProperty(key);
+        return v == null || v.isBlank() ? def : Long.parseLong(v.trim());
+    }
+
+    /** An enum constant by name (case-insensitive); an unknown name is reported and def is used. */
+    public static <E extends Enum<E>> E enumProperty(String key, Class<E> type, E def) {
+        String v = props.getProperty(key);
+        if (v == null || v.isBlank()) return def;
+        try {
+            return Enum.valueOf(type, v.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("[Db] Unknown " + key + "=" + v.trim() + ", using " + def);
+            return def;
+        }
+    }
+
+    /** Borrows a pooled session with no CLIENT_IDENTIFIER; close() returns it to the pool instead of logging off. */
     public static Connection getConnection() throws SQLException {
+        return pool.borrow();
+    }
+
+    /** Opens a dedicated session outside the pool (long-lived listeners, admin tools). */
+    public static Connection openUnpooled() throws SQLException {
         return DriverManager.getConnection(url, user, password);
     }
+
+    /**
+     * Borrows a pooled session whose CLIENT_IDENTIFIER is the given app user (null clears it),
+     * which is what the audit triggers record as PERFORMED_BY.
+     */
+    public static Connection getConnection(String clientIdentifier) throws SQLException {
+        return pool.borrow(clientIdentifier);
+    }
+
+    public static PoolStats poolStats() { return pool.stats(); }
+
+    /** Closes idle pooled sessions; call once on application exit. */
+    public static void shutdown() { pool.close(); }
+
+    /** Point-in-time pool metrics; wait times are in milliseconds. */
+    public static final class PoolStats {
+        private final int active, idle, total, max, waiting;
+        private final long borrows, created, evicted, leaks;
+        private final double avgWaitMs, maxWaitMs;
+
+        PoolStats(int active, int idle, int total, int max, int waiting, long borrows,
+                  double avgWaitMs, double maxWaitMs, long created, long evicted, long leaks) {
+            this.active = active; this.idle = idle; this.total = total; this.max = max; this.waiting = waiting;
+            this.borrows = borrows; this.avgWaitMs = avgWaitMs; this.maxWaitMs = maxWaitMs;
+            this.created = created; this.evicted = evicted; this.leaks = leaks;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getTotal() { return total; }
+        public int getMax() { return max; }
+        public int getWaiting() { return waiting; }
+        public long getBorrows() { return borrows; }
+        public double getAvgWaitMs() { return avgWaitMs; }
+        public double getMaxWaitMs() { return maxWaitMs; }
+        public long getCreated() { return created; }
+        public long getEvicted() { return evicted; }
+        public long getLeaks() { return leaks; }
+
+        @Override public String toString() {
+            return String.format("active=%d idle=%d total=%d/%d waiting=%d borrows=%d avgWait=%.2fms maxWait=%.2fms created=%d evicted=%d leaks=%d",
+                    active, idle, total, max, waiting, borrows, avgWaitMs, maxWaitMs, created, evicted, leaks);
+        }
+    }
 }
@@ -6,27 +6,20 @@ import org.example.upnext.auth.AuthContext;
 import java.sql.*;
 
 public abstract class BaseDAO {
-//    protected Connection getConn() throws SQLException {
-//        return Db.getConnection();
-//    }
+    // shared by every DAO so concurrent writers draw from the same per-sequence blocks
+    private static final SequenceAllocator IDS = new SequenceAllocator(Db.intProperty("db.sequence.blockSize", 50));
+
     protected Connection getConn() throws SQLException {
-        Connection c = Db.getConnection();  // your existing line
-        String id = AuthContext.getUsername();
-        if (id != null && !id.isBlank()) {
-            try (CallableStatement cs = c.prepareCall("{ call DBMS_SESSION.SET_IDENTIFIER(?) }")) {
-                cs.setString(1, id);   // app username goes to CLIENT_IDENTIFIER
-                cs.execute();
-            }
-        }
-        return c;
+        // app username goes to CLIENT_IDENTIFIER; the pool only re-sends it when the session's value changes
+        return Db.getConnection(AuthContext.getUsername());
     }
     protected void close(AutoCloseable c) { if (c != null) try { c.close(); } catch (Exception ignored) {} }
 
     protected long nextVal(Connection conn, String seqName) throws SQLException {
-        try (PreparedStatement ps = conn.prepareStatement("SELECT " + seqName + ".NEXTVAL FROM DUAL");
-             ResultSet rs = ps.executeQuery()) {
-            if (rs.next()) return rs.getLong(1);
-            throw new SQLException("No NEXTVAL for seq: " + seqName);
-        }
+        return IDS.next(conn, seqName);
+    }
+
+    protected long[] nextVals(Connection conn, String seqName, int n) throws SQLException {
+        return IDS.next(conn, seqName, n);
     }
 }
@@ -0,0 +1,24 @@
+package org.example.upnext.dao;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Named leases shared by every app instance on the schema, so that a periodic job runs on one
+ * of them only. A lease is held until it expires; the holder renews it by acquiring it again,
+ * and anyone may take it over once it has expired. Each lease also carries a small state string
+ * (e.g. the job's last completed run) that only the current holder may change.
+ */
+public interface LeaseDAO {
+    /** Takes or renews the lease for ttl; true if holder owns it afterwards. */
+    boolean tryAcquire(String name, String holder, Duration ttl) throws SQLException;
+
+    /** Gives the lease up early, if holder still owns it. */
+    void release(String name, String holder) throws SQLException;
+
+    Optional<String> state(String name) throws SQLException;
+
+    /** Stores the state if holder still owns an unexpired lease; false if it was lost meanwhile. */
+    boolean saveState(String name, String holder, String state) throws SQLException;
+}
@@ -1,9 +1,15 @@
 package org.example.upnext.dao;
 
 import org.example.upnext.model.Notification;
+import org.example.upnext.model.NotificationPage;
 import org.example.upnext.model.Task;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public interface NotificationDAO {
     // feeds
@@ -11,13 +17,47 @@ public interface NotificationDAO {
     List<Notification> findUserInbox(long projectId, long userId);
     List<Notification> findAssignedByMe(long projectId, long creatorUserId);
 
+    // keyset-paged feeds: up to limit rows after the cursor (null = from the newest), newest first
+    List<Notification> findForProjectAsAdmin(long projectId, NotificationPage.Cursor after, int limit);
+    List<Notification> findUserInbox(long projectId, long userId, NotificationPage.Cursor after, int limit);
+    List<Notification> findAssignedByMe(long projectId, long creatorUserId, NotificationPage.Cursor after, int limit);
+
+    // read state / unread badge (USER_ID = the recipient)
+    int markRead(long notificationId, long userId) throws SQLException;
+    /** Marks the user's unread notifications in the project read; returns how many changed. */
+    int markAllRead(long projectId, long userId) throws SQLException;
+    int countUnread(long projectId, long userId) throws SQLException;
+    /** Highest NOTIF_ID addressed to the user in the project, 0 if none; the poller's starting point. */
+    long lastNotificationId(long projectId, long userId) throws SQLException;
+    /** The user's notifications in the project with NOTIF_ID above afterId, oldest first. */
+    List<Notification> findNewerThan(long projectId, long userId, long afterId) throws SQLException;
+
     // overdue
     List<Task> findOverdueForAdmin(long projectId);
     List<Task> findOverdueForUserInbox(long projectId, long userId);
     List<Task> findOverdueForAssignedByMe(long projectId, long userId);
+    /**
+     * Overdue tasks the manager is assigned to or created, each once, by due date. This default
+     * merges the two lists above by TASK_ID; implementations should answer it in one query.
+     */
+    default List<Task> findOverdueForManager(long projectId, long userId) {
+        Map<Long, Task> byId = new LinkedHashMap<>();
+        for (Task t : findOverdueForUserInbox(projectId, userId)) byId.putIfAbsent(t.getTaskId(), t);
+        for (Task t : findOverdueForAssignedByMe(projectId, userId)) byId.putIfAbsent(t.getTaskId(), t);
+        List<Task> out = new ArrayList<>(byId.values());
+        out.sort(Comparator.comparing(Task::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Task::getTaskId));
+        return out;
+    }
 
     // notification generation
     void createDueSoonNotification(long taskId, long userId) throws SQLException;
     void createDeadlinePassedNotification(long taskId, long userId) throws SQLException;
     boolean notificationExists(long taskId, long userId, String type) throws SQLException;
+
+    // bulk generation: one INSERT ... SELECT per call, for tasks due in [fromDay, toDay)
+    /** DUE_SOON_3D for every open assigned task due in the window that has none yet; returns rows inserted. */
+    int createDueSoonNotifications(LocalDate fromDay, LocalDate toDay) throws SQLException;
+    /** DEADLINE_PASSED for every TODO/IN_PROGRESS assigned task due in the window that has none yet. */
+    int createDeadlinePassedNotifications(LocalDate fromDay, LocalDate toDay) throws SQLException;
 }
\ No newline at end of file
@@ -1,9 +1,14 @@
 package org.example.upnext.dao;
 
+import org.example.upnext.model.ProgressTotals;
 import org.example.upnext.model.Project;
+import org.example.upnext.model.ProjectActivity;
+import org.example.upnext.model.ProjectSnapshot;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface ProjectDAO {
@@ -18,5 +23,17 @@ public interface ProjectDAO {
     void assignManager(long projectId, long managerId) throws SQLException;
     java.util.List<org.example.upnext.model.Project> findByMember(long userId) throws java.sql.SQLException;
     double getProjectProgress(long projectId) throws SQLException;
+
+    /**
+     * Progress sums (see ProgressTotals) of the given projects from their tasks, in one grouped
+     * query per 500 ids; projects without tasks map to ProgressTotals.EMPTY.
+     */
+    Map<Long, ProgressTotals> findProgressTotals(Collection<Long> projectIds, double defaultHours) throws SQLException;
+
+    /** Project, tasks, members, status counts and the user's role in a single query. */
+    Optional<ProjectSnapshot> snapshot(long projectId, long userId) throws SQLException;
+
+    /** Status, start date, UPDATED_AT and task counts / latest task change of every project, in one query. */
+    List<ProjectActivity> findActivity() throws SQLException;
 }
 
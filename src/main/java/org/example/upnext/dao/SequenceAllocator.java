@@ -0,0 +1,91 @@
+package org.example.upnext.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Hands out sequence values from in-memory blocks so a create doesn't need its own
+ * NEXTVAL round trip. A block is fetched with one query
+ * (SELECT seq.NEXTVAL FROM DUAL CONNECT BY LEVEL <= n), so it works with the
+ * existing INCREMENT BY 1 sequences. Values left in a block when the app exits are
+ * simply skipped, like any sequence gap.
+ */
+public final class SequenceAllocator {
+    private static final Pattern SEQ_NAME = Pattern.compile("[A-Za-z][A-Za-z0-9_$#]*(\\.[A-Za-z][A-Za-z0-9_$#]*)?");
+
+    private final int blockSize;
+    private final ConcurrentHashMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public SequenceAllocator(int blockSize) {
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public long next(Connection conn, String seqName) throws SQLException {
+        return block(seqName).take(conn);
+    }
+
+    /** Reserves n values at once (bulk inserts); at most one extra round trip. */
+    public long[] next(Connection conn, String seqName, int n) throws SQLException {
+        return block(seqName).take(conn, n);
+    }
+
+    private Block block(String seqName) {
+        String key = seqName.toUpperCase();
+        Block b = blocks.get(key);
+        if (b != null) return b;
+        if (!SEQ_NAME.matcher(key).matches()) throw new IllegalArgumentException("Bad sequence name: " + seqName);
+        return blocks.computeIfAbsent(key, Block::new);
+    }
+
+    private final class Block {
+        private final String sql;
+        private long[] values = new long[0];
+        private int pos;
+
+        Block(String seqName) {
+            this.sql = "SELECT " + seqName + ".NEXTVAL FROM DUAL CONNECT BY LEVEL <= ?";
+        }
+
+        synchronized long take(Connection conn) throws SQLException {
+            if (pos == values.length) {
+                values = fetch(conn, blockSize);
+                pos = 0;
+            }
+            return values[pos++];
+        }
+
+        synchronized long[] take(Connection conn, int n) throws SQLException {
+            long[] out = new long[n];
+            int have = Math.min(n, values.length - pos);
+            System.arraycopy(values, pos, out, 0, have);
+            pos += have;
+            if (have < n) {
+                int missing = n - have;
+                // round up to whole blocks so the leftovers serve the next single creates
+                long[] fetched = fetch(conn, ((missing + blockSize - 1) / blockSize) * blockSize);
+                System.arraycopy(fetched, 0, out, have, missing);
+                values = fetched;
+                pos = missing;
+            }
+            return out;
+        }
+
+        private long[] fetch(Connection conn, int n) throws SQLException {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, n);
+                ps.setFetchSize(Math.min(n, 1000));
+                try (ResultSet rs = ps.executeQuery()) {
+                    long[] out = new long[n];
+                    int i = 0;
+                    while (i < n && rs.next()) out[i++] = rs.getLong(1);
+                    if (i < n) throw new SQLException("Sequence returned " + i + " of " + n + " values: " + sql);
+                    return out;
+                }
+            }
+        }
+    }
+}
@@ -4,20 +4,53 @@ import org.example.upnext.model.Task;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface TaskDAO {
     long create(Task t) throws SQLException;
+
+    /**
+     * Bulk insert with JDBC batching. A task may reference a parent created in the same call by
+     * giving the parent a temporary (e.g. negative) taskId and using it as the child's parentTaskId;
+     * parents are inserted before their children whatever the input order.
+     * Returns the new IDs in input order and sets them on the tasks.
+     */
+    List<Long> createAll(List<Task> tasks) throws SQLException;
+
+    /**
+     * As {@link #createAll(List)}; commitInterval <= 0 means a single all-or-nothing transaction.
+     * If a later batch fails after some rows were committed, those tasks have their new IDs set
+     * (the others keep their input taskId) before the SQLException is thrown.
+     */
+    List<Long> createAll(List<Task> tasks, int batchSize, int commitInterval) throws SQLException;
     void update(Task t) throws SQLException;
     void delete(long taskId) throws SQLException;
 
     Optional<Task> findById(long taskId) throws SQLException;
     List<Task> findByProject(long projectId) throws SQLException;
     List<Task> findChildren(long parentTaskId) throws SQLException;
+
+    /** The task and all its descendants in one hierarchical query, each parent before its children. */
+    List<Task> findSubtree(long rootTaskId) throws SQLException;
     List<Task> findBlocked(long projectId) throws SQLException;
     void assignTo(long taskId, long userId) throws SQLException;
     void updateStatus(long taskId, String status) throws SQLException;
     void setProgress(long taskId, double pct) throws SQLException;
+
+    /**
+     * Moves every open (not DONE/CANCELLED) task of the project to the status implied by the
+     * project's new status, as ProjectService.determineTaskStatusFromProject, in one statement.
+     * Returns the number of tasks whose status changed.
+     */
+    int cascadeProjectStatus(long projectId, String projectStatus, LocalDate today) throws SQLException;
     List<Task> findTasksDueOn(LocalDate date) throws SQLException;
+
+    /** Tasks of the project inserted or updated after the given time (NVL(UPDATED_AT, CREATED_AT) > since). */
+    List<Task> findChangedSince(long projectId, OffsetDateTime since) throws SQLException;
+
+    /** All TASK_IDs of the project; compared with a previous load to find deleted tasks. */
+    Set<Long> findIdsByProject(long projectId) throws SQLException;
 }
\ No newline at end of file
@@ -11,6 +11,8 @@ public interface TaskDependencyDAO {
     long create(TaskDependency d) throws SQLException;
     void delete(long depId) throws SQLException;
     List<TaskDependency> findForSuccessor(long successorTaskId) throws SQLException;
+    /** All dependency edges whose successor belongs to the project. */
+    List<TaskDependency> findByProject(long projectId) throws SQLException;
     boolean hasUnfinishedPredecessor(long successorTaskId) throws SQLException;
     List<Task> getHigherPriorityUnfinishedTasks(long taskId, long parentTaskId, String currentPriority) throws SQLException;
 }
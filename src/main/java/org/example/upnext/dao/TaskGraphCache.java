@@ -0,0 +1,152 @@
+package org.example.upnext.dao;
+
+import org.example.upnext.config.Db;
+import org.example.upnext.model.Task;
+import org.example.upnext.model.TaskDependency;
+import org.example.upnext.model.TaskGraph;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LRU cache of per-project {@link TaskGraph}s. Writers invalidate through
+ * {@link #invalidateProject}/{@link #invalidateTask}; entries also expire after maxAgeMs
+ * so changes made by other app instances show up eventually.
+ */
+public final class TaskGraphCache {
+
+    @FunctionalInterface
+    public interface Loader {
+        TaskGraph load(long projectId) throws SQLException;
+    }
+
+    private static final TaskGraphCache SHARED = new TaskGraphCache(
+            Db.intProperty("cache.taskGraph.maxProjects", 32),
+            Db.longProperty("cache.taskGraph.maxAgeMs", 30_000));
+
+    /** The process-wide instance, so every DAO/service sees the same invalidations. */
+    public static TaskGraphCache shared() { return SHARED; }
+
+    private final int maxProjects;
+    private final long maxAgeMs;
+    private final LinkedHashMap<Long, Entry> entries;               // guarded by this
+    private final Map<Long, Long> generations = new HashMap<>();     // guarded by this
+    private final Map<Long, Long> projectOfTask = new ConcurrentHashMap<>();
+
+    private long hits, misses;   // guarded by this
+    private long unknownTaskEpoch; // bumped when a task outside every cached graph changes; guarded by this
+
+    public TaskGraphCache(int maxProjects, long maxAgeMs) {
+        this.maxProjects = Math.max(1, maxProjects);
+        this.maxAgeMs = maxAgeMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= TaskGraphCache.this.maxProjects) return false;
+                unindex(eldest.getValue().graph);
+                return true;
+            }
+        };
+    }
+
+    /** Returns the cached graph or loads it; a load racing with an invalidation is not cached. */
+    public TaskGraph get(long projectId, Loader loader) throws SQLException {
+        long gen, epoch;
+        synchronized (this) {
+            Entry e = entries.get(projectId);
+            if (e != null && System.currentTimeMillis() - e.loadedAt < maxAgeMs) {
+                hits++;
+                return e.graph;
+            }
+            if (e != null) remove(projectId);
+            misses++;
+            gen = generations.getOrDefault(projectId, 0L);
+            epoch = unknownTaskEpoch;
+        }
+
+        TaskGraph g = loader.load(projectId);
+
+        synchronized (this) {
+            if (generations.getOrDefault(projectId, 0L) == gen && unknownTaskEpoch == epoch) {
+                Entry old = entries.put(projectId, new Entry(g, System.currentTimeMillis()));
+                if (old != null) unindex(old.graph);
+                for (Task t : g.tasks()) projectOfTask.put(t.getTaskId(), projectId);
+            }
+        }
+        return g;
+    }
+
+    /** Most projects held at once (cache.taskGraph.maxProjects). */
+    public int maxProjects() { return maxProjects; }
+
+    /** Cached graph if present and fresh, without loading. */
+    public synchronized TaskGraph peek(long projectId) {
+        Entry e = entries.get(projectId);
+        return e != null && System.currentTimeMillis() - e.loadedAt < maxAgeMs ? e.graph : null;
+    }
+
+    /** Project a cached task belongs to, or null if no cached graph contains it. */
+    public Long projectOf(long taskId) { return projectOfTask.get(taskId); }
+
+    public synchronized void invalidateProject(long projectId) {
+        generations.merge(projectId, 1L, Long::sum);
+        remove(projectId);
+    }
+
+    /**
+     * Drops the project that owns the task and any cached project with a dependency edge on it
+     * (the blocking triggers update successors, which may live in another project). If no cached
+     * graph knows the task, loads already in flight are not cached either.
+     */
+    public synchronized void invalidateTask(long taskId) {
+        Long owner = projectOfTask.get(taskId);
+        if (owner == null) unknownTaskEpoch++;
+        else invalidateProject(owner);
+        List<Long> linked = new ArrayList<>();
+        for (Map.Entry<Long, Entry> e : entries.entrySet()) {
+            TaskGraph g = e.getValue().graph;
+            if (!g.successors(taskId).isEmpty() || !g.predecessors(taskId).isEmpty()) linked.add(e.getKey());
+        }
+        for (Long projectId : linked) invalidateProject(projectId);
+    }
+
+    /** Drops whichever cached project holds the given dependency row. */
+    public synchronized void invalidateDependency(long depId) {
+        Long hit = null;
+        for (Map.Entry<Long, Entry> e : entries.entrySet()) {
+            for (TaskDependency d : e.getValue().graph.dependencies()) {
+                if (d.getDepId() != null && d.getDepId() == depId) { hit = e.getKey(); break; }
+            }
+            if (hit != null) break;
+        }
+        if (hit != null) invalidateProject(hit);
+        else unknownTaskEpoch++;
+    }
+
+    public synchronized void clear() {
+        for (Long projectId : List.copyOf(entries.keySet())) invalidateProject(projectId);
+    }
+
+    public synchronized String stats() {
+        return "projects=" + entries.size() + "/" + maxProjects + " hits=" + hits + " misses=" + misses;
+    }
+
+    private void remove(long projectId) {
+        Entry e = entries.remove(projectId);
+        if (e != null) unindex(e.graph);
+    }
+
+    private void unindex(TaskGraph g) {
+        for (Task t : g.tasks()) projectOfTask.remove(t.getTaskId(), g.getProjectId());
+    }
+
+    private static final class Entry {
+        final TaskGraph graph;
+        final long loadedAt;
+        Entry(TaskGraph graph, long loadedAt) { this.graph = graph; this.loadedAt = loadedAt; }
+    }
+}
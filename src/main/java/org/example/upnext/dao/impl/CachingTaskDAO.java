@@ -0,0 +1,231 @@
+package org.example.upnext.dao.impl;
+
+import org.example.upnext.dao.TaskDAO;
+import org.example.upnext.dao.TaskDependencyDAO;
+import org.example.upnext.dao.TaskGraphCache;
+import org.example.upnext.model.Task;
+import org.example.upnext.model.TaskGraph;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * TaskDAO that serves project reads from {@link TaskGraphCache} and invalidates the affected
+ * project on every write. Callers get copies, so editing a returned Task never touches the cache.
+ */
+public class CachingTaskDAO implements TaskDAO {
+    private final TaskDAO delegate;
+    private final TaskDependencyDAO depDAO;
+    private final TaskGraphCache cache;
+
+    public CachingTaskDAO() {
+        this(new TaskDAOImpl(), new TaskDependencyDAOImpl(), TaskGraphCache.shared());
+    }
+
+    public CachingTaskDAO(TaskDAO delegate, TaskDependencyDAO depDAO, TaskGraphCache cache) {
+        this.delegate = delegate;
+        this.depDAO = depDAO;
+        this.cache = cache;
+    }
+
+    /** The cached graph for a project (tasks, children, dependency edges); do not modify its tasks. */
+    public TaskGraph graph(long projectId) throws SQLException {
+        return cache.get(projectId, pid -> new TaskGraph(pid, delegate.findByProject(pid), depDAO.findByProject(pid)));
+    }
+
+    // ==============================================================================
+    // Reads
+    // ==============================================================================
+
+    @Override
+    public Optional<Task> findById(long taskId) throws SQLException {
+        Long projectId = cache.projectOf(taskId);
+        TaskGraph g = projectId == null ? null : cache.peek(projectId);
+        if (g != null && g.contains(taskId)) return Optional.of(copy(g.task(taskId)));
+        return delegate.findById(taskId);
+    }
+
+    @Override
+    public List<Task> findByProject(long projectId) throws SQLException {
+        return copies(graph(projectId).tasks());
+    }
+
+    @Override
+    public List<Task> findChildren(long parentTaskId) throws SQLException {
+        Long projectId = cache.projectOf(parentTaskId);
+        TaskGraph g = projectId == null ? null : cache.peek(projectId);
+        if (g != null && g.contains(parentTaskId)) return copies(g.children(parentTaskId));
+        return delegate.findChildren(parentTaskId);
+    }
+
+    @Override
+    public List<Task> findSubtree(long rootTaskId) throws SQLException {
+        Long projectId = cache.projectOf(rootTaskId);
+        TaskGraph g = projectId == null ? null : cache.peek(projectId);
+        if (g == null || !g.contains(rootTaskId)) return delegate.findSubtree(rootTaskId);
+        List<Task> out = new ArrayList<>();   // depth-first, parents before children as CONNECT BY
+        Set<Long> seen = new HashSet<>();     // NOCYCLE
+        Deque<Task> stack = new ArrayDeque<>();
+        stack.push(g.task(rootTaskId));
+        while (!stack.isEmpty()) {
+            Task t = stack.pop();
+            if (!seen.add(t.getTaskId())) continue;
+            out.add(copy(t));
+            List<Task> kids = g.children(t.getTaskId());
+            for (int i = kids.size() - 1; i >= 0; i--) stack.push(kids.get(i));
+        }
+        return out;
+    }
+
+    @Override
+    public List<Task> findBlocked(long projectId) throws SQLException {
+        return delegate.findBlocked(projectId);
+    }
+
+    @Override
+    public List<Task> findTasksDueOn(LocalDate date) throws SQLException {
+        return delegate.findTasksDueOn(date);
+    }
+
+    @Override
+    public List<Task> findChangedSince(long projectId, OffsetDateTime since) throws SQLException {
+        return delegate.findChangedSince(projectId, since);
+    }
+
+    @Override
+    public Set<Long> findIdsByProject(long projectId) throws SQLException {
+        return delegate.findIdsByProject(projectId);
+    }
+
+    // ==============================================================================
+    // Writes (invalidate after the delegate commits)
+    // ==============================================================================
+
+    @Override
+    public long create(Task t) throws SQLException {
+        try {
+            return delegate.create(t);
+        } finally {
+            if (t.getProjectId() != null) cache.invalidateProject(t.getProjectId());
+        }
+    }
+
+    @Override
+    public List<Long> createAll(List<Task> tasks) throws SQLException {
+        try {
+            return delegate.createAll(tasks);
+        } finally {
+            invalidateProjects(tasks);
+        }
+    }
+
+    @Override
+    public List<Long> createAll(List<Task> tasks, int batchSize, int commitInterval) throws SQLException {
+        try {
+            return delegate.createAll(tasks, batchSize, commitInterval);
+        } finally {
+            invalidateProjects(tasks);
+        }
+    }
+
+    @Override
+    public void update(Task t) throws SQLException {
+        try {
+            delegate.update(t);
+        } finally {
+            cache.invalidateTask(t.getTaskId());
+            if (t.getProjectId() != null) cache.invalidateProject(t.getProjectId());
+        }
+    }
+
+    @Override
+    public void delete(long taskId) throws SQLException {
+        try {
+            delegate.delete(taskId);
+        } finally {
+            cache.invalidateTask(taskId);
+        }
+    }
+
+    @Override
+    public void assignTo(long taskId, long userId) throws SQLException {
+        try {
+            delegate.assignTo(taskId, userId);
+        } finally {
+            cache.invalidateTask(taskId);
+        }
+    }
+
+    @Override
+    public void updateStatus(long taskId, String status) throws SQLException {
+        try {
+            delegate.updateStatus(taskId, status);
+        } finally {
+            cache.invalidateTask(taskId);
+        }
+    }
+
+    @Override
+    public void setProgress(long taskId, double pct) throws SQLException {
+        try {
+            delegate.setProgress(taskId, pct);
+        } finally {
+            cache.invalidateTask(taskId);
+        }
+    }
+
+    @Override
+    public int cascadeProjectStatus(long projectId, String projectStatus, LocalDate today) throws SQLException {
+        try {
+            return delegate.cascadeProjectStatus(projectId, projectStatus, today);
+        } finally {
+            cache.invalidateProject(projectId);
+        }
+    }
+
+    // ==============================================================================
+    // Helpers
+    // ==============================================================================
+
+    private void invalidateProjects(List<Task> tasks) {
+        Set<Long> projects = new HashSet<>();
+        for (Task t : tasks) if (t.getProjectId() != null) projects.add(t.getProjectId());
+        for (Long projectId : projects) cache.invalidateProject(projectId);
+    }
+
+    private static List<Task> copies(List<Task> tasks) {
+        List<Task> out = new ArrayList<>(tasks.size());
+        for (Task t : tasks) out.add(copy(t));
+        return out;
+    }
+
+    private static Task copy(Task s) {
+        Task t = new Task();
+        t.setTaskId(s.getTaskId());
+        t.setProjectId(s.getProjectId());
+        t.setParentTaskId(s.getParentTaskId());
+        t.setTitle(s.getTitle());
+        t.setDescription(s.getDescription());
+        t.setAssigneeId(s.getAssigneeId());
+        t.setAssigneeName(s.getAssigneeName());
+        t.setStatus(s.getStatus());
+        t.setPriority(s.getPriority());
+        t.setStartDate(s.getStartDate());
+        t.setDueDate(s.getDueDate());
+        t.setProgressPct(s.getProgressPct());
+        t.setEstimatedHours(s.getEstimatedHours());
+        t.setActualHours(s.getActualHours());
+        t.setBlocked(s.isBlocked());
+        t.setCreatedAt(s.getCreatedAt());
+        t.setUpdatedAt(s.getUpdatedAt());
+        return t;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.upnext.dao.impl;
+
+import org.example.upnext.dao.TaskDependencyDAO;
+import org.example.upnext.dao.TaskGraphCache;
+import org.example.upnext.model.Task;
+import org.example.upnext.model.TaskDependency;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/** TaskDependencyDAO that keeps {@link TaskGraphCache} in step with dependency edits. */
+public class CachingTaskDependencyDAO implements TaskDependencyDAO {
+    private final TaskDependencyDAO delegate;
+    private final TaskGraphCache cache;
+
+    public CachingTaskDependencyDAO() {
+        this(new TaskDependencyDAOImpl(), TaskGraphCache.shared());
+    }
+
+    public CachingTaskDependencyDAO(TaskDependencyDAO delegate, TaskGraphCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public long create(TaskDependency d) throws SQLException {
+        try {
+            return delegate.create(d);
+        } finally {
+            // the successor may become blocked, and the new edge belongs to its project
+            cache.invalidateTask(d.getSuccessorTaskId());
+            cache.invalidateTask(d.getPredecessorTaskId());
+        }
+    }
+
+    @Override
+    public void delete(long depId) throws SQLException {
+        try {
+            delegate.delete(depId);
+        } finally {
+            cache.invalidateDependency(depId);
+        }
+    }
+
+    @Override
+    public List<TaskDependency> findForSuccessor(long successorTaskId) throws SQLException {
+        return delegate.findForSuccessor(successorTaskId);
+    }
+
+    @Override
+    public List<TaskDependency> findByProject(long projectId) throws SQLException {
+        return delegate.findByProject(projectId);
+    }
+
+    @Override
+    public boolean hasUnfinishedPredecessor(long successorTaskId) throws SQLException {
+        return delegate.hasUnfinishedPredecessor(successorTaskId);
+    }
+
+    @Override
+    public List<Task> getHigherPriorityUnfinishedTasks(long taskId, long parentTaskId, String currentPriority) throws SQLException {
+        return delegate.getHigherPriorityUnfinishedTasks(taskId, parentTaskId, currentPriority);
+    }
+}
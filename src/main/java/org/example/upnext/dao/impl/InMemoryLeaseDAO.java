@@ -0,0 +1,63 @@
+package org.example.upnext.dao.impl;
+
+import org.example.upnext.dao.LeaseDAO;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * LeaseDAO kept in this process, for running without the APP_LEASES table (a single instance)
+ * and for exercising the scheduler without a database.
+ */
+public class InMemoryLeaseDAO implements LeaseDAO {
+    private final Clock clock;
+    private final Map<String, Lease> leases = new HashMap<>();
+
+    private static final class Lease {
+        String holder;
+        Instant expiresAt;
+        String state;
+    }
+
+    public InMemoryLeaseDAO() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemoryLeaseDAO(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized boolean tryAcquire(String name, String holder, Duration ttl) {
+        Instant now = clock.instant();
+        Lease l = leases.computeIfAbsent(name, k -> new Lease());
+        if (l.holder != null && !l.holder.equals(holder) && !l.expiresAt.isBefore(now)) return false;
+        l.holder = holder;
+        l.expiresAt = now.plus(ttl);
+        return true;
+    }
+
+    @Override
+    public synchronized void release(String name, String holder) {
+        Lease l = leases.get(name);
+        if (l != null && holder.equals(l.holder)) l.expiresAt = clock.instant().minusMillis(1);   // free at once
+    }
+
+    @Override
+    public synchronized Optional<String> state(String name) {
+        Lease l = leases.get(name);
+        return l == null ? Optional.empty() : Optional.ofNullable(l.state);
+    }
+
+    @Override
+    public synchronized boolean saveState(String name, String holder, String state) {
+        Lease l = leases.get(name);
+        if (l == null || !holder.equals(l.holder) || l.expiresAt.isBefore(clock.instant())) return false;
+        l.state = state;
+        return true;
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.upnext.dao.impl;
+
+import org.example.upnext.dao.BaseDAO;
+import org.example.upnext.dao.LeaseDAO;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.util.Optional;
+
+/** APP_LEASES rows (db/V5). Expiry is computed with the database clock, so client clocks may differ. */
+public class LeaseDAOImpl extends BaseDAO implements LeaseDAO {
+
+    @Override
+    public boolean tryAcquire(String name, String holder, Duration ttl) throws SQLException {
+        // one atomic statement: renew our own lease, take over an expired one, or create it
+        String sql = """
+            MERGE INTO APP_LEASES L
+            USING (SELECT ? AS NAME FROM DUAL) S
+               ON (L.NAME = S.NAME)
+            WHEN MATCHED THEN UPDATE
+                 SET L.HOLDER = ?, L.EXPIRES_AT = SYSTIMESTAMP + NUMTODSINTERVAL(? / 1000, 'SECOND')
+                 WHERE L.HOLDER = ? OR L.EXPIRES_AT < SYSTIMESTAMP
+            WHEN NOT MATCHED THEN INSERT (NAME, HOLDER, EXPIRES_AT)
+                 VALUES (S.NAME, ?, SYSTIMESTAMP + NUMTODSINTERVAL(? / 1000, 'SECOND'))
+            """;
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, name);
+            ps.setString(2, holder);
+            ps.setLong(3, ttl.toMillis());
+            ps.setString(4, holder);
+            ps.setString(5, holder);
+            ps.setLong(6, ttl.toMillis());
+            return ps.executeUpdate() == 1;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            if (e.getErrorCode() != 1) throw e;
+            return false;   // ORA-00001: another instance created the row at the same moment
+        }
+    }
+
+    @Override
+    public void release(String name, String holder) throws SQLException {
+        String sql = "UPDATE APP_LEASES SET EXPIRES_AT = SYSTIMESTAMP - INTERVAL '1' SECOND WHERE NAME = ? AND HOLDER = ?";
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, name);
+            ps.setString(2, holder);
+            ps.executeUpdate();
+        }
+    }
+
+    @Override
+    public Optional<String> state(String name) throws SQLException {
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(
+                "SELECT STATE FROM APP_LEASES WHERE NAME = ?")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.ofNullable(rs.getString(1)) : Optional.empty();
+            }
+        }
+    }
+
+    @Override
+    public boolean saveState(String name, String holder, String state) throws SQLException {
+        String sql = """
+            UPDATE APP_LEASES SET STATE = ?
+             WHERE NAME = ? AND HOLDER = ? AND EXPIRES_AT >= SYSTIMESTAMP
+            """;
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, state);
+            ps.setString(2, name);
+            ps.setString(3, holder);
+            return ps.executeUpdate() == 1;
+        }
+    }
+}
@@ -3,9 +3,11 @@ package org.example.upnext.dao.impl;
 import org.example.upnext.config.Db;
 import org.example.upnext.dao.NotificationDAO;
 import org.example.upnext.model.Notification;
+import org.example.upnext.model.NotificationPage;
 import org.example.upnext.model.Task;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -66,6 +68,55 @@ public class NotificationDAOImpl implements NotificationDAO {
         return false;
     }
 
+    @Override
+    public int createDueSoonNotifications(LocalDate fromDay, LocalDate toDay) throws SQLException {
+        return insertForDueWindow("DUE_SOON_3D", "Task due in 3 days: ",
+                "t.STATUS IN ('TODO', 'IN_PROGRESS', 'BLOCKED', 'ON_HOLD')", fromDay, toDay);   // = not DONE/CANCELLED
+    }
+
+    @Override
+    public int createDeadlinePassedNotifications(LocalDate fromDay, LocalDate toDay) throws SQLException {
+        return insertForDueWindow("DEADLINE_PASSED", "Task deadline passed: ",
+                "t.STATUS IN ('TODO', 'IN_PROGRESS')", fromDay, toDay);
+    }
+
+    /**
+     * Inserts one notification of the given type per matching task, skipping (task, assignee)
+     * pairs that already have one. The status list and half-open DUE_DATE range are a range
+     * scan of IX_TASKS_STATUS_DUE (db/V8).
+     * UX_NOTIF_UNIQ (db/V4) backs the anti-join: if another run inserts the same rows first,
+     * the statement fails with ORA-00001 and is retried, and the retry finds them present.
+     */
+    private int insertForDueWindow(String type, String messagePrefix, String statusFilter,
+                                   LocalDate fromDay, LocalDate toDay) throws SQLException {
+        String sql = """
+            INSERT INTO NOTIFICATIONS (NOTIF_ID, USER_ID, TASK_ID, MESSAGE, TYPE, CREATED_AT)
+            SELECT NOTIFICATIONS_SEQ.NEXTVAL, t.ASSIGNEE_ID, t.TASK_ID, ? || t.TITLE, ?, SYSDATE
+              FROM TASKS t
+             WHERE t.DUE_DATE >= ? AND t.DUE_DATE < ?
+               AND t.ASSIGNEE_ID IS NOT NULL
+               AND %s
+               AND NOT EXISTS (SELECT 1 FROM NOTIFICATIONS n
+                                WHERE n.TASK_ID = t.TASK_ID
+                                  AND n.USER_ID = t.ASSIGNEE_ID
+                                  AND n.TYPE = ?)
+            """.formatted(statusFilter);
+        for (int attempt = 1; ; attempt++) {
+            try (Connection c = Db.getConnection();
+                 PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setString(1, messagePrefix);
+                ps.setString(2, type);
+                ps.setDate(3, Date.valueOf(fromDay));
+                ps.setDate(4, Date.valueOf(toDay));
+                ps.setString(5, type);
+                return ps.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // ORA-00001: lost a race with a concurrent run; FK / NOT NULL / CHECK errors are real
+                if (e.getErrorCode() != 1 || attempt >= 3) throw e;
+            }
+        }
+    }
+
     private Notification mapNotification(ResultSet rs) throws SQLException {
         Notification n = new Notification();
         n.setNotificationId(rs.getLong("NOTIF_ID"));
@@ -73,6 +124,7 @@ public class NotificationDAOImpl implements NotificationDAO {
         n.setTaskId(rs.getObject("TASK_ID") == null ? null : rs.getLong("TASK_ID"));
         n.setMessage(rs.getString("MESSAGE"));
         n.setType(ns(rs, "TYPE"));
+        n.setRead("Y".equals(rs.getString("IS_READ")));
         Timestamp ts = rs.getTimestamp("CREATED_AT");
         n.setCreatedAt(ts == null ? null : ts.toLocalDateTime());
 
@@ -98,7 +150,7 @@ public class NotificationDAOImpl implements NotificationDAO {
     }
 
     private static final String BASE_SELECT = """
-        SELECT n.NOTIF_ID, n.USER_ID, n.TASK_ID, n.MESSAGE, n.CREATED_AT, n.TYPE,
+        SELECT n.NOTIF_ID, n.USER_ID, n.TASK_ID, n.MESSAGE, n.CREATED_AT, n.TYPE, n.IS_READ,
                t.PROJECT_ID, t.TITLE AS TASK_TITLE, t.DUE_DATE, t.STATUS
           FROM NOTIFICATIONS n
           JOIN TASKS t ON t.TASK_ID = n.TASK_ID
@@ -158,78 +210,178 @@ public class NotificationDAOImpl implements NotificationDAO {
     }
 
     @Override
-    public List<Task> findOverdueForAdmin(long projectId) {
-        String sql = """
-            SELECT t.TASK_ID, t.PROJECT_ID, t.TITLE, t.STATUS, t.ASSIGNEE_ID, t.DUE_DATE
-              FROM TASKS t
-             WHERE t.PROJECT_ID = ?
-               AND t.DUE_DATE IS NOT NULL
-               AND t.STATUS NOT IN ('DONE','CANCELLED')
-               AND TRUNC(t.DUE_DATE) < TRUNC(SYSDATE)
-             ORDER BY t.DUE_DATE ASC
-        """;
+    public List<Notification> findForProjectAsAdmin(long projectId, NotificationPage.Cursor after, int limit) {
+        return findPage("t.PROJECT_ID = ?", List.of(projectId), after, limit, "findForProjectAsAdmin");
+    }
+
+    @Override
+    public List<Notification> findUserInbox(long projectId, long userId, NotificationPage.Cursor after, int limit) {
+        return findPage("t.PROJECT_ID = ? AND n.USER_ID = ?", List.of(projectId, userId), after, limit, "findUserInbox");
+    }
+
+    @Override
+    public List<Notification> findAssignedByMe(long projectId, long creatorUserId, NotificationPage.Cursor after, int limit) {
+        // NOTE: requires TASKS.CREATED_BY to be populated
+        return findPage("t.PROJECT_ID = ? AND t.CREATED_BY = ?", List.of(projectId, creatorUserId), after, limit,
+                "findAssignedByMe");
+    }
+
+    /**
+     * Keyset page: rows strictly after the cursor in (CREATED_AT DESC, NOTIF_ID DESC) order.
+     * Unlike OFFSET, the database seeks straight to the position, so deep pages cost the same
+     * as the first; NOTIF_ID breaks ties between rows created in the same second.
+     */
+    private List<Notification> findPage(String filter, List<Long> args, NotificationPage.Cursor after, int limit,
+                                        String what) {
+        String sql = BASE_SELECT + " WHERE " + filter
+                + (after == null ? "" : " AND (n.CREATED_AT < ? OR (n.CREATED_AT = ? AND n.NOTIF_ID < ?))")
+                + " ORDER BY n.CREATED_AT DESC, n.NOTIF_ID DESC FETCH FIRST ? ROWS ONLY";
         try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setLong(1, projectId);
+            int i = 1;
+            for (Long a : args) ps.setLong(i++, a);
+            if (after != null) {
+                Timestamp ts = Timestamp.valueOf(after.createdAt());
+                ps.setTimestamp(i++, ts);
+                ps.setTimestamp(i++, ts);
+                ps.setLong(i++, after.notificationId());
+            }
+            ps.setInt(i, limit);
+            ps.setFetchSize(limit);
             try (ResultSet rs = ps.executeQuery()) {
-                List<Task> out = new ArrayList<>();
-                while (rs.next()) out.add(mapTask(rs));
+                List<Notification> out = new ArrayList<>(limit);
+                while (rs.next()) out.add(mapNotification(rs));
                 return out;
             }
         } catch (SQLException e) {
-            throw new RuntimeException("findOverdueForAdmin failed", e);
+            throw new RuntimeException(what + " failed", e);
         }
     }
 
+    // ===== read state =====
+    // The project filter goes through TASK_ID so that, with IX_NOTIF_UNREAD and
+    // IX_TASKS_PROJECT_TASK (db/V7), these are answered from the indexes alone.
+
     @Override
-    public List<Task> findOverdueForUserInbox(long projectId, long userId) {
+    public int markRead(long notificationId, long userId) throws SQLException {
+        String sql = "UPDATE NOTIFICATIONS SET IS_READ = 'Y' WHERE NOTIF_ID = ? AND USER_ID = ? AND IS_READ = 'N'";
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, notificationId);
+            ps.setLong(2, userId);
+            return ps.executeUpdate();
+        }
+    }
+
+    @Override
+    public int markAllRead(long projectId, long userId) throws SQLException {
         String sql = """
-            SELECT t.TASK_ID, t.PROJECT_ID, t.TITLE, t.STATUS, t.ASSIGNEE_ID, t.DUE_DATE
-              FROM TASKS t
-             WHERE t.PROJECT_ID = ?
-               AND t.ASSIGNEE_ID = ?
-               AND t.DUE_DATE IS NOT NULL
-               AND t.STATUS NOT IN ('DONE','CANCELLED')
-               AND TRUNC(t.DUE_DATE) < TRUNC(SYSDATE)
-             ORDER BY t.DUE_DATE ASC
-        """;
+            UPDATE NOTIFICATIONS SET IS_READ = 'Y'
+             WHERE USER_ID = ? AND IS_READ = 'N'
+               AND TASK_ID IN (SELECT TASK_ID FROM TASKS WHERE PROJECT_ID = ?)
+            """;
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, userId);
+            ps.setLong(2, projectId);
+            return ps.executeUpdate();
+        }
+    }
+
+    @Override
+    public int countUnread(long projectId, long userId) throws SQLException {
+        String sql = """
+            SELECT COUNT(*) FROM NOTIFICATIONS n
+             WHERE n.USER_ID = ? AND n.IS_READ = 'N'
+               AND n.TASK_ID IN (SELECT TASK_ID FROM TASKS WHERE PROJECT_ID = ?)
+            """;
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, userId);
+            ps.setLong(2, projectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    @Override
+    public long lastNotificationId(long projectId, long userId) throws SQLException {
+        String sql = """
+            SELECT NVL(MAX(n.NOTIF_ID), 0) FROM NOTIFICATIONS n
+             WHERE n.USER_ID = ?
+               AND n.TASK_ID IN (SELECT TASK_ID FROM TASKS WHERE PROJECT_ID = ?)
+            """;
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, userId);
+            ps.setLong(2, projectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    @Override
+    public List<Notification> findNewerThan(long projectId, long userId, long afterId) throws SQLException {
+        String sql = BASE_SELECT + " WHERE t.PROJECT_ID = ? AND n.USER_ID = ? AND n.NOTIF_ID > ? ORDER BY n.NOTIF_ID";
         try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, projectId);
             ps.setLong(2, userId);
+            ps.setLong(3, afterId);
             try (ResultSet rs = ps.executeQuery()) {
-                List<Task> out = new ArrayList<>();
-                while (rs.next()) out.add(mapTask(rs));
+                List<Notification> out = new ArrayList<>();
+                while (rs.next()) out.add(mapNotification(rs));
                 return out;
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("findOverdueForUserInbox failed", e);
         }
     }
 
-    @Override
-    public List<Task> findOverdueForAssignedByMe(long projectId, long userId) {
-        String sql = """
+    // Overdue = due before today. Comparing the bare column with TRUNC(SYSDATE) (rather than
+    // TRUNC(DUE_DATE) < TRUNC(SYSDATE), which means the same) lets Oracle range-scan a DUE_DATE index.
+    private static final String OVERDUE_SELECT = """
             SELECT t.TASK_ID, t.PROJECT_ID, t.TITLE, t.STATUS, t.ASSIGNEE_ID, t.DUE_DATE
               FROM TASKS t
              WHERE t.PROJECT_ID = ?
-               AND t.CREATED_BY = ?
-               AND t.DUE_DATE IS NOT NULL
+               AND t.DUE_DATE < TRUNC(SYSDATE)
                AND t.STATUS NOT IN ('DONE','CANCELLED')
-               AND TRUNC(t.DUE_DATE) < TRUNC(SYSDATE)
-             ORDER BY t.DUE_DATE ASC
-        """;
+            """;
+
+    @Override
+    public List<Task> findOverdueForAdmin(long projectId) {
+        return findOverdue("findOverdueForAdmin", "", projectId);
+    }
+
+    @Override
+    public List<Task> findOverdueForUserInbox(long projectId, long userId) {
+        return findOverdue("findOverdueForUserInbox", "AND t.ASSIGNEE_ID = ?", projectId, userId);
+    }
+
+    @Override
+    public List<Task> findOverdueForAssignedByMe(long projectId, long userId) {
+        return findOverdue("findOverdueForAssignedByMe", "AND t.CREATED_BY = ?", projectId, userId);
+    }
+
+    /** Both of the above in one statement; a task assigned to and created by the user appears once. */
+    @Override
+    public List<Task> findOverdueForManager(long projectId, long userId) {
+        return findOverdue("findOverdueForManager", "AND (t.ASSIGNEE_ID = ? OR t.CREATED_BY = ?)",
+                projectId, userId, userId);
+    }
+
+    private List<Task> findOverdue(String what, String filter, long... params) {
+        String sql = OVERDUE_SELECT + filter + " ORDER BY t.DUE_DATE ASC, t.TASK_ID ASC";
         try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setLong(1, projectId);
-            ps.setLong(2, userId);
+            for (int i = 0; i < params.length; i++) ps.setLong(i + 1, params[i]);
             try (ResultSet rs = ps.executeQuery()) {
                 List<Task> out = new ArrayList<>();
                 while (rs.next()) out.add(mapTask(rs));
                 return out;
             }
         } catch (SQLException e) {
-            throw new RuntimeException("findOverdueForAssignedByMe failed", e);
+            throw new RuntimeException(what + " failed", e);
         }
     }
 }
\ No newline at end of file
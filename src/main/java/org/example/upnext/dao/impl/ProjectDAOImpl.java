@@ -3,10 +3,16 @@ package org.example.upnext.dao.impl;
 import org.example.upnext.config.Db;
 import org.example.upnext.dao.BaseDAO;
 import org.example.upnext.dao.ProjectDAO;
+import org.example.upnext.model.ProgressTotals;
 import org.example.upnext.model.Project;
+import org.example.upnext.model.ProjectActivity;
+import org.example.upnext.model.ProjectSnapshot;
+import org.example.upnext.model.Task;
+import org.example.upnext.model.User;
 
 import java.sql.*;
 import java.sql.Date;
+import java.time.OffsetDateTime;
 import java.util.*;
 
 
@@ -184,6 +190,208 @@ public class ProjectDAOImpl extends BaseDAO implements ProjectDAO {
         }
     }
 
-}
+    @Override
+    public Map<Long, ProgressTotals> findProgressTotals(Collection<Long> projectIds, double defaultHours) throws SQLException {
+        // mirrors ProgressTotals.of: CANCELLED left out, DONE counts 100, missing estimate = defaultHours
+        String sums = """
+            SELECT PROJECT_ID, COUNT(*) AS N, SUM(PCT) AS PCT_SUM,
+                   SUM(H) AS H, SUM(H * PCT) AS H_PCT,
+                   SUM(W) AS W, SUM(W * PCT) AS W_PCT
+              FROM (SELECT PROJECT_ID,
+                           CASE WHEN STATUS = 'DONE' THEN 100 ELSE LEAST(100, GREATEST(0, NVL(PROGRESS_PCT, 0))) END AS PCT,
+                           GREATEST(0, NVL(ESTIMATED_HOURS, ?)) AS H,
+                           CASE PRIORITY WHEN 'CRITICAL' THEN 4 WHEN 'HIGH' THEN 3 WHEN 'LOW' THEN 1 ELSE 2 END AS W
+                      FROM TASKS
+                     WHERE STATUS <> 'CANCELLED' AND PROJECT_ID IN (%s))
+             GROUP BY PROJECT_ID
+            """;
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(projectIds));
+        Map<Long, ProgressTotals> out = new HashMap<>();
+        for (Long id : ids) out.put(id, ProgressTotals.EMPTY);
+        try (Connection c = getConn()) {
+            for (int from = 0; from < ids.size(); from += 500) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + 500));
+                String sql = String.format(sums, String.join(",", Collections.nCopies(chunk.size(), "?")));
+                try (PreparedStatement ps = c.prepareStatement(sql)) {
+                    ps.setDouble(1, defaultHours);
+                    for (int i = 0; i < chunk.size(); i++) ps.setLong(i + 2, chunk.get(i));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            out.put(rs.getLong("PROJECT_ID"), new ProgressTotals(rs.getInt("N"), rs.getDouble("PCT_SUM"),
+                                    rs.getDouble("H"), rs.getDouble("H_PCT"), rs.getDouble("W"), rs.getDouble("W_PCT")));
+                        }
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    // One row per project (KIND 'P'), task ('T') and member ('M'). Shared columns:
+    //            P                   T                M
+    //   ID       PROJECT_ID          TASK_ID          USER_ID
+    //   REF_ID   OWNER_ID            ASSIGNEE_ID      -
+    //   NAME     NAME                TITLE            USERNAME
+    //   CODE     caller's role       PRIORITY         PROJECT_ROLE
+    //   LABEL    'Y' if manager      assignee name    EMAIL
+    private static final String SNAPSHOT_SQL = """
+        SELECT 0 AS KIND_ORD, 'P' AS KIND, p.PROJECT_ID AS ID, CAST(NULL AS NUMBER) AS PARENT_ID,
+               p.OWNER_ID AS REF_ID, p.NAME AS NAME, p.DESCRIPTION AS DESCRIPTION, p.STATUS AS STATUS,
+               (SELECT MAX(pm.PROJECT_ROLE) FROM PROJECT_MEMBERS pm
+                 WHERE pm.PROJECT_ID = p.PROJECT_ID AND pm.USER_ID = ?) AS CODE,
+               CASE WHEN p.OWNER_ID = ? OR EXISTS (
+                         SELECT 1 FROM PROJECT_MEMBERS pm
+                          WHERE pm.PROJECT_ID = p.PROJECT_ID AND pm.USER_ID = ?
+                            AND UPPER(pm.PROJECT_ROLE) = 'MANAGER')
+                    THEN 'Y' ELSE 'N' END AS LABEL,
+               CAST(NULL AS VARCHAR2(20)) AS GLOBAL_ROLE,
+               p.START_DATE AS START_DATE, p.END_DATE AS END_DATE, p.PROGRESS_PCT AS PROGRESS_PCT,
+               CAST(NULL AS NUMBER) AS ESTIMATED_HOURS, CAST(NULL AS NUMBER) AS ACTUAL_HOURS,
+               CAST(NULL AS CHAR(1)) AS IS_BLOCKED, p.CREATED_AT AS CREATED_AT, p.UPDATED_AT AS UPDATED_AT
+          FROM PROJECTS p
+         WHERE p.PROJECT_ID = ?
+        UNION ALL
+        SELECT 1, 'T', t.TASK_ID, t.PARENT_TASK_ID,
+               t.ASSIGNEE_ID, t.TITLE, t.DESCRIPTION, t.STATUS,
+               t.PRIORITY, u.USERNAME, NULL,
+               t.START_DATE, t.DUE_DATE, t.PROGRESS_PCT,
+               t.ESTIMATED_HOURS, t.ACTUAL_HOURS,
+               t.IS_BLOCKED, t.CREATED_AT, t.UPDATED_AT
+          FROM TASKS t
+          LEFT JOIN USERS u ON u.USER_ID = t.ASSIGNEE_ID
+         WHERE t.PROJECT_ID = ?
+        UNION ALL
+        SELECT 2, 'M', u.USER_ID, NULL,
+               NULL, u.USERNAME, NULL, u.STATUS,
+               pm.PROJECT_ROLE, u.EMAIL, u.GLOBAL_ROLE,
+               NULL, NULL, NULL,
+               NULL, NULL,
+               NULL, u.CREATED_AT, u.UPDATED_AT
+          FROM PROJECT_MEMBERS pm
+          JOIN USERS u ON u.USER_ID = pm.USER_ID
+         WHERE pm.PROJECT_ID = ?
+        ORDER BY 1, 3
+        """;
 
+    private static final List<String> TASK_STATUSES =
+            List.of("TODO", "IN_PROGRESS", "BLOCKED", "ON_HOLD", "DONE", "CANCELLED");
+    private static final int SNAPSHOT_FETCH_SIZE = Db.intProperty("db.snapshot.fetchSize", 1000);
 
+    @Override
+    public Optional<ProjectSnapshot> snapshot(long projectId, long userId) throws SQLException {
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(SNAPSHOT_SQL)) {
+            ps.setLong(1, userId);
+            ps.setLong(2, userId);
+            ps.setLong(3, userId);
+            ps.setLong(4, projectId);
+            ps.setLong(5, projectId);
+            ps.setLong(6, projectId);
+            // the driver prefetches 10 rows by default; fetch the whole project in one trip
+            ps.setFetchSize(SNAPSHOT_FETCH_SIZE);
+
+            Project project = null;
+            String role = null;
+            boolean manager = false;
+            List<Task> tasks = new ArrayList<>();
+            List<User> members = new ArrayList<>();
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (String s : TASK_STATUSES) counts.put(s, 0);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    switch (rs.getString("KIND")) {
+                        case "P" -> {
+                            project = new Project();
+                            project.setProjectId(rs.getLong("ID"));
+                            project.setName(rs.getString("NAME"));
+                            project.setDescription(rs.getString("DESCRIPTION"));
+                            project.setOwnerId(rs.getLong("REF_ID"));
+                            Date sd = rs.getDate("START_DATE"); if (sd != null) project.setStartDate(sd.toLocalDate());
+                            Date ed = rs.getDate("END_DATE");   if (ed != null) project.setEndDate(ed.toLocalDate());
+                            project.setStatus(rs.getString("STATUS"));
+                            project.setProgressPct(rs.getDouble("PROGRESS_PCT"));
+                            project.setCreatedAt(toOffset(rs.getTimestamp("CREATED_AT")));
+                            project.setUpdatedAt(toOffset(rs.getTimestamp("UPDATED_AT")));
+                            role = rs.getString("CODE");
+                            manager = "Y".equals(rs.getString("LABEL"));
+                        }
+                        case "T" -> {
+                            Task t = new Task();
+                            t.setTaskId(rs.getLong("ID"));
+                            t.setProjectId(projectId);
+                            long parent = rs.getLong("PARENT_ID");
+                            t.setParentTaskId(rs.wasNull() ? null : parent);
+                            t.setTitle(rs.getString("NAME"));
+                            t.setDescription(rs.getString("DESCRIPTION"));
+                            long assignee = rs.getLong("REF_ID");
+                            t.setAssigneeId(rs.wasNull() ? null : assignee);
+                            t.setAssigneeName(rs.getString("LABEL"));
+                            t.setStatus(rs.getString("STATUS"));
+                            t.setPriority(rs.getString("CODE"));
+                            Date sd = rs.getDate("START_DATE"); if (sd != null) t.setStartDate(sd.toLocalDate());
+                            Date dd = rs.getDate("END_DATE");   if (dd != null) t.setDueDate(dd.toLocalDate());
+                            t.setProgressPct(rs.getDouble("PROGRESS_PCT"));
+                            double est = rs.getDouble("ESTIMATED_HOURS");
+                            t.setEstimatedHours(rs.wasNull() ? null : est);
+                            double act = rs.getDouble("ACTUAL_HOURS");
+                            t.setActualHours(rs.wasNull() ? null : act);
+                            t.setBlocked("Y".equals(rs.getString("IS_BLOCKED")));
+                            t.setCreatedAt(toOffset(rs.getTimestamp("CREATED_AT")));
+                            t.setUpdatedAt(toOffset(rs.getTimestamp("UPDATED_AT")));
+                            tasks.add(t);
+                            if (t.getStatus() != null) counts.merge(t.getStatus(), 1, Integer::sum);
+                        }
+                        case "M" -> {
+                            User u = new User();
+                            u.setUserId(rs.getLong("ID"));
+                            u.setUsername(rs.getString("NAME"));
+                            u.setEmail(rs.getString("LABEL"));
+                            u.setGlobalRole(rs.getString("GLOBAL_ROLE"));
+                            u.setStatus(rs.getString("STATUS"));
+                            members.add(u);
+                        }
+                        default -> { }
+                    }
+                }
+            }
+            if (project == null) return Optional.empty();
+            return Optional.of(new ProjectSnapshot(project, tasks, members, counts, role, manager));
+        }
+    }
+
+    @Override
+    public List<ProjectActivity> findActivity() throws SQLException {
+        String sql = """
+            SELECT P.PROJECT_ID, P.STATUS, P.START_DATE, P.UPDATED_AT,
+                   MAX(NVL(T.UPDATED_AT, T.CREATED_AT))     AS LAST_TASK_CHANGE,
+                   COUNT(T.TASK_ID)                          AS TASK_COUNT,
+                   COUNT(CASE WHEN T.STATUS = 'DONE' THEN 1 END) AS DONE_COUNT
+              FROM PROJECTS P
+              LEFT JOIN TASKS T ON T.PROJECT_ID = P.PROJECT_ID
+             GROUP BY P.PROJECT_ID, P.STATUS, P.START_DATE, P.UPDATED_AT
+             ORDER BY P.PROJECT_ID
+            """;
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setFetchSize(SNAPSHOT_FETCH_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<ProjectActivity> list = new ArrayList<>();
+                while (rs.next()) {
+                    Date sd = rs.getDate("START_DATE");
+                    list.add(new ProjectActivity(
+                            rs.getLong("PROJECT_ID"),
+                            rs.getString("STATUS"),
+                            sd == null ? null : sd.toLocalDate(),
+                            toOffset(rs.getTimestamp("UPDATED_AT")),
+                            toOffset(rs.getTimestamp("LAST_TASK_CHANGE")),
+                            rs.getInt("TASK_COUNT"),
+                            rs.getInt("DONE_COUNT")));
+                }
+                return list;
+            }
+        }
+    }
+
+    private static OffsetDateTime toOffset(Timestamp ts) {
+        return ts == null ? null : ts.toInstant().atOffset(OffsetDateTime.now().getOffset());
+    }
+}
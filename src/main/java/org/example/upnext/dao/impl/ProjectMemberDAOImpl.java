@@ -1,6 +1,6 @@
 package org.example.upnext.dao.impl;
 
-import org.example.upnext.config.Db;
+import org.example.upnext.dao.BaseDAO;
 import org.example.upnext.dao.ProjectMemberDAO;
 import org.example.upnext.model.User;
 
@@ -8,7 +8,7 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
-public class ProjectMemberDAOImpl implements ProjectMemberDAO {
+public class ProjectMemberDAOImpl extends BaseDAO implements ProjectMemberDAO {
 
     private User mapUser(ResultSet rs) throws SQLException {
         User u = new User();
@@ -32,7 +32,7 @@ public class ProjectMemberDAOImpl implements ProjectMemberDAO {
                 INSERT (PROJECT_MEMBER_ID, PROJECT_ID, USER_ID, PROJECT_ROLE, CREATED_AT)
                 VALUES (PROJECT_MEMBERS_SEQ.NEXTVAL, ?, ?, ?, SYSTIMESTAMP)
         """;
-        try (Connection c = Db.getConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, projectId);
             ps.setLong(2, userId);
             ps.setString(3, role);
@@ -45,7 +45,7 @@ public class ProjectMemberDAOImpl implements ProjectMemberDAO {
 
     @Override
     public void removeMember(long projectId, long userId) throws SQLException {
-        try (Connection c = Db.getConnection();
+        try (Connection c = getConn();
              PreparedStatement ps = c.prepareStatement("DELETE FROM PROJECT_MEMBERS WHERE PROJECT_ID=? AND USER_ID=?")) {
             ps.setLong(1, projectId);
             ps.setLong(2, userId);
@@ -60,7 +60,7 @@ public class ProjectMemberDAOImpl implements ProjectMemberDAO {
       JOIN PROJECT_MEMBERS pm ON pm.USER_ID=u.USER_ID
       WHERE pm.PROJECT_ID=?
     """;
-        try (var c = Db.getConnection(); var ps = c.prepareStatement(sql)) {
+        try (var c = getConn(); var ps = c.prepareStatement(sql)) {
             ps.setLong(1, projectId);
             try (var rs = ps.executeQuery()) {
                 List<User> list = new ArrayList<>();
@@ -81,7 +81,7 @@ public class ProjectMemberDAOImpl implements ProjectMemberDAO {
 
     @Override
     public boolean isMember(long projectId, long userId) throws SQLException {
-        try (Connection c = Db.getConnection();
+        try (Connection c = getConn();
              PreparedStatement ps = c.prepareStatement("SELECT 1 FROM PROJECT_MEMBERS WHERE PROJECT_ID=? AND USER_ID=?")) {
             ps.setLong(1, projectId);
             ps.setLong(2, userId);
@@ -92,7 +92,7 @@ public class ProjectMemberDAOImpl implements ProjectMemberDAO {
     @Override
     public boolean hasRole(long projectId, long userId, String role) throws SQLException {
         String sql = "SELECT 1 FROM PROJECT_MEMBERS WHERE PROJECT_ID=? AND USER_ID=? AND UPPER(PROJECT_ROLE)=UPPER(?)";
-        try (var c = Db.getConnection(); var ps = c.prepareStatement(sql)) {
+        try (var c = getConn(); var ps = c.prepareStatement(sql)) {
             ps.setLong(1, projectId);
             ps.setLong(2, userId);
             ps.setString(3, role);
@@ -103,7 +103,7 @@ public class ProjectMemberDAOImpl implements ProjectMemberDAO {
     @Override
     public List<Long> listMemberIds(long projectId) throws SQLException {
         String sql = "SELECT USER_ID FROM PROJECT_MEMBERS WHERE PROJECT_ID=?";
-        try (Connection c = Db.getConnection();
+        try (Connection c = getConn();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, projectId);
             try (ResultSet rs = ps.executeQuery()) {
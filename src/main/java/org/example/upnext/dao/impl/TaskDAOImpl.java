@@ -8,6 +8,7 @@ import org.example.upnext.model.Task;
 import java.sql.*;
 import java.sql.Date;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.*;
 
 
@@ -30,6 +31,8 @@ public class TaskDAOImpl extends BaseDAO implements TaskDAO {
         double ah = rs.getDouble("ACTUAL_HOURS");    if (!rs.wasNull()) t.setActualHours(ah);
         t.setBlocked("Y".equals(rs.getString("IS_BLOCKED")));
         t.setAssigneeName(rs.getString("assignee_name"));
+        Timestamp ca = rs.getTimestamp("CREATED_AT"); if (ca != null) t.setCreatedAt(ca.toInstant().atOffset(OffsetDateTime.now().getOffset()));
+        Timestamp ua = rs.getTimestamp("UPDATED_AT"); if (ua != null) t.setUpdatedAt(ua.toInstant().atOffset(OffsetDateTime.now().getOffset()));
         return t;
     }
 
@@ -40,11 +43,15 @@ public class TaskDAOImpl extends BaseDAO implements TaskDAO {
                u.username AS assignee_name
         FROM TASKS t
         LEFT JOIN USERS u ON t.ASSIGNEE_ID = u.USER_ID
-        WHERE t.DUE_DATE = ? AND t.STATUS NOT IN ('DONE', 'CANCELLED')
+        WHERE t.STATUS IN ('TODO', 'IN_PROGRESS', 'BLOCKED', 'ON_HOLD')
+          AND t.DUE_DATE >= ? AND t.DUE_DATE < ?
         """;
-        try (Connection c = Db.getConnection();
+        // Open statuses spelled out and a half-open day range on the bare column, so this is a
+        // range scan of IX_TASKS_STATUS_DUE (db/V8); it also matches DUE_DATEs with a time part.
+        try (Connection c = getConn();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setDate(1, java.sql.Date.valueOf(date));
+            ps.setDate(2, java.sql.Date.valueOf(date.plusDays(1)));
             try (ResultSet rs = ps.executeQuery()) {
                 List<Task> tasks = new ArrayList<>();
                 while (rs.next()) {
@@ -55,33 +62,148 @@ public class TaskDAOImpl extends BaseDAO implements TaskDAO {
         }
     }
 
-    @Override
-    public long create(Task t) throws SQLException {
-        String sql = """
+    private static final String INSERT_SQL = """
             INSERT INTO TASKS (TASK_ID, PROJECT_ID, PARENT_TASK_ID, TITLE, DESCRIPTION, ASSIGNEE_ID,
                                STATUS, PRIORITY, START_DATE, DUE_DATE, PROGRESS_PCT, ESTIMATED_HOURS, ACTUAL_HOURS)
             VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?)
             """;
-        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+
+    private void bindInsert(PreparedStatement ps, Task t, long id, Long parentId) throws SQLException {
+        ps.setLong(1, id);
+        ps.setLong(2, t.getProjectId());
+        if (parentId != null) ps.setLong(3, parentId); else ps.setNull(3, Types.NUMERIC);
+        ps.setString(4, t.getTitle());
+        ps.setString(5, t.getDescription());
+        if (t.getAssigneeId() != null) ps.setLong(6, t.getAssigneeId()); else ps.setNull(6, Types.NUMERIC);
+        ps.setString(7, t.getStatus() == null ? "TODO" : t.getStatus());
+        ps.setString(8, t.getPriority() == null ? "MEDIUM" : t.getPriority());
+        if (t.getStartDate() != null) ps.setDate(9, Date.valueOf(t.getStartDate())); else ps.setNull(9, Types.DATE);
+        if (t.getDueDate() != null)   ps.setDate(10, Date.valueOf(t.getDueDate())); else ps.setNull(10, Types.DATE);
+        ps.setDouble(11, t.getProgressPct());
+        if (t.getEstimatedHours() != null) ps.setDouble(12, t.getEstimatedHours()); else ps.setNull(12, Types.NUMERIC);
+        if (t.getActualHours() != null)    ps.setDouble(13, t.getActualHours());    else ps.setNull(13, Types.NUMERIC);
+    }
+
+    @Override
+    public long create(Task t) throws SQLException {
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(INSERT_SQL)) {
             long id = nextVal(c, "TASKS_SEQ");
-            ps.setLong(1, id);
-            ps.setLong(2, t.getProjectId());
-            if (t.getParentTaskId() != null) ps.setLong(3, t.getParentTaskId()); else ps.setNull(3, Types.NUMERIC);
-            ps.setString(4, t.getTitle());
-            ps.setString(5, t.getDescription());
-            if (t.getAssigneeId() != null) ps.setLong(6, t.getAssigneeId()); else ps.setNull(6, Types.NUMERIC);
-            ps.setString(7, t.getStatus() == null ? "TODO" : t.getStatus());
-            ps.setString(8, t.getPriority() == null ? "MEDIUM" : t.getPriority());
-            if (t.getStartDate() != null) ps.setDate(9, Date.valueOf(t.getStartDate())); else ps.setNull(9, Types.DATE);
-            if (t.getDueDate() != null)   ps.setDate(10, Date.valueOf(t.getDueDate())); else ps.setNull(10, Types.DATE);
-            ps.setDouble(11, t.getProgressPct());
-            if (t.getEstimatedHours() != null) ps.setDouble(12, t.getEstimatedHours()); else ps.setNull(12, Types.NUMERIC);
-            if (t.getActualHours() != null)    ps.setDouble(13, t.getActualHours());    else ps.setNull(13, Types.NUMERIC);
+            bindInsert(ps, t, id, t.getParentTaskId());
             ps.executeUpdate();
             return id;
         }
     }
 
+    @Override
+    public List<Long> createAll(List<Task> tasks) throws SQLException {
+        return createAll(tasks,
+                Db.intProperty("task.batch.size", 500),
+                Db.intProperty("task.batch.commitInterval", 0));
+    }
+
+    @Override
+    public List<Long> createAll(List<Task> tasks, int batchSize, int commitInterval) throws SQLException {
+        int n = tasks.size();
+        if (n == 0) return List.of();
+        if (batchSize < 1) batchSize = 1;
+
+        // batch-local keys -> input index
+        Map<Long, Integer> byKey = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Long key = tasks.get(i).getTaskId();
+            if (key != null && byKey.put(key, i) != null) {
+                throw new SQLException("Duplicate task key in batch: " + key);
+            }
+        }
+        int[] order = parentsFirst(tasks, byKey);
+
+        long[] newIds = new long[n];
+        int committed = 0;
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(INSERT_SQL)) {
+            c.setAutoCommit(false);
+            try {
+                long[] ids = nextVals(c, "TASKS_SEQ", n);
+                for (int k = 0; k < n; k++) newIds[order[k]] = ids[k];
+
+                int pending = 0, sinceCommit = 0;
+                for (int k = 0; k < n; k++) {
+                    int i = order[k];
+                    Task t = tasks.get(i);
+                    bindInsert(ps, t, newIds[i], resolveParent(t.getParentTaskId(), byKey, newIds));
+                    ps.addBatch();
+                    pending++;
+                    sinceCommit++;
+                    if (pending == batchSize || k == n - 1) {
+                        ps.executeBatch();
+                        pending = 0;
+                        if (commitInterval > 0 && sinceCommit >= commitInterval) {
+                            c.commit();
+                            committed = k + 1;
+                            sinceCommit = 0;
+                        }
+                    }
+                }
+                c.commit();
+                committed = n;
+            } catch (SQLException e) {
+                c.rollback();
+                for (int k = 0; k < committed; k++) {   // tell the caller which rows did get in
+                    Task t = tasks.get(order[k]);
+                    t.setParentTaskId(resolveParent(t.getParentTaskId(), byKey, newIds));
+                    t.setTaskId(newIds[order[k]]);
+                }
+                throw committed == 0 ? e : new SQLException("Bulk task insert failed after " + committed
+                        + " of " + n + " rows were committed: " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+            } finally {
+                c.setAutoCommit(true);
+            }
+        }
+
+        List<Long> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Task t = tasks.get(i);
+            t.setParentTaskId(resolveParent(t.getParentTaskId(), byKey, newIds));
+            t.setTaskId(newIds[i]);
+            out.add(newIds[i]);
+        }
+        return out;
+    }
+
+    private static Long resolveParent(Long parent, Map<Long, Integer> byKey, long[] newIds) {
+        if (parent == null) return null;
+        Integer idx = byKey.get(parent);
+        return idx == null ? parent : newIds[idx];
+    }
+
+    /** Insert order with every in-batch parent ahead of its children (stable otherwise). */
+    private static int[] parentsFirst(List<Task> tasks, Map<Long, Integer> byKey) throws SQLException {
+        int n = tasks.size();
+        int[] order = new int[n];
+        byte[] state = new byte[n]; // 0 = new, 1 = on the current chain, 2 = placed
+        int[] chain = new int[n];
+        int placed = 0;
+        for (int start = 0; start < n; start++) {
+            int depth = 0;
+            int i = start;
+            // walk up to the first ancestor that is already placed (or outside the batch)
+            while (state[i] == 0) {
+                state[i] = 1;
+                chain[depth++] = i;
+                Long parent = tasks.get(i).getParentTaskId();
+                Integer p = parent == null ? null : byKey.get(parent);
+                if (p == null) break;
+                if (state[p] == 1) throw new SQLException("Parent cycle in batch at task key " + parent);
+                i = p;
+            }
+            while (depth > 0) {
+                int j = chain[--depth];
+                state[j] = 2;
+                order[placed++] = j;
+            }
+        }
+        return order;
+    }
+
     @Override
     public void update(Task t) throws SQLException {
         String sql = """
@@ -176,6 +298,43 @@ public class TaskDAOImpl extends BaseDAO implements TaskDAO {
     }
 
 
+    @Override
+    public List<Task> findChangedSince(long projectId, OffsetDateTime since) throws SQLException {
+        String sql = """
+        SELECT t.*,
+               u.username AS assignee_name
+        FROM tasks t
+        LEFT JOIN users u ON t.assignee_id = u.user_id
+        WHERE t.project_id = ?
+          AND NVL(t.updated_at, t.created_at) > ?
+        ORDER BY t.task_id
+    """;
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, projectId);
+            ps.setTimestamp(2, Timestamp.from(since.toInstant()));
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Task> list = new ArrayList<>();
+                while (rs.next()) list.add(map(rs));
+                return list;
+            }
+        }
+    }
+
+    @Override
+    public Set<Long> findIdsByProject(long projectId) throws SQLException {
+        // answered from IX_TASKS_PROJECT_TASK (db/V7) alone
+        String sql = "SELECT TASK_ID FROM TASKS WHERE PROJECT_ID=?";
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, projectId);
+            ps.setFetchSize(1000);
+            try (ResultSet rs = ps.executeQuery()) {
+                Set<Long> ids = new HashSet<>();
+                while (rs.next()) ids.add(rs.getLong(1));
+                return ids;
+            }
+        }
+    }
+
     @Override public List<Task> findChildren(long parentTaskId) throws SQLException {
         String sql = "SELECT * FROM TASKS WHERE PARENT_TASK_ID=? ORDER BY TASK_ID";
         try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
@@ -185,6 +344,29 @@ public class TaskDAOImpl extends BaseDAO implements TaskDAO {
         }
     }
 
+    @Override
+    public List<Task> findSubtree(long rootTaskId) throws SQLException {
+        // walks IX_TASKS_PARENT level by level; NOCYCLE guards against a hand-made parent loop
+        String sql = """
+        SELECT t.*,
+               u.username AS assignee_name
+        FROM tasks t
+        LEFT JOIN users u ON t.assignee_id = u.user_id
+        START WITH t.task_id = ?
+        CONNECT BY NOCYCLE PRIOR t.task_id = t.parent_task_id
+        ORDER SIBLINGS BY t.task_id
+    """;
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, rootTaskId);
+            ps.setFetchSize(1000);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Task> list = new ArrayList<>();
+                while (rs.next()) list.add(map(rs));
+                return list;
+            }
+        }
+    }
+
     @Override public List<Task> findBlocked(long projectId) throws SQLException {
         String sql = """
             SELECT T.*
@@ -211,6 +393,44 @@ public class TaskDAOImpl extends BaseDAO implements TaskDAO {
         }
     }
 
+    @Override
+    public int cascadeProjectStatus(long projectId, String projectStatus, LocalDate today) throws SQLException {
+        // One statement, so the TASKS triggers run once for the whole set rather than once per task.
+        // The CASE mirrors ProjectService.determineTaskStatusFromProject / determineTaskStatusFromDates.
+        String sql = """
+            MERGE INTO TASKS T
+            USING (
+                SELECT TASK_ID,
+                       CASE ?
+                         WHEN 'PLANNING'  THEN 'TODO'
+                         WHEN 'ON_HOLD'   THEN 'ON_HOLD'
+                         WHEN 'CANCELLED' THEN 'BLOCKED'
+                         WHEN 'ACTIVE' THEN
+                           CASE
+                             WHEN START_DATE IS NOT NULL THEN
+                               CASE WHEN TRUNC(START_DATE) > ? THEN 'TODO' ELSE 'IN_PROGRESS' END
+                             WHEN DUE_DATE IS NOT NULL AND TRUNC(DUE_DATE) < ? THEN 'IN_PROGRESS'
+                             ELSE 'TODO'
+                           END
+                         ELSE STATUS
+                       END AS NEW_STATUS
+                  FROM TASKS
+                 WHERE PROJECT_ID = ?
+                   AND STATUS NOT IN ('DONE', 'CANCELLED')
+            ) S
+            ON (T.TASK_ID = S.TASK_ID)
+            WHEN MATCHED THEN UPDATE SET T.STATUS = S.NEW_STATUS
+                 WHERE T.STATUS <> S.NEW_STATUS
+            """;
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, projectStatus);
+            ps.setDate(2, Date.valueOf(today));
+            ps.setDate(3, Date.valueOf(today));
+            ps.setLong(4, projectId);
+            return ps.executeUpdate();
+        }
+    }
+
     @Override
     public void assignTo(long taskId, long userId) throws SQLException {
         String sql = "UPDATE TASKS SET ASSIGNEE_ID=? WHERE TASK_ID=?";
@@ -122,15 +122,59 @@ public class TaskDependencyDAOImpl extends BaseDAO implements TaskDependencyDAO
         }
     }
 
+    /**
+     * Inserts the edge unless it would close a cycle (the predecessor is already downstream of
+     * the successor; walked over IX_DEP_PRED). The PROJECTS rows of both tasks are locked first,
+     * so two inserts that would only form a cycle together run one after the other.
+     */
     @Override public long create(TaskDependency d) throws SQLException {
+        final String lock = """
+            SELECT PROJECT_ID FROM PROJECTS
+             WHERE PROJECT_ID IN (SELECT PROJECT_ID FROM TASKS WHERE TASK_ID IN (?, ?))
+             ORDER BY PROJECT_ID
+               FOR UPDATE
+            """;
+        final String downstream = """
+            SELECT 1 FROM TASK_DEPENDENCIES
+             WHERE SUCCESSOR_TASK_ID = ?
+             START WITH PREDECESSOR_TASK_ID = ?
+           CONNECT BY NOCYCLE PREDECESSOR_TASK_ID = PRIOR SUCCESSOR_TASK_ID
+             FETCH FIRST 1 ROWS ONLY
+            """;
         String sql = "INSERT INTO TASK_DEPENDENCIES (DEP_ID, PREDECESSOR_TASK_ID, SUCCESSOR_TASK_ID) VALUES (?,?,?)";
-        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
-            long id = nextVal(c, "TASK_DEP_SEQ");
-            ps.setLong(1, id);
-            ps.setLong(2, d.getPredecessorTaskId());
-            ps.setLong(3, d.getSuccessorTaskId());
-            ps.executeUpdate();
-            return id;
+        try (Connection c = getConn()) {
+            c.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = c.prepareStatement(lock)) {
+                    ps.setLong(1, d.getPredecessorTaskId());
+                    ps.setLong(2, d.getSuccessorTaskId());
+                    try (ResultSet rs = ps.executeQuery()) { /* the rows are locked when the cursor opens */ }
+                }
+                try (PreparedStatement ps = c.prepareStatement(downstream)) {
+                    ps.setLong(1, d.getPredecessorTaskId());
+                    ps.setLong(2, d.getSuccessorTaskId());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            throw new SQLException("This dependency would create a cycle: task "
+                                    + d.getPredecessorTaskId() + " already depends on task " + d.getSuccessorTaskId());
+                        }
+                    }
+                }
+                long id = nextVal(c, "TASK_DEP_SEQ");
+                try (PreparedStatement ps = c.prepareStatement(sql)) {
+                    ps.setLong(1, id);
+                    ps.setLong(2, d.getPredecessorTaskId());
+                    ps.setLong(3, d.getSuccessorTaskId());
+                    ps.executeUpdate();
+                }
+                c.commit();
+                return id;
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
         }
     }
 
@@ -152,6 +196,23 @@ public class TaskDependencyDAOImpl extends BaseDAO implements TaskDependencyDAO
         }
     }
 
+    @Override public List<TaskDependency> findByProject(long projectId) throws SQLException {
+        String sql = """
+            SELECT D.*
+              FROM TASK_DEPENDENCIES D
+              JOIN TASKS S ON S.TASK_ID = D.SUCCESSOR_TASK_ID
+             WHERE S.PROJECT_ID=?
+            """;
+        try (Connection c = getConn(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, projectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<TaskDependency> list = new ArrayList<>();
+                while (rs.next()) list.add(map(rs));
+                return list;
+            }
+        }
+    }
+
     @Override public boolean hasUnfinishedPredecessor(long succId) throws SQLException {
         String sql = """
             SELECT COUNT(*)
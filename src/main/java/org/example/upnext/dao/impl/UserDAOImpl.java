@@ -91,7 +91,7 @@ public class UserDAOImpl extends BaseDAO implements UserDAO {
     @Override
     public List<User> findManagers() throws SQLException {
         String sql = "SELECT * FROM USERS WHERE UPPER(GLOBAL_ROLE)='MANAGER'";
-        try (Connection c = Db.getConnection();
+        try (Connection c = getConn();
              PreparedStatement ps = c.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             List<User> list = new ArrayList<>();
@@ -103,7 +103,7 @@ public class UserDAOImpl extends BaseDAO implements UserDAO {
     @Override
     public List<User> findMembers() throws SQLException {
         String sql = "SELECT * FROM USERS WHERE UPPER(GLOBAL_ROLE)='MEMBER'";
-        try (var c = Db.getConnection(); var ps = c.prepareStatement(sql); var rs = ps.executeQuery()) {
+        try (var c = getConn(); var ps = c.prepareStatement(sql); var rs = ps.executeQuery()) {
             List<User> list = new ArrayList<>(); while (rs.next()) list.add(map(rs)); return list;
         }
     }
@@ -115,7 +115,7 @@ public class UserDAOImpl extends BaseDAO implements UserDAO {
       JOIN PROJECT_MEMBERS pm ON pm.USER_ID=u.USER_ID
       WHERE pm.PROJECT_ID=?
     """;
-        try (var c = Db.getConnection(); var ps = c.prepareStatement(sql)) {
+        try (var c = getConn(); var ps = c.prepareStatement(sql)) {
             ps.setLong(1, projectId);
             try (var rs = ps.executeQuery()) {
                 List<User> list = new ArrayList<>(); while (rs.next()) list.add(map(rs)); return list;
@@ -0,0 +1,23 @@
+package org.example.upnext.events;
+
+/**
+ * Something changed in the database. projectId and id (TASK_ID, PROJECT_ID or NOTIF_ID, per
+ * topic) are null when the source only knows which table changed, e.g. a bulk statement or a
+ * database notification whose rows could not be resolved; subscribers then refresh broadly.
+ */
+public record ChangeEvent(Topic topic, Long projectId, Long id) {
+
+    public enum Topic { TASK, PROJECT, NOTIFICATION }
+
+    public static ChangeEvent task(Long projectId, Long taskId) { return new ChangeEvent(Topic.TASK, projectId, taskId); }
+
+    public static ChangeEvent project(Long projectId) { return new ChangeEvent(Topic.PROJECT, projectId, projectId); }
+
+    /** Notifications are rarely created one at a time, so only the topic is known. */
+    public static ChangeEvent notifications() { return new ChangeEvent(Topic.NOTIFICATION, null, null); }
+
+    /** True if the event may concern the project: it names it, or names no project at all. */
+    public boolean concerns(long projectId) {
+        return this.projectId == null || this.projectId == projectId;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.upnext.events;
+
+import org.example.upnext.config.Db;
+
+import java.sql.SQLException;
+
+/**
+ * Feeds changes made outside this process into an {@link EventBus}. Which one the app uses is
+ * chosen by events.source: none (default; only this instance's own writes are published),
+ * oracle ({@link OracleChangeSource}) or memory ({@link InMemoryChangeSource}).
+ */
+public interface ChangeSource extends AutoCloseable {
+
+    /** Begins publishing into the bus; called once by {@link EventBus#attach}. */
+    void start(EventBus bus) throws Exception;
+
+    @Override void close() throws SQLException;
+
+    /** The source named by events.source, or null for none. */
+    static ChangeSource fromConfig() {
+        String name = Db.property("events.source", "none").trim().toLowerCase();
+        return switch (name) {
+            case "oracle" -> new OracleChangeSource();
+            case "memory" -> new InMemoryChangeSource();
+            case "none", "" -> null;
+            default -> throw new IllegalArgumentException("Unknown events.source: " + name);
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.upnext.events;
+
+import org.example.upnext.events.ChangeEvent.Topic;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe for {@link ChangeEvent}s, so screens refresh when data changes
+ * instead of polling for it. Services publish after their writes commit; a {@link ChangeSource}
+ * can feed in changes made by other instances (see {@link OracleChangeSource}).
+ * <p>
+ * Events are delivered in publish order on one daemon thread, never on the publisher's thread,
+ * so a slow subscriber does not hold up a write. Subscribers that touch the UI must hop to the
+ * FX thread themselves. A subscriber that throws is logged and keeps its subscription.
+ * <p>
+ * An event equal to one still queued is dropped, so a burst of writes to the same task (or a
+ * notification source reporting the same table repeatedly) reaches subscribers once. Events are
+ * delivered after they leave the queue, so the delivery still follows the last write.
+ */
+public class EventBus {
+    private static final EventBus SHARED = new EventBus();
+
+    /** Returned by {@link #subscribe}; closing it stops delivery to that subscriber. */
+    public interface Subscription extends AutoCloseable {
+        @Override void close();
+    }
+
+    private final Map<Topic, List<Consumer<ChangeEvent>>> subscribers = new EnumMap<>(Topic.class);
+    private final List<ChangeSource> sources = new CopyOnWriteArrayList<>();
+    private final Set<ChangeEvent> pending = ConcurrentHashMap.newKeySet();   // queued, not yet delivered
+    private ExecutorService dispatcher;   // created on first publish; null again after close
+    private boolean closed;
+
+    public EventBus() {
+        for (Topic t : Topic.values()) subscribers.put(t, new CopyOnWriteArrayList<>());
+    }
+
+    public static EventBus shared() { return SHARED; }
+
+    public Subscription subscribe(Topic topic, Consumer<ChangeEvent> subscriber) {
+        List<Consumer<ChangeEvent>> list = subscribers.get(topic);
+        Consumer<ChangeEvent> entry = subscriber::accept;   // own identity, so one handler can subscribe twice
+        list.add(entry);
+        return () -> list.remove(entry);
+    }
+
+    /**
+     * Queues the event for delivery unless an equal one is queued already; returns immediately.
+     * Ignored after {@link #close}.
+     */
+    public void publish(ChangeEvent event) {
+        if (subscribers.get(event.topic()).isEmpty()) return;
+        ExecutorService ex = dispatcher();
+        if (ex == null) return;
+        if (!pending.add(event)) return;
+        try {
+            ex.execute(() -> {
+                pending.remove(event);
+                deliver(event);
+            });
+        } catch (RejectedExecutionException ignored) {
+            pending.remove(event);   // closed concurrently
+        }
+    }
+
+    /** Starts a source that publishes external changes into this bus; it is closed with the bus. */
+    public void attach(ChangeSource source) throws Exception {
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("event bus is closed");
+        }
+        source.start(this);
+        sources.add(source);
+    }
+
+    /** Closes attached sources and stops delivery; events still queued are dropped. */
+    public void close() {
+        ExecutorService ex;
+        synchronized (this) {
+            closed = true;
+            ex = dispatcher;
+            dispatcher = null;
+        }
+        for (ChangeSource s : new ArrayList<>(sources)) {
+            try {
+                s.close();
+            } catch (Exception e) {
+                System.err.println("Closing change source failed: " + e.getMessage());
+            }
+        }
+        sources.clear();
+        if (ex != null) ex.shutdownNow();
+        pending.clear();
+    }
+
+    private synchronized ExecutorService dispatcher() {
+        if (closed) return null;
+        if (dispatcher == null) {
+            dispatcher = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "event-bus");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return dispatcher;
+    }
+
+    private void deliver(ChangeEvent event) {
+        for (Consumer<ChangeEvent> s : subscribers.get(event.topic())) {
+            try {
+                s.accept(event);
+            } catch (Exception e) {
+                System.err.println("Event subscriber failed for " + event + ": " + e.getMessage());
+            }
+        }
+    }
+}
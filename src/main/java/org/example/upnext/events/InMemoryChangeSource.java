@@ -0,0 +1,24 @@
+package org.example.upnext.events;
+
+/**
+ * Change source driven by hand: {@link #fire} publishes as if another instance had made the
+ * change. For tests and for running without database notifications.
+ */
+public class InMemoryChangeSource implements ChangeSource {
+    private volatile EventBus bus;
+
+    @Override
+    public void start(EventBus bus) {
+        this.bus = bus;
+    }
+
+    public void fire(ChangeEvent event) {
+        EventBus b = bus;
+        if (b != null) b.publish(event);
+    }
+
+    @Override
+    public void close() {
+        bus = null;
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.upnext.events;
+
+import oracle.jdbc.OracleConnection;
+import oracle.jdbc.OracleStatement;
+import oracle.jdbc.dcn.DatabaseChangeEvent;
+import oracle.jdbc.dcn.DatabaseChangeRegistration;
+import oracle.jdbc.dcn.RowChangeDescription;
+import oracle.jdbc.dcn.TableChangeDescription;
+import org.example.upnext.config.Db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Publishes commits to TASKS, PROJECTS and NOTIFICATIONS made by any session, using Oracle
+ * Database Change Notification. The schema user needs the CHANGE NOTIFICATION privilege.
+ * <p>
+ * The registration asks for ROWIDs; for TASKS and PROJECTS up to {@link #MAX_RESOLVED} of them
+ * are looked up to name the project, so a dashboard only refreshes for its own project. Deleted
+ * rows, bulk changes (Oracle then sends no ROWIDs) and NOTIFICATIONS give a table-level event.
+ * With events.oracle.clientInit=true (needs 12.2+) the driver opens the notification channel
+ * itself, so the database does not have to reach back to this machine.
+ */
+public class OracleChangeSource implements ChangeSource {
+    private static final int MAX_RESOLVED = 20;
+    private static final boolean CLIENT_INIT = Boolean.parseBoolean(Db.property("events.oracle.clientInit", "true"));
+
+    private OracleConnection conn;   // dedicated session that owns the registration
+    private DatabaseChangeRegistration registration;
+
+    @Override
+    public synchronized void start(EventBus bus) throws SQLException {
+        Connection c = Db.openUnpooled();
+        try {
+            OracleConnection oc = c.unwrap(OracleConnection.class);
+            Properties opts = new Properties();
+            opts.setProperty(OracleConnection.DCN_NOTIFY_ROWIDS, "true");
+            if (CLIENT_INIT) opts.setProperty(OracleConnection.DCN_CLIENT_INIT_CONNECTION, "true");
+
+            DatabaseChangeRegistration reg = oc.registerDatabaseChangeNotification(opts);
+            try {
+                reg.addListener(e -> onChange(bus, e));
+                // tables are registered by running a query that reads them on a statement bound to the registration
+                try (Statement st = oc.createStatement()) {
+                    st.unwrap(OracleStatement.class).setDatabaseChangeRegistration(reg);
+                    for (String table : new String[]{"TASKS", "PROJECTS", "NOTIFICATIONS"}) {
+                        try (ResultSet rs = st.executeQuery("SELECT 1 FROM " + table + " WHERE 1 = 0")) {
+                            rs.next();
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                oc.unregisterDatabaseChangeNotification(reg);
+                throw e;
+            }
+            this.conn = oc;
+            this.registration = reg;
+        } catch (SQLException e) {
+            c.close();
+            throw e;
+        }
+    }
+
+    private void onChange(EventBus bus, DatabaseChangeEvent e) {
+        TableChangeDescription[] tables = e.getTableChangeDescription();
+        if (tables == null) return;
+        for (TableChangeDescription t : tables) {
+            String name = t.getTableName();
+            String table = name.substring(name.lastIndexOf('.') + 1).toUpperCase(Locale.ROOT);   // "SCHEMA.TASKS"
+            switch (table) {
+                case "TASKS" -> {
+                    Set<Long> projects = resolve("SELECT PROJECT_ID FROM TASKS WHERE ROWID = CHARTOROWID(?)", t);
+                    if (projects.isEmpty()) bus.publish(ChangeEvent.task(null, null));
+                    for (Long p : projects) bus.publish(ChangeEvent.task(p, null));
+                }
+                case "PROJECTS" -> {
+                    Set<Long> projects = resolve("SELECT PROJECT_ID FROM PROJECTS WHERE ROWID = CHARTOROWID(?)", t);
+                    if (projects.isEmpty()) bus.publish(ChangeEvent.project(null));
+                    for (Long p : projects) bus.publish(ChangeEvent.project(p));
+                }
+                case "NOTIFICATIONS" -> bus.publish(ChangeEvent.notifications());
+                default -> { }
+            }
+        }
+    }
+
+    /** Ids behind the changed rows; empty when unknown (too many rows, deleted, or lookup failed). */
+    private static Set<Long> resolve(String sql, TableChangeDescription t) {
+        RowChangeDescription[] rows = t.getRowChangeDescription();
+        Set<Long> ids = new LinkedHashSet<>();
+        if (rows == null || rows.length == 0 || rows.length > MAX_RESOLVED) return ids;
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            for (RowChangeDescription r : rows) {
+                if (r.getRowOperations().contains(RowChangeDescription.RowOperation.DELETE)) return Set.of();
+                ps.setString(1, r.getRowid().stringValue());
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) return Set.of();
+                    ids.add(rs.getLong(1));
+                }
+            }
+        } catch (SQLException ex) {
+            System.err.println("Resolving changed rows failed: " + ex.getMessage());
+            return Set.of();
+        }
+        return ids;
+    }
+
+    @Override
+    public synchronized void close() throws SQLException {
+        if (conn == null) return;
+        try {
+            if (registration != null) conn.unregisterDatabaseChangeNotification(registration);
+        } finally {
+            registration = null;
+            conn.close();
+            conn = null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.upnext.export;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/** See {@link ExportFormat#CSV}. */
+final class CsvTableWriter implements TableWriter {
+    private final Writer out;
+    private final char[] chunk = new char[8192];
+    private boolean firstInRow;
+
+    CsvTableWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin(String[] columns) throws IOException {
+        beginRow();
+        for (String c : columns) text(c);
+        endRow();
+    }
+
+    @Override
+    public void beginRow() {
+        firstInRow = true;
+    }
+
+    @Override
+    public void nullValue() throws IOException {
+        separate();
+    }
+
+    @Override
+    public void number(String plain) throws IOException {
+        separate();
+        out.write(plain);
+    }
+
+    @Override
+    public void text(String s) throws IOException {
+        separate();
+        out.write('"');
+        escape(s.toCharArray(), s.length());
+        out.write('"');
+    }
+
+    @Override
+    public void text(Reader r) throws IOException {
+        separate();
+        out.write('"');
+        for (int n; (n = r.read(chunk)) > 0; ) escape(chunk, n);
+        out.write('"');
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        out.write("\r\n");
+    }
+
+    @Override
+    public void end() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void separate() throws IOException {
+        if (!firstInRow) out.write(',');
+        firstInRow = false;
+    }
+
+    /** Doubles quotes; writes the runs between them in one call. */
+    private void escape(char[] cs, int len) throws IOException {
+        int from = 0;
+        for (int i = 0; i < len; i++) {
+            if (cs[i] == '"') {
+                out.write(cs, from, i + 1 - from);
+                out.write('"');
+                from = i + 1;
+            }
+        }
+        out.write(cs, from, len - from);
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.upnext.export;
+
+import java.io.Writer;
+
+/** Output formats of {@link ProjectExporter}. */
+public enum ExportFormat {
+    /** RFC 4180: header row, CRLF line ends, text always quoted, NULL as an empty field. */
+    CSV("csv"),
+    /** One JSON array of objects keyed by column name, one row per line. */
+    JSON("json");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String extension() { return extension; }
+
+    TableWriter open(Writer out) {
+        return this == CSV ? new CsvTableWriter(out) : new JsonTableWriter(out);
+    }
+}
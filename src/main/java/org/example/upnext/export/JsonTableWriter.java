@@ -0,0 +1,123 @@
+package org.example.upnext.export;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/** See {@link ExportFormat#JSON}. */
+final class JsonTableWriter implements TableWriter {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    private final char[] chunk = new char[8192];
+    private String[] keys;   // "NAME": per column, escaped once
+    private int column;
+    private boolean firstRow = true;
+
+    JsonTableWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin(String[] columns) throws IOException {
+        keys = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            StringBuilder k = new StringBuilder("\"");
+            for (char ch : columns[i].toCharArray()) appendEscaped(k, ch);
+            keys[i] = k.append("\":").toString();
+        }
+        out.write('[');
+    }
+
+    @Override
+    public void beginRow() throws IOException {
+        out.write(firstRow ? "\n{" : ",\n{");
+        firstRow = false;
+        column = 0;
+    }
+
+    @Override
+    public void nullValue() throws IOException {
+        key();
+        out.write("null");
+    }
+
+    @Override
+    public void number(String plain) throws IOException {
+        key();
+        out.write(plain);
+    }
+
+    @Override
+    public void text(String s) throws IOException {
+        key();
+        out.write('"');
+        escape(s.toCharArray(), s.length());
+        out.write('"');
+    }
+
+    @Override
+    public void text(Reader r) throws IOException {
+        key();
+        out.write('"');
+        for (int n; (n = r.read(chunk)) > 0; ) escape(chunk, n);
+        out.write('"');
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        out.write('}');
+    }
+
+    @Override
+    public void end() throws IOException {
+        out.write(firstRow ? "]\n" : "\n]\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void key() throws IOException {
+        if (column > 0) out.write(',');
+        out.write(keys[column++]);
+    }
+
+    /**
+     * Escapes quotes, backslashes, control characters and U+2028/9 (not allowed in JS strings);
+     * writes the runs between them in one call.
+     */
+    private void escape(char[] cs, int len) throws IOException {
+        int from = 0;
+        for (int i = 0; i < len; i++) {
+            char ch = cs[i];
+            if (ch >= 0x20 && ch != '"' && ch != '\\' && ch != '\u2028' && ch != '\u2029') continue;
+            out.write(cs, from, i - from);
+            StringBuilder e = new StringBuilder(6);
+            appendEscaped(e, ch);
+            out.write(e.toString());
+            from = i + 1;
+        }
+        out.write(cs, from, len - from);
+    }
+
+    private static void appendEscaped(StringBuilder sb, char ch) {
+        switch (ch) {
+            case '"' -> sb.append("\\\"");
+            case '\\' -> sb.append("\\\\");
+            case '\n' -> sb.append("\\n");
+            case '\r' -> sb.append("\\r");
+            case '\t' -> sb.append("\\t");
+            default -> {
+                if (ch < 0x20 || ch == '\u2028' || ch == '\u2029') {
+                    sb.append("\\u").append(HEX[ch >> 12]).append(HEX[(ch >> 8) & 15])
+                            .append(HEX[(ch >> 4) & 15]).append(HEX[ch & 15]);
+                } else {
+                    sb.append(ch);
+                }
+            }
+        }
+    }
+}
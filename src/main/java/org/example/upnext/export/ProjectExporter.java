@@ -0,0 +1,214 @@
+package org.example.upnext.export;
+
+import oracle.jdbc.OracleStatement;
+import org.example.upnext.config.Db;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a project, its tasks and its activity log to CSV or JSON files for reporting. Rows go
+ * from a forward-only cursor, {@code export.fetchSize} at a time, through the format's encoder
+ * straight to a buffered file channel (optionally gzipped), and CLOBs are copied in chunks, so
+ * memory stays the same for 1k or 10M log rows.
+ * <p>
+ * All datasets of one call are read in one READ ONLY transaction on a dedicated connection, so
+ * they agree with each other and the pool is not held for the length of a large export. Each file
+ * is written under a temporary name and moved into place when complete.
+ */
+public final class ProjectExporter {
+
+    public enum Dataset {
+        PROJECT("project", """
+                SELECT PROJECT_ID, NAME, DESCRIPTION, OWNER_ID, START_DATE, END_DATE, STATUS,
+                       CREATED_AT, UPDATED_AT
+                FROM PROJECTS WHERE PROJECT_ID = ?
+                """),
+        // IX_TASKS_PROJECT_TASK returns them in order
+        TASKS("tasks", """
+                SELECT TASK_ID, PARENT_TASK_ID, TITLE, DESCRIPTION, ASSIGNEE_ID, STATUS, PRIORITY,
+                       START_DATE, DUE_DATE, PROGRESS_PCT, ESTIMATED_HOURS, ACTUAL_HOURS, IS_BLOCKED,
+                       CREATED_AT, UPDATED_AT
+                FROM TASKS WHERE PROJECT_ID = ?
+                ORDER BY TASK_ID
+                """),
+        // IX_LOGS_PROJECT_LOG (db/V10) returns them in order
+        ACTIVITY("activity", """
+                SELECT LOG_ID, OCCURRED_AT, ENTITY_TYPE, ENTITY_ID, ACTION, PERFORMED_BY, TASK_ID, DETAILS
+                FROM ACTIVITY_LOGS WHERE PROJECT_ID = ?
+                ORDER BY LOG_ID
+                """);
+
+        private final String fileName;
+        private final String sql;
+
+        Dataset(String fileName, String sql) {
+            this.fileName = fileName;
+            this.sql = sql;
+        }
+    }
+
+    public record Result(Dataset dataset, Path file, long rows, long bytes) {}
+
+    private static final int BUFFER = 1 << 16;
+
+    private final int fetchSize;
+    private final int lobPrefetch;
+
+    public ProjectExporter(int fetchSize, int lobPrefetch) {
+        this.fetchSize = fetchSize;
+        this.lobPrefetch = lobPrefetch;
+    }
+
+    public static ProjectExporter fromConfig() {
+        return new ProjectExporter(Db.intProperty("export.fetchSize", 1000),
+                Db.intProperty("export.lobPrefetch", 4000));
+    }
+
+    /** Exports the datasets (all if none given) to project-&lt;id&gt;-&lt;dataset&gt;.&lt;ext&gt;[.gz] in dir. */
+    public List<Result> export(long projectId, ExportFormat format, Path dir, boolean gzip, Dataset... datasets)
+            throws SQLException, IOException {
+        if (datasets.length == 0) datasets = Dataset.values();
+        Files.createDirectories(dir);
+        List<Result> out = new ArrayList<>();
+        try (Connection c = Db.openUnpooled()) {
+            c.setAutoCommit(false);
+            try (Statement st = c.createStatement()) {
+                st.execute("SET TRANSACTION READ ONLY");
+            }
+            try {
+                for (Dataset d : datasets) {
+                    String name = "project-" + projectId + "-" + d.fileName + "." + format.extension()
+                            + (gzip ? ".gz" : "");
+                    out.add(write(c, projectId, d, format, dir.resolve(name), gzip));
+                }
+            } finally {
+                c.rollback();
+            }
+        }
+        return out;
+    }
+
+    private Result write(Connection c, long projectId, Dataset d, ExportFormat format, Path file, boolean gzip)
+            throws SQLException, IOException {
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        long rows;
+        try {
+            try (TableWriter w = format.open(open(part, gzip))) {
+                rows = stream(c, projectId, d, w);
+            }
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (SQLException | IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        return new Result(d, file, rows, Files.size(file));
+    }
+
+    /** Streams one dataset of a project into w; returns the number of rows. */
+    public long stream(Connection c, long projectId, Dataset d, TableWriter w) throws SQLException, IOException {
+        try (PreparedStatement ps = c.prepareStatement(d.sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(fetchSize);
+            // CLOBs up to this many chars come with the row instead of one round trip each
+            if (lobPrefetch > 0 && ps.isWrapperFor(OracleStatement.class)) {
+                ps.unwrap(OracleStatement.class).setLobPrefetchSize(lobPrefetch);
+            }
+            ps.setLong(1, projectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData md = rs.getMetaData();
+                int n = md.getColumnCount();
+                String[] names = new String[n];
+                int[] types = new int[n];
+                boolean[] dateOnly = new boolean[n];
+                for (int i = 0; i < n; i++) {
+                    names[i] = md.getColumnLabel(i + 1);
+                    types[i] = md.getColumnType(i + 1);
+                    dateOnly[i] = "DATE".equals(md.getColumnTypeName(i + 1));
+                }
+                w.begin(names);
+                long rows = 0;
+                while (rs.next()) {
+                    w.beginRow();
+                    for (int i = 0; i < n; i++) value(rs, i + 1, types[i], dateOnly[i], w);
+                    w.endRow();
+                    rows++;
+                }
+                w.end();
+                return rows;
+            }
+        }
+    }
+
+    private static void value(ResultSet rs, int i, int type, boolean dateOnly, TableWriter w)
+            throws SQLException, IOException {
+        switch (type) {
+            case Types.CLOB, Types.NCLOB -> {
+                Clob clob = rs.getClob(i);
+                if (clob == null) {
+                    w.nullValue();
+                    return;
+                }
+                try (Reader r = clob.getCharacterStream()) {
+                    w.text(r);
+                } finally {
+                    clob.free();
+                }
+            }
+            case Types.NUMERIC, Types.DECIMAL, Types.INTEGER, Types.BIGINT, Types.SMALLINT,
+                    Types.FLOAT, Types.DOUBLE, Types.REAL -> {
+                BigDecimal v = rs.getBigDecimal(i);
+                if (v == null) w.nullValue();
+                else w.number(v.stripTrailingZeros().toPlainString());
+            }
+            case Types.DATE, Types.TIMESTAMP -> {
+                Timestamp ts = rs.getTimestamp(i);
+                if (ts == null) {
+                    w.nullValue();
+                    return;
+                }
+                // Oracle DATE columns hold a time too; print only the day when it is midnight
+                LocalDateTime t = ts.toLocalDateTime();
+                w.text(dateOnly && t.toLocalTime().equals(LocalTime.MIDNIGHT) ? t.toLocalDate().toString() : t.toString());
+            }
+            default -> {
+                String s = rs.getString(i);
+                if (s == null) w.nullValue();
+                else w.text(s);
+            }
+        }
+    }
+
+    private static BufferedWriter open(Path file, boolean gzip) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        OutputStream os = Channels.newOutputStream(ch);
+        os = gzip ? new GZIPOutputStream(os, BUFFER) : new BufferedOutputStream(os, BUFFER);
+        return new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8), BUFFER);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.upnext.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Encodes a result set value by value straight to its output, so nothing is held per row.
+ * Call order: begin, then per row beginRow, one value call per column, endRow; then end.
+ */
+public interface TableWriter extends Closeable {
+    void begin(String[] columns) throws IOException;
+
+    void beginRow() throws IOException;
+
+    void nullValue() throws IOException;
+
+    /** A number already in plain decimal form. */
+    void number(String plain) throws IOException;
+
+    void text(String s) throws IOException;
+
+    /** Text read in chunks (CLOB columns); the reader is left open. */
+    void text(Reader r) throws IOException;
+
+    void endRow() throws IOException;
+
+    void end() throws IOException;
+}
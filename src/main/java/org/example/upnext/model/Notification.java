@@ -11,6 +11,7 @@ public class Notification {
     private String type;    // DUE_SOON_3D | DEADLINE_PASSED | OVERDUE
     private String message;
     private LocalDateTime createdAt;
+    private boolean read;   // IS_READ = 'Y'
 
     // convenience (joined from TASKS)
     private String taskTitle;
@@ -30,6 +31,8 @@ public class Notification {
     public void setType(String type) { this.type = type; }
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
+    public boolean isRead() { return read; }
+    public void setRead(boolean read) { this.read = read; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public String getTaskTitle() { return taskTitle; }
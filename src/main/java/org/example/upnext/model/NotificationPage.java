@@ -0,0 +1,20 @@
+package org.example.upnext.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of a notification feed, newest first. {@code next} is the keyset position to pass
+ * for the following page, or null when this is the last one.
+ */
+public record NotificationPage(List<Notification> items, Cursor next) {
+
+    /** Position after a row in (CREATED_AT DESC, NOTIF_ID DESC) order. */
+    public record Cursor(LocalDateTime createdAt, long notificationId) {
+        public static Cursor after(Notification n) {
+            return new Cursor(n.getCreatedAt(), n.getNotificationId());
+        }
+    }
+
+    public boolean hasMore() { return next != null; }
+}
@@ -0,0 +1,63 @@
+package org.example.upnext.model;
+
+/**
+ * Running sums behind a project's progress, so it can be read in any weighting and kept current
+ * by adding and subtracting one task's share. CANCELLED tasks are left out and a DONE task
+ * counts as 100%. The same sums are computed in SQL by ProjectDAO.findProgressTotals.
+ */
+public record ProgressTotals(int tasks, double pctSum,
+                             double hours, double hoursPctSum,
+                             double priority, double priorityPctSum) {
+
+    public static final ProgressTotals EMPTY = new ProgressTotals(0, 0, 0, 0, 0, 0);
+
+    /** How tasks count towards the project figure. */
+    public enum Weighting {
+        /** Every task the same. */
+        UNWEIGHTED,
+        /** By ESTIMATED_HOURS, a default for tasks without one. */
+        ESTIMATE,
+        /** CRITICAL 4, HIGH 3, MEDIUM (or none) 2, LOW 1. */
+        PRIORITY
+    }
+
+    /** One task's share; EMPTY for a CANCELLED task. */
+    public static ProgressTotals of(Task t, double defaultHours) {
+        if ("CANCELLED".equals(t.getStatus())) return EMPTY;
+        double pct = "DONE".equals(t.getStatus()) ? 100 : Math.min(100, Math.max(0, t.getProgressPct()));
+        double h = t.getEstimatedHours() != null ? Math.max(0, t.getEstimatedHours()) : defaultHours;
+        int w = priorityWeight(t.getPriority());
+        return new ProgressTotals(1, pct, h, h * pct, w, w * pct);
+    }
+
+    public static int priorityWeight(String priority) {
+        if (priority == null) return 2;
+        return switch (priority) {
+            case "CRITICAL" -> 4;
+            case "HIGH" -> 3;
+            case "LOW" -> 1;
+            default -> 2;
+        };
+    }
+
+    public ProgressTotals plus(ProgressTotals o) {
+        return new ProgressTotals(tasks + o.tasks, pctSum + o.pctSum, hours + o.hours,
+                hoursPctSum + o.hoursPctSum, priority + o.priority, priorityPctSum + o.priorityPctSum);
+    }
+
+    public ProgressTotals minus(ProgressTotals o) {
+        return new ProgressTotals(tasks - o.tasks, pctSum - o.pctSum, hours - o.hours,
+                hoursPctSum - o.hoursPctSum, priority - o.priority, priorityPctSum - o.priorityPctSum);
+    }
+
+    /** Progress 0..100; 0 for a project without tasks (or whose weights are all zero). */
+    public double progressPct(Weighting w) {
+        double sum, weight;
+        switch (w) {
+            case ESTIMATE -> { sum = hoursPctSum; weight = hours; }
+            case PRIORITY -> { sum = priorityPctSum; weight = priority; }
+            default -> { sum = pctSum; weight = tasks; }
+        }
+        return weight > 0 ? Math.min(100, Math.max(0, sum / weight)) : 0;
+    }
+}
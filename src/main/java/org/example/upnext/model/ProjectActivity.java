@@ -0,0 +1,17 @@
+package org.example.upnext.model;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * One row of the project status sweep: the project's own columns plus aggregates over its tasks.
+ * Two equal values mean nothing the automatic status depends on has changed in between.
+ */
+public record ProjectActivity(long projectId,
+                              String status,
+                              LocalDate startDate,
+                              OffsetDateTime updatedAt,
+                              OffsetDateTime lastTaskChange,   // newest NVL(UPDATED_AT, CREATED_AT) of its tasks
+                              int taskCount,
+                              int doneCount) {
+}
@@ -0,0 +1,37 @@
+package org.example.upnext.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the dashboard needs to open a project, fetched in one query:
+ * the project row, its tasks and members, per-status task counts and the caller's role.
+ */
+public class ProjectSnapshot {
+    private final Project project;
+    private final List<Task> tasks;
+    private final List<User> members;
+    private final Map<String, Integer> statusCounts;
+    private final String projectRole;   // caller's PROJECT_MEMBERS role, null if not a member
+    private final boolean manager;      // owner or MANAGER member, as ProjectService.isManagerOfProject
+
+    public ProjectSnapshot(Project project, List<Task> tasks, List<User> members,
+                           Map<String, Integer> statusCounts, String projectRole, boolean manager) {
+        this.project = project;
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.members = Collections.unmodifiableList(members);
+        this.statusCounts = Collections.unmodifiableMap(statusCounts);
+        this.projectRole = projectRole;
+        this.manager = manager;
+    }
+
+    public Project getProject() { return project; }
+    public List<Task> getTasks() { return tasks; }
+    public List<User> getMembers() { return members; }
+    public Map<String, Integer> getStatusCounts() { return statusCounts; }
+    public int getStatusCount(String status) { return statusCounts.getOrDefault(status, 0); }
+    public double getProgressPct() { return project.getProgressPct(); }
+    public String getProjectRole() { return projectRole; }
+    public boolean isManager() { return manager; }
+}
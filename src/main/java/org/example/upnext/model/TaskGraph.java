@@ -0,0 +1,70 @@
+package org.example.upnext.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only view of one project's tasks: tasks by id, the parent -> children index and the
+ * dependency edges. Built once per load and shared by every reader, so callers must not
+ * modify the Task objects they get from it.
+ */
+public final class TaskGraph {
+    private final long projectId;
+    private final List<Task> tasks;
+    private final Map<Long, Task> byId;
+    private final Map<Long, List<Task>> children;      // parent id -> children; key null = top level
+    private final List<TaskDependency> dependencies;
+    private final Map<Long, List<Long>> predecessors;  // successor -> predecessors
+    private final Map<Long, List<Long>> successors;    // predecessor -> successors
+
+    public TaskGraph(long projectId, List<Task> tasks, List<TaskDependency> dependencies) {
+        this.projectId = projectId;
+        this.tasks = Collections.unmodifiableList(new ArrayList<>(tasks));
+        this.dependencies = Collections.unmodifiableList(new ArrayList<>(dependencies));
+
+        Map<Long, Task> ids = new HashMap<>(tasks.size() * 2);
+        for (Task t : tasks) ids.put(t.getTaskId(), t);
+        Map<Long, List<Task>> kids = new HashMap<>();
+        for (Task t : tasks) {
+            Long parent = t.getParentTaskId();
+            if (parent != null && !ids.containsKey(parent)) parent = null; // orphan -> show at top level
+            kids.computeIfAbsent(parent, k -> new ArrayList<>()).add(t);
+        }
+        Map<Long, List<Long>> preds = new HashMap<>();
+        Map<Long, List<Long>> succs = new HashMap<>();
+        for (TaskDependency d : dependencies) {
+            preds.computeIfAbsent(d.getSuccessorTaskId(), k -> new ArrayList<>()).add(d.getPredecessorTaskId());
+            succs.computeIfAbsent(d.getPredecessorTaskId(), k -> new ArrayList<>()).add(d.getSuccessorTaskId());
+        }
+        this.byId = ids;
+        this.children = kids;
+        this.predecessors = preds;
+        this.successors = succs;
+    }
+
+    public long getProjectId() { return projectId; }
+
+    /** All tasks, ordered by TASK_ID. */
+    public List<Task> tasks() { return tasks; }
+
+    public Task task(long taskId) { return byId.get(taskId); }
+
+    public boolean contains(long taskId) { return byId.containsKey(taskId); }
+
+    /** Children of a task; pass null for the top-level tasks. */
+    public List<Task> children(Long parentTaskId) {
+        List<Task> list = children.get(parentTaskId);
+        return list == null ? List.of() : Collections.unmodifiableList(list);
+    }
+
+    public List<TaskDependency> dependencies() { return dependencies; }
+
+    public List<Long> predecessors(long taskId) { return predecessors.getOrDefault(taskId, List.of()); }
+
+    public List<Long> successors(long taskId) { return successors.getOrDefault(taskId, List.of()); }
+
+    public int size() { return tasks.size(); }
+}
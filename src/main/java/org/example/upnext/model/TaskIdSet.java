@@ -0,0 +1,54 @@
+package org.example.upnext.model;
+
+import java.util.BitSet;
+
+/**
+ * Immutable set of TASK_IDs stored as one bit per id between the builder's base and the largest
+ * id added, so it takes about (maxId - minId) / 8 bytes however few ids are in it. TASKS_SEQ is
+ * shared by every project and handed out in blocks per JVM (db.sequence.blockSize), so one
+ * project's ids are interleaved with other projects' and the span can be far larger than its
+ * task count: still small next to a boxed HashSet for the per-project sets built here, but not
+ * a fit for ids from across the schema. Build with {@link Builder}.
+ */
+public final class TaskIdSet {
+    public static final TaskIdSet EMPTY = new TaskIdSet(0, new BitSet());
+
+    private final long base;    // id of bit 0
+    private final BitSet bits;
+
+    private TaskIdSet(long base, BitSet bits) {
+        this.base = base;
+        this.bits = bits;
+    }
+
+    public boolean contains(long taskId) {
+        long offset = taskId - base;
+        return offset >= 0 && offset < Integer.MAX_VALUE && bits.get((int) offset);
+    }
+
+    public int size() { return bits.cardinality(); }
+
+    public boolean isEmpty() { return bits.isEmpty(); }
+
+    /** Collects ids; ids must span less than Integer.MAX_VALUE. */
+    public static final class Builder {
+        private final long base;
+        private final BitSet bits = new BitSet();
+
+        /** base = the smallest id that will be added (e.g. the project's lowest TASK_ID). */
+        public Builder(long base) { this.base = base; }
+
+        public Builder add(long taskId) {
+            long offset = taskId - base;
+            if (offset < 0 || offset >= Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("TASK_ID " + taskId + " outside the set's range from " + base);
+            }
+            bits.set((int) offset);
+            return this;
+        }
+
+        public TaskIdSet build() {
+            return bits.isEmpty() ? EMPTY : new TaskIdSet(base, (BitSet) bits.clone());
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package org.example.upnext.service;
+
+import org.example.upnext.model.Task;
+import org.example.upnext.model.TaskDependency;
+import org.example.upnext.model.TaskGraph;
+
+import java.util.Arrays;
+
+/**
+ * One project's task dependencies as a directed graph (predecessor -> successor) over primitive
+ * arrays: tasks are numbered 0..n-1 and each node keeps int arrays of its successors and
+ * predecessors, plus a count of predecessors that are not DONE. That count makes "is this task
+ * blocked" O(1) and lets a completion unblock successors incrementally instead of re-checking
+ * every dependent task. Traversals (cycle check, {@link #blockedSet transitive blocking}) are iterative, O(V + E).
+ * <p>
+ * Predecessors in other projects are added as external nodes; their DONE state is unknown until
+ * set with {@link #setDone}. Edges between two other projects are not loaded, so a cycle that
+ * only closes outside this project is not seen. Not thread-safe.
+ */
+public final class DependencyGraph {
+    private static final int[] NONE = new int[0];
+
+    private final LongIntMap index = new LongIntMap();   // TASK_ID -> node
+    private long[] ids = new long[16];                     // node -> TASK_ID
+    private boolean[] done = new boolean[16];
+    private boolean[] external = new boolean[16];
+    private int[][] succ = new int[16][];
+    private int[] succCount = new int[16];
+    private int[][] pred = new int[16][];
+    private int[] predCount = new int[16];
+    private int[] openPreds = new int[16];                 // predecessors not DONE
+    private int n;
+
+    /** Builds the graph of a loaded project: its tasks (DONE from STATUS) and its dependency edges. */
+    public static DependencyGraph of(TaskGraph g) {
+        DependencyGraph dg = new DependencyGraph();
+        for (Task t : g.tasks()) dg.node(t.getTaskId(), "DONE".equals(t.getStatus()), false);
+        for (TaskDependency d : g.dependencies()) {
+            dg.link(dg.nodeOrExternal(d.getPredecessorTaskId()), dg.nodeOrExternal(d.getSuccessorTaskId()));
+        }
+        return dg;
+    }
+
+    public int size() { return n; }
+
+    public boolean contains(long taskId) { return index.get(taskId) >= 0; }
+
+    public boolean isDone(long taskId) {
+        int v = index.get(taskId);
+        return v >= 0 && done[v];
+    }
+
+    /** Has at least one direct predecessor that is not DONE. */
+    public boolean isBlocked(long taskId) {
+        int v = index.get(taskId);
+        return v >= 0 && openPreds[v] > 0;
+    }
+
+    /** Predecessors in other projects, whose DONE state the caller should {@link #setDone set}. */
+    public long[] externalIds() {
+        long[] out = new long[n];
+        int k = 0;
+        for (int v = 0; v < n; v++) if (external[v]) out[k++] = ids[v];
+        return Arrays.copyOf(out, k);
+    }
+
+    /** Direct predecessors of the task that are not DONE. */
+    public long[] unfinishedPredecessors(long taskId) {
+        int v = index.get(taskId);
+        if (v < 0) return new long[0];
+        long[] out = new long[predCount[v]];
+        int k = 0;
+        for (int i = 0; i < predCount[v]; i++) if (!done[pred[v][i]]) out[k++] = ids[pred[v][i]];
+        return Arrays.copyOf(out, k);
+    }
+
+    /**
+     * Tasks that cannot finish yet because something upstream is unfinished: every task reachable
+     * through one or more edges from a task that is not DONE. Project tasks only, by TASK_ID,
+     * sorted. Unlike {@link #isBlocked} this also covers a task whose direct predecessors are
+     * DONE but which sits below an open task further up the chain.
+     */
+    public long[] blockedSet() {
+        boolean[] seen = new boolean[n];
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (done[v]) continue;
+            for (int i = 0; i < succCount[v]; i++) {
+                int w = succ[v][i];
+                if (!seen[w]) { seen[w] = true; queue[tail++] = w; }
+            }
+        }
+        while (head < tail) {
+            int v = queue[head++];
+            for (int i = 0; i < succCount[v]; i++) {
+                int w = succ[v][i];
+                if (!seen[w]) { seen[w] = true; queue[tail++] = w; }
+            }
+        }
+        long[] out = new long[tail];
+        int k = 0;
+        for (int i = 0; i < tail; i++) if (!external[queue[i]]) out[k++] = ids[queue[i]];
+        out = Arrays.copyOf(out, k);
+        Arrays.sort(out);
+        return out;
+    }
+
+    /**
+     * The chain of TASK_IDs from one task to another along dependency edges, or null if the
+     * second is not reachable from the first. Depth-first with an explicit stack, O(V + E).
+     */
+    public long[] path(long fromTaskId, long toTaskId) {
+        int from = index.get(fromTaskId), to = index.get(toTaskId);
+        if (from < 0 || to < 0) return null;
+        int[] parent = new int[n];
+        Arrays.fill(parent, -2);   // -2 = unvisited
+        int[] stack = new int[n];
+        int top = 0;
+        stack[top++] = from;
+        parent[from] = -1;
+        while (top > 0) {
+            int v = stack[--top];
+            if (v == to) {
+                int len = 0;
+                for (int x = v; x != -1; x = parent[x]) len++;
+                long[] out = new long[len];
+                for (int x = v; x != -1; x = parent[x]) out[--len] = ids[x];
+                return out;
+            }
+            for (int i = 0; i < succCount[v]; i++) {
+                int w = succ[v][i];
+                if (parent[w] == -2) { parent[w] = v; stack[top++] = w; }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The cycle that adding predecessor -> successor would close, as TASK_IDs starting and ending
+     * with the predecessor; null if the edge is safe. A task depending on itself is a cycle.
+     */
+    public long[] cycleIfAdded(long predecessorId, long successorId) {
+        if (predecessorId == successorId) return new long[]{predecessorId, predecessorId};
+        long[] back = path(successorId, predecessorId);   // successor already leads to predecessor?
+        if (back == null) return null;
+        long[] cycle = new long[back.length + 1];
+        cycle[0] = predecessorId;
+        System.arraycopy(back, 0, cycle, 1, back.length);
+        return cycle;
+    }
+
+    /** Adds the edge; throws IllegalArgumentException if it would close a cycle. No-op if present. */
+    public void addDependency(long predecessorId, long successorId) {
+        if (cycleIfAdded(predecessorId, successorId) != null) {
+            throw new IllegalArgumentException("Dependency " + predecessorId + " -> " + successorId + " would create a cycle");
+        }
+        link(nodeOrExternal(predecessorId), nodeOrExternal(successorId));
+    }
+
+    public void removeDependency(long predecessorId, long successorId) {
+        int p = index.get(predecessorId), s = index.get(successorId);
+        if (p < 0 || s < 0 || !remove(succ, succCount, p, s)) return;
+        remove(pred, predCount, s, p);
+        if (!done[p]) openPreds[s]--;
+    }
+
+    /**
+     * Records a task becoming DONE (or reopened) and returns the direct successors whose
+     * blocked state flipped: unblocked on completion, blocked again on reopening. Only the
+     * task's own edges are touched.
+     */
+    public long[] setDone(long taskId, boolean isDone) {
+        int v = index.get(taskId);
+        if (v < 0 || done[v] == isDone) return new long[0];
+        done[v] = isDone;
+        long[] flipped = new long[succCount[v]];
+        int k = 0;
+        for (int i = 0; i < succCount[v]; i++) {
+            int w = succ[v][i];
+            if (isDone) {
+                if (--openPreds[w] == 0) flipped[k++] = ids[w];
+            } else {
+                if (openPreds[w]++ == 0) flipped[k++] = ids[w];
+            }
+        }
+        return Arrays.copyOf(flipped, k);
+    }
+
+    // ==============================================================================
+    // Storage
+    // ==============================================================================
+
+    private int nodeOrExternal(long taskId) {
+        int v = index.get(taskId);
+        return v >= 0 ? v : node(taskId, false, true);
+    }
+
+    private int node(long taskId, boolean isDone, boolean isExternal) {
+        int v = index.get(taskId);
+        if (v >= 0) return v;
+        if (n == ids.length) grow();
+        v = n++;
+        ids[v] = taskId;
+        done[v] = isDone;
+        external[v] = isExternal;
+        succ[v] = NONE;
+        pred[v] = NONE;
+        index.put(taskId, v);
+        return v;
+    }
+
+    private void link(int p, int s) {
+        for (int i = 0; i < succCount[p]; i++) if (succ[p][i] == s) return;   // UQ_TASK_DEP
+        append(succ, succCount, p, s);
+        append(pred, predCount, s, p);
+        if (!done[p]) openPreds[s]++;
+    }
+
+    private static void append(int[][] lists, int[] counts, int v, int w) {
+        if (counts[v] == lists[v].length) lists[v] = Arrays.copyOf(lists[v], Math.max(4, counts[v] * 2));
+        lists[v][counts[v]++] = w;
+    }
+
+    private static boolean remove(int[][] lists, int[] counts, int v, int w) {
+        int[] list = lists[v];
+        for (int i = 0; i < counts[v]; i++) {
+            if (list[i] == w) {
+                list[i] = list[--counts[v]];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void grow() {
+        int cap = ids.length * 2;
+        ids = Arrays.copyOf(ids, cap);
+        done = Arrays.copyOf(done, cap);
+        external = Arrays.copyOf(external, cap);
+        succ = Arrays.copyOf(succ, cap);
+        succCount = Arrays.copyOf(succCount, cap);
+        pred = Arrays.copyOf(pred, cap);
+        predCount = Arrays.copyOf(predCount, cap);
+        openPreds = Arrays.copyOf(openPreds, cap);
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.upnext.service;
+
+/** Open-addressing TASK_ID -> node map for the graph classes here, so lookups do not box; -1 = absent. */
+final class LongIntMap {
+    private long[] keys = new long[32];
+    private int[] values = new int[32];
+    private boolean[] used = new boolean[32];
+    private int size;
+
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+        }
+        return -1;
+    }
+
+    void put(long key, int value) {
+        if ((size + 1) * 2 > keys.length) rehash();
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (used[i] && keys[i] != key) i = (i + 1) & mask;
+        if (!used[i]) { used[i] = true; size++; }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private void rehash() {
+        long[] k = keys;
+        int[] v = values;
+        boolean[] u = used;
+        keys = new long[k.length * 2];
+        values = new int[k.length * 2];
+        used = new boolean[k.length * 2];
+        size = 0;
+        for (int i = 0; i < k.length; i++) if (u[i]) put(k[i], v[i]);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -1,35 +1,25 @@
 package org.example.upnext.service;
 
-import org.example.upnext.dao.TaskDAO;
 import org.example.upnext.dao.NotificationDAO;
-import org.example.upnext.dao.impl.TaskDAOImpl;
 import org.example.upnext.dao.impl.NotificationDAOImpl;
-import org.example.upnext.model.Task;
+import org.example.upnext.events.ChangeEvent;
+import org.example.upnext.events.EventBus;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.List;
 
 public class NotificationGeneratorService {
-    private final TaskDAO taskDAO;
     private final NotificationDAO notificationDAO;
 
     public NotificationGeneratorService() {
-        this.taskDAO = new TaskDAOImpl();
         this.notificationDAO = new NotificationDAOImpl();
     }
 
     public void checkAndGenerateDueSoonNotifications() {
         try {
             LocalDate threeDaysFromNow = LocalDate.now().plusDays(3);
-            List<Task> dueSoonTasks = taskDAO.findTasksDueOn(threeDaysFromNow);
-
-            for (Task task : dueSoonTasks) {
-                // ONLY notify the assignee - REMOVED the creator notification part
-                if (task.getAssigneeId() != null) {
-                    createDueSoonNotification(task.getTaskId(), task.getAssigneeId());
-                }
-            }
+            // ONLY notify the assignee; one set-based insert for the whole day
+            published(notificationDAO.createDueSoonNotifications(threeDaysFromNow, threeDaysFromNow.plusDays(1)));
         } catch (SQLException e) {
             System.err.println("Error generating due soon notifications: " + e.getMessage());
         }
@@ -38,38 +28,30 @@ public class NotificationGeneratorService {
     public void checkAndGenerateDeadlinePassedNotifications() {
         try {
             LocalDate yesterday = LocalDate.now().minusDays(1);
-            List<Task> deadlinePassedTasks = taskDAO.findTasksDueOn(yesterday);
-
-            for (Task task : deadlinePassedTasks) {
-                if ("TODO".equals(task.getStatus()) || "IN_PROGRESS".equals(task.getStatus())) {
-                    // ONLY notify the assignee - REMOVED the creator notification part
-                    if (task.getAssigneeId() != null) {
-                        createDeadlinePassedNotification(task.getTaskId(), task.getAssigneeId());
-                    }
-                }
-            }
+            // TODO / IN_PROGRESS tasks only, assignee only
+            published(notificationDAO.createDeadlinePassedNotifications(yesterday, yesterday.plusDays(1)));
         } catch (SQLException e) {
             System.err.println("Error generating deadline passed notifications: " + e.getMessage());
         }
     }
 
-    private void createDueSoonNotification(long taskId, long userId) {
-        try {
-            if (!notificationDAO.notificationExists(taskId, userId, "DUE_SOON_3D")) {
-                notificationDAO.createDueSoonNotification(taskId, userId);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error creating due soon notification: " + e.getMessage());
-        }
+    /**
+     * Everything the daily runs for firstDay..lastDay (inclusive) would have generated, in two
+     * statements: due-soon for tasks due firstDay+3 .. lastDay+3, deadline-passed for tasks due
+     * firstDay-1 .. lastDay-1. Used by the scheduler to catch up on missed days in one pass.
+     * lastDay is the current run day: tasks already past due by then get only the deadline-passed
+     * notification, not a stale due-soon reminder. Returns the number of notifications inserted.
+     */
+    public int generateForRunDays(LocalDate firstDay, LocalDate lastDay) throws SQLException {
+        LocalDate dueSoonFrom = firstDay.plusDays(3).isBefore(lastDay) ? lastDay : firstDay.plusDays(3);
+        int n = notificationDAO.createDueSoonNotifications(dueSoonFrom, lastDay.plusDays(4));
+        n += notificationDAO.createDeadlinePassedNotifications(firstDay.minusDays(1), lastDay);
+        return published(n);
     }
 
-    private void createDeadlinePassedNotification(long taskId, long userId) {
-        try {
-            if (!notificationDAO.notificationExists(taskId, userId, "DEADLINE_PASSED")) {
-                notificationDAO.createDeadlinePassedNotification(taskId, userId);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error creating deadline passed notification: " + e.getMessage());
-        }
+    /** Lets open dashboards update their unread badge now rather than at the next poll. */
+    private static int published(int created) {
+        if (created > 0) EventBus.shared().publish(ChangeEvent.notifications());
+        return created;
     }
-}
\ No newline at end of file
+}
@@ -1,28 +1,228 @@
 package org.example.upnext.service;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import org.example.upnext.config.Db;
+import org.example.upnext.dao.LeaseDAO;
+import org.example.upnext.dao.impl.InMemoryLeaseDAO;
+import org.example.upnext.dao.impl.LeaseDAOImpl;
+
+import java.net.InetAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Runs notification generation at fixed wall-clock times (notify.schedule.times, e.g. "08:00,17:30")
+ * in the local time zone. Each run is scheduled against the clock rather than at a fixed rate,
+ * so it does not drift with restarts or DST changes.
+ * <p>
+ * Every app instance schedules the runs, but only the one holding the "notifications" lease
+ * ({@link LeaseDAO}) does the work. The lease also records the last completed slot, so an
+ * instance that finds the slot done skips it, and a start-up run generates any days missed since
+ * then (at most notify.catchUp.maxDays) in one pass, since NotificationGeneratorService works on
+ * date ranges. An instance that cannot get the lease checks again once it could have expired,
+ * which is how a crashed leader is replaced. Starting an already running scheduler does nothing.
+ */
 public class NotificationScheduler {
+    private static final String LEASE = "notifications";
+    private static final long SHUTDOWN_WAIT_MS = Db.longProperty("notify.shutdownWaitMs", 10_000);
+
+    private static final NotificationScheduler SHARED = new NotificationScheduler(
+            new NotificationGeneratorService(),
+            "memory".equalsIgnoreCase(Db.property("notify.lease", "db")) ? new InMemoryLeaseDAO() : new LeaseDAOImpl(),
+            parseTimes(Db.property("notify.schedule.times", "08:00")),
+            Db.intProperty("notify.catchUp.maxDays", 14),
+            Duration.ofMillis(Db.longProperty("notify.lease.ttlMs", 600_000)),
+            Clock.systemDefaultZone());
+
+    private final NotificationGeneratorService generator;
+    private final LeaseDAO leases;
+    private final String holder;            // this instance's name in the lease table
+    private final List<LocalTime> times;    // sorted, at least one
+    private final int maxCatchUpDays;
+    private final Duration leaseTtl;        // longer than a generation pass takes
+    private final Clock clock;
 
-    private static final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-    private static final NotificationGeneratorService notificationGenerator = new NotificationGeneratorService();
+    private ScheduledThreadPoolExecutor executor;   // null when stopped
+    private boolean retryPending;
+    private volatile LocalDateTime lastCompletedSlot;
+    private volatile ZonedDateTime lastRun;
+    private volatile ZonedDateTime nextRun;
+
+    NotificationScheduler(NotificationGeneratorService generator, LeaseDAO leases, List<LocalTime> times,
+                          int maxCatchUpDays, Duration leaseTtl, Clock clock) {
+        if (times.isEmpty()) throw new IllegalArgumentException("at least one run time is required");
+        this.generator = generator;
+        this.leases = leases;
+        this.holder = instanceName();
+        this.times = times.stream().sorted().distinct().toList();
+        this.maxCatchUpDays = Math.max(1, maxCatchUpDays);
+        this.leaseTtl = leaseTtl;
+        this.clock = clock;
+    }
 
+    public static NotificationScheduler shared() { return SHARED; }
+
+    /** Starts the shared scheduler; called on every login, only the first call has an effect. */
     public static void startScheduler() {
-        // Run every day at a specific time (e.g., 8 AM)
-        scheduler.scheduleAtFixedRate(() -> {
+        SHARED.start();
+    }
+
+    public static void shutdown() {
+        SHARED.stop();
+    }
+
+    /** Starts the scheduler thread and queues a catch-up pass; returns false if already running. */
+    public synchronized boolean start() {
+        if (executor != null) return false;
+        retryPending = false;
+        executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "notification-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        executor.execute(this::run);
+        scheduleNext();
+        return true;
+    }
+
+    /** Stops scheduling; a run in progress gets notify.shutdownWaitMs to finish. */
+    public void stop() {
+        ScheduledThreadPoolExecutor ex;
+        synchronized (this) {
+            ex = executor;
+            executor = null;
+            nextRun = null;
+        }
+        if (ex == null) return;
+        ex.shutdown();
+        try {
+            if (!ex.awaitTermination(SHUTDOWN_WAIT_MS, TimeUnit.MILLISECONDS)) ex.shutdownNow();
+        } catch (InterruptedException e) {
+            ex.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized boolean isRunning() { return executor != null; }
+
+    /** When this instance last finished a generation pass. */
+    public Optional<ZonedDateTime> lastRun() { return Optional.ofNullable(lastRun); }
+
+    /** The latest slot known to be done by any instance, as last read from the lease. */
+    public Optional<LocalDateTime> lastCompletedSlot() { return Optional.ofNullable(lastCompletedSlot); }
+
+    /** When the next scheduled run is due; empty while stopped. */
+    public Optional<ZonedDateTime> nextRun() { return Optional.ofNullable(nextRun); }
+
+    /**
+     * One pass for the latest slot that has come (its day plus any days missed before it), if
+     * this instance gets the lease and no instance has done that slot yet.
+     */
+    void run() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        LocalDateTime slot = currentSlot(now.toLocalDateTime());
+        try {
+            if (!leases.tryAcquire(LEASE, holder, leaseTtl)) {
+                retryAfterLease();   // the leader is busy, or dead and its lease not yet expired
+                return;
+            }
             try {
-                notificationGenerator.checkAndGenerateDueSoonNotifications();
-                notificationGenerator.checkAndGenerateDeadlinePassedNotifications();
-                System.out.println("Notification generation completed at: " + java.time.LocalDateTime.now());
-            } catch (Exception e) {
-                System.err.println("Error in notification generation: " + e.getMessage());
+                LocalDateTime done = leases.state(LEASE).map(LocalDateTime::parse).orElse(null);
+                lastCompletedSlot = done;
+                if (done != null && !done.isBefore(slot)) return;   // another instance did it
+
+                LocalDate dueDay = slot.toLocalDate();
+                LocalDate first = done == null || !done.toLocalDate().isBefore(dueDay)
+                        ? dueDay : done.toLocalDate().plusDays(1);
+                LocalDate earliest = dueDay.minusDays(maxCatchUpDays - 1L);
+                if (first.isBefore(earliest)) first = earliest;
+
+                int created = generator.generateForRunDays(first, dueDay);
+                lastRun = ZonedDateTime.now(clock);
+                if (leases.saveState(LEASE, holder, slot.toString())) {
+                    lastCompletedSlot = slot;
+                } else {
+                    System.err.println("Notification lease lost during the run for " + slot + "; it may be repeated");
+                }
+                System.out.println("Notification generation for " + first
+                        + (first.equals(dueDay) ? "" : " .. " + dueDay) + " completed at: " + lastRun
+                        + " (" + created + " created)");
+            } finally {
+                leases.release(LEASE, holder);
             }
-        }, 0, 1, TimeUnit.DAYS);
+        } catch (Exception e) {
+            // the slot is not recorded as done, so the next run covers these days again
+            System.err.println("Error in notification generation: " + e.getMessage());
+        }
     }
 
-    public static void shutdown() {
-        scheduler.shutdown();
+    /** Runs once more after one lease TTL, so a crashed leader's slot is still done today. */
+    private synchronized void retryAfterLease() {
+        if (executor == null || retryPending) return;
+        retryPending = true;
+        executor.schedule(() -> {
+            synchronized (this) { retryPending = false; }
+            run();
+        }, leaseTtl.toMillis() + 1_000, TimeUnit.MILLISECONDS);
+    }
+
+    /** The latest configured run time at or before now (yesterday's last one early in the day). */
+    LocalDateTime currentSlot(LocalDateTime now) {
+        for (int i = times.size() - 1; i >= 0; i--) {
+            if (!times.get(i).isAfter(now.toLocalTime())) return now.toLocalDate().atTime(times.get(i));
+        }
+        return now.toLocalDate().minusDays(1).atTime(times.get(times.size() - 1));
+    }
+
+    private synchronized void scheduleNext() {
+        if (executor == null) return;
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        ZonedDateTime next = nextAfter(now);
+        nextRun = next;
+        long delayMs = Math.max(0, Duration.between(now, next).toMillis());
+        executor.schedule(() -> {
+            try {
+                run();
+            } finally {
+                scheduleNext();
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** First configured wall-clock time strictly after now, today or tomorrow. */
+    ZonedDateTime nextAfter(ZonedDateTime now) {
+        for (LocalTime t : times) {
+            ZonedDateTime candidate = now.with(t);   // resolves DST gaps/overlaps to a valid instant
+            if (candidate.isAfter(now)) return candidate;
+        }
+        return now.toLocalDate().plusDays(1).atTime(times.get(0)).atZone(now.getZone());
+    }
+
+    private static String instanceName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "/" + ProcessHandle.current().pid() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    static List<LocalTime> parseTimes(String spec) {
+        List<LocalTime> out = new ArrayList<>();
+        for (String s : spec.split(",")) {
+            if (!s.isBlank()) out.add(LocalTime.parse(s.trim()));
+        }
+        return out;
     }
-}
\ No newline at end of file
+}
@@ -2,9 +2,10 @@ package org.example.upnext.service;
 
 import org.example.upnext.dao.NotificationDAO;
 import org.example.upnext.model.Notification;
+import org.example.upnext.model.NotificationPage;
 import org.example.upnext.model.Task;
 
-import java.util.ArrayList;
+import java.sql.SQLException;
 import java.util.List;
 
 public class NotificationService {
@@ -32,22 +33,67 @@ public class NotificationService {
         };
     }
 
+    /** One page of the inbox, newest first; pass the returned page's next cursor for the one after. */
+    public NotificationPage getInboxPage(long projectId, long userId, Role role,
+                                         NotificationPage.Cursor after, int pageSize) {
+        int limit = Math.max(1, pageSize) + 1;   // one extra row tells whether another page exists
+        List<Notification> rows = switch (role) {
+            case ADMIN   -> dao.findForProjectAsAdmin(projectId, after, limit);
+            case MANAGER, MEMBER -> dao.findUserInbox(projectId, userId, after, limit);
+        };
+        return page(rows, limit - 1);
+    }
+
+    public NotificationPage getAssignedByMePage(long projectId, long userId, Role role,
+                                                NotificationPage.Cursor after, int pageSize) {
+        int limit = Math.max(1, pageSize) + 1;
+        List<Notification> rows = switch (role) {
+            case ADMIN, MANAGER -> dao.findAssignedByMe(projectId, userId, after, limit);
+            default -> List.of();
+        };
+        return page(rows, limit - 1);
+    }
+
+    private static NotificationPage page(List<Notification> rows, int pageSize) {
+        if (rows.size() <= pageSize) return new NotificationPage(rows, null);
+        List<Notification> items = rows.subList(0, pageSize);
+        return new NotificationPage(items, NotificationPage.Cursor.after(items.get(pageSize - 1)));
+    }
+
+    // ===== read state / badge =====
+    public void markRead(long notificationId, long userId) throws SQLException {
+        dao.markRead(notificationId, userId);
+    }
+
+    public int markAllRead(long projectId, long userId) throws SQLException {
+        return dao.markAllRead(projectId, userId);
+    }
+
+    public int countUnread(long projectId, long userId) throws SQLException {
+        return dao.countUnread(projectId, userId);
+    }
+
+    /**
+     * Starting point for a badge: the newest NOTIF_ID, then the unread count. A poller then only
+     * needs {@link #newerThan} from that id. (NOTIF_ID comes from a sequence, so it only grows.)
+     */
+    public UnreadBadge unreadBadge(long projectId, long userId) throws SQLException {
+        long lastId = dao.lastNotificationId(projectId, userId);
+        return new UnreadBadge(dao.countUnread(projectId, userId), lastId);
+    }
+
+    public List<Notification> newerThan(long projectId, long userId, long afterId) throws SQLException {
+        return dao.findNewerThan(projectId, userId, afterId);
+    }
+
+    public record UnreadBadge(int unread, long lastId) {}
+
     // ===== overdue =====
     public List<Task> getOverdue(long projectId, long userId, Role role) {
         return switch (role) {
             case ADMIN   -> dao.findOverdueForAdmin(projectId);
             case MEMBER  -> dao.findOverdueForUserInbox(projectId, userId);
-            case MANAGER -> {
-                var inbox  = dao.findOverdueForUserInbox(projectId, userId);
-                var byMe   = dao.findOverdueForAssignedByMe(projectId, userId);
-                // simple dedupe (by taskId)
-                List<Task> out = new ArrayList<>(inbox);
-                for (Task t : byMe) {
-                    boolean exists = out.stream().anyMatch(x -> x.getTaskId().equals(t.getTaskId()));
-                    if (!exists) out.add(t);
-                }
-                yield out;
-            }
+            case MANAGER -> dao.findOverdueForManager(projectId, userId);   // assigned to or created by them
         };
     }
 }
\ No newline at end of file
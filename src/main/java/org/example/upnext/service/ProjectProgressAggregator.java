@@ -0,0 +1,135 @@
+package org.example.upnext.service;
+
+import org.example.upnext.config.Db;
+import org.example.upnext.events.ChangeEvent;
+import org.example.upnext.events.EventBus;
+import org.example.upnext.model.ProgressTotals;
+import org.example.upnext.model.ProgressTotals.Weighting;
+import org.example.upnext.model.Task;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Project progress computed from the tasks and kept in memory, instead of read from
+ * PROJECTS.PROGRESS_PCT (which only some trigger paths keep current). Each project holds
+ * {@link ProgressTotals}, loaded in one grouped query for every project not held yet, and
+ * TaskService adds each task write as the difference of that task's share, so reads are O(1)
+ * in any {@link Weighting}.
+ * <p>
+ * Changes this instance does not make one task at a time drop the project so it is re-read:
+ * table-level task events (another instance via the change source, cascadeProjectStatus) and
+ * subtask status changes that TRG_TASKS_ROLLUP may carry to the parent.
+ */
+public final class ProjectProgressAggregator {
+
+    @FunctionalInterface
+    public interface Loader {
+        Map<Long, ProgressTotals> load(Collection<Long> projectIds) throws SQLException;
+    }
+
+    private static final ProjectProgressAggregator SHARED =
+            new ProjectProgressAggregator(Db.intProperty("schedule.defaultEstimateHours", 8));
+
+    static {
+        SHARED.listen(EventBus.shared());
+    }
+
+    /** The process-wide instance, fed by every TaskService and read by every ProjectService. */
+    public static ProjectProgressAggregator shared() { return SHARED; }
+
+    private final double defaultHours;
+    private final Map<Long, ProgressTotals> totals = new HashMap<>();   // guarded by this
+    private final Map<Long, Long> generations = new HashMap<>();        // guarded by this; bumped on every change
+    private long epoch;                                                 // bumped by invalidate(null); guarded by this
+
+    public ProjectProgressAggregator(double defaultHours) {
+        this.defaultHours = defaultHours;
+    }
+
+    public double defaultHours() { return defaultHours; }
+
+    /** One task's share, to pass to {@link #taskChanged} before and after a write. */
+    public ProgressTotals share(Task t) {
+        return t == null ? ProgressTotals.EMPTY : ProgressTotals.of(t, defaultHours);
+    }
+
+    public double progressPct(long projectId, Weighting w, Loader loader) throws SQLException {
+        return totals(List.of(projectId), loader).get(projectId).progressPct(w);
+    }
+
+    /** Progress of many projects, e.g. a project list; those not held yet are loaded together. */
+    public Map<Long, Double> progressPct(Collection<Long> projectIds, Weighting w, Loader loader) throws SQLException {
+        Map<Long, Double> out = new LinkedHashMap<>();
+        for (Map.Entry<Long, ProgressTotals> e : totals(projectIds, loader).entrySet()) {
+            out.put(e.getKey(), e.getValue().progressPct(w));
+        }
+        return out;
+    }
+
+    /**
+     * Totals of the projects, loading the missing ones in one call. A load that raced with a
+     * change to the same project is returned but not kept, as it may or may not include it.
+     */
+    public Map<Long, ProgressTotals> totals(Collection<Long> projectIds, Loader loader) throws SQLException {
+        Map<Long, ProgressTotals> out = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        Map<Long, Long> seen = new HashMap<>();
+        long ep;
+        synchronized (this) {
+            for (Long id : projectIds) {
+                ProgressTotals t = totals.get(id);
+                out.put(id, t);
+                if (t == null) {
+                    missing.add(id);
+                    seen.put(id, generations.getOrDefault(id, 0L));
+                }
+            }
+            ep = epoch;
+        }
+        if (missing.isEmpty()) return out;
+
+        Map<Long, ProgressTotals> loaded = loader.load(missing);
+        synchronized (this) {
+            for (Long id : missing) {
+                ProgressTotals t = loaded.getOrDefault(id, ProgressTotals.EMPTY);
+                out.put(id, t);
+                if (epoch == ep && generations.getOrDefault(id, 0L).equals(seen.get(id))) totals.put(id, t);
+            }
+        }
+        return out;
+    }
+
+    /** Applies one task write: the project's totals lose the old share and gain the new one. */
+    public synchronized void taskChanged(long projectId, ProgressTotals before, ProgressTotals after) {
+        generations.merge(projectId, 1L, Long::sum);
+        ProgressTotals t = totals.get(projectId);
+        if (t != null) totals.put(projectId, t.minus(before).plus(after));
+    }
+
+    /** Forgets a project (null = all) so its totals are re-read on the next request. */
+    public synchronized void invalidate(Long projectId) {
+        if (projectId == null) {
+            totals.clear();
+            epoch++;
+        } else {
+            totals.remove(projectId);
+            generations.merge(projectId, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Drops projects on task events that name no single task: changes made by other instances
+     * or in bulk. Events for one task come from a TaskService, which has applied them already.
+     */
+    public EventBus.Subscription listen(EventBus bus) {
+        return bus.subscribe(ChangeEvent.Topic.TASK, e -> {
+            if (e.id() == null) invalidate(e.projectId());
+        });
+    }
+}
@@ -1,22 +1,36 @@
 package org.example.upnext.service;
 
+import org.example.upnext.config.Db;
 import org.example.upnext.dao.ProjectDAO;
 import org.example.upnext.dao.TaskDAO;
+import org.example.upnext.dao.TaskGraphCache;
 import org.example.upnext.dao.ProjectMemberDAO;
 import org.example.upnext.dao.impl.ProjectMemberDAOImpl;
+import org.example.upnext.events.ChangeEvent;
+import org.example.upnext.events.EventBus;
+import org.example.upnext.model.ProgressTotals;
+import org.example.upnext.model.ProgressTotals.Weighting;
 import org.example.upnext.model.Project;
+import org.example.upnext.model.ProjectSnapshot;
 import org.example.upnext.model.Task;
 import org.example.upnext.model.User;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class ProjectService {
     private final ProjectDAO projectDAO;
     private final TaskDAO taskDAO;
     private final ProjectMemberDAO pmDAO = new ProjectMemberDAOImpl();
+    private final ProjectProgressAggregator progress = ProjectProgressAggregator.shared();
+    private ProjectStatusSweep sweep;   // created on first updateAllProjectStatuses; remembers what it saw
+
+    private static final Weighting PROGRESS_WEIGHTING =
+            Db.enumProperty("progress.weighting", Weighting.class, Weighting.UNWEIGHTED);
 
     public ProjectService(ProjectDAO projectDAO, TaskDAO taskDAO) {
         this.projectDAO = projectDAO;
@@ -38,6 +52,7 @@ public class ProjectService {
             pmDAO.addMember(projectId, project.getOwnerId(), "MANAGER");
         }
 
+        publish(projectId);
         return projectId;
     }
 
@@ -48,10 +63,13 @@ public class ProjectService {
 
         // Update all tasks based on new project status
         updateTasksBasedOnProjectStatus(project.getProjectId(), project.getStatus());
+        publish(project.getProjectId());
     }
 
     public void delete(long projectId) throws SQLException {
         projectDAO.delete(projectId);
+        TaskGraphCache.shared().invalidateProject(projectId);
+        publish(projectId);
     }
 
     // ==============================================================================
@@ -153,17 +171,32 @@ public class ProjectService {
 
         if (!newStatus.equals(currentStatus)) {
             project.setStatus(newStatus);
-            projectDAO.updateStatus(projectId, newStatus);
-            updateTasksBasedOnProjectStatus(projectId, newStatus);
+            applyStatus(projectId, newStatus);
         }
     }
 
+    /** Stores a new project status and cascades it to the project's tasks. */
+    void applyStatus(long projectId, String newStatus) throws SQLException {
+        projectDAO.updateStatus(projectId, newStatus);
+        updateTasksBasedOnProjectStatus(projectId, newStatus);
+        publish(projectId);
+    }
+
     /**
      * Calculates what the project status should be automatically
      */
     private String calculateAutoStatus(Project project) throws SQLException {
-        LocalDate today = LocalDate.now();
-        String currentStatus = project.getStatus();
+        List<Task> tasks = taskDAO.findByProject(project.getProjectId());
+        int done = (int) tasks.stream().filter(t -> "DONE".equals(t.getStatus())).count();
+        return calculateAutoStatus(project.getStatus(), project.getStartDate(), tasks.size(), done, LocalDate.now());
+    }
+
+    /**
+     * The automatic status rules over the few facts they depend on, so a sweep can apply them
+     * to aggregated rows without loading each project's tasks.
+     */
+    static String calculateAutoStatus(String currentStatus, LocalDate startDate,
+                                      int taskCount, int doneCount, LocalDate today) {
 
         // Don't auto-change manual statuses (ON_HOLD, CANCELLED)
         if ("ON_HOLD".equals(currentStatus) || "CANCELLED".equals(currentStatus)) {
@@ -176,17 +209,13 @@ public class ProjectService {
         }
 
         // Check if all tasks are completed (auto-complete project)
-        List<Task> tasks = taskDAO.findByProject(project.getProjectId());
-        if (!tasks.isEmpty()) {
-            boolean allCompleted = tasks.stream().allMatch(t -> "DONE".equals(t.getStatus()));
-            if (allCompleted) {
-                return "COMPLETED";
-            }
+        if (taskCount > 0 && doneCount == taskCount) {
+            return "COMPLETED";
         }
 
         // Auto-transition from PLANNING to ACTIVE based on start date
-        if (project.getStartDate() != null) {
-            if (today.isBefore(project.getStartDate())) {
+        if (startDate != null) {
+            if (today.isBefore(startDate)) {
                 return "PLANNING";
             } else if ("PLANNING".equals(currentStatus)) {
                 return "ACTIVE";
@@ -227,16 +256,14 @@ public class ProjectService {
     }
 
     /**
-     * Updates all tasks in a project based on the project's new status
+     * Updates all tasks in a project based on the project's new status.
+     * Applies determineTaskStatusFromProject to the whole project in a single UPDATE.
      */
     private void updateTasksBasedOnProjectStatus(long projectId, String projectStatus) throws SQLException {
-        List<Task> tasks = taskDAO.findByProject(projectId);
-
-        for (Task task : tasks) {
-            String newTaskStatus = determineTaskStatusFromProject(task.getStatus(), projectStatus, task.getStartDate(), task.getDueDate());
-            if (!newTaskStatus.equals(task.getStatus())) {
-                taskDAO.updateStatus(task.getTaskId(), newTaskStatus);
-            }
+        if (projectStatus == null || "COMPLETED".equals(projectStatus)) return; // tasks keep their status
+        if (taskDAO.cascadeProjectStatus(projectId, projectStatus, LocalDate.now()) > 0) {
+            progress.invalidate(projectId);
+            EventBus.shared().publish(ChangeEvent.task(projectId, null));
         }
     }
 
@@ -294,13 +321,17 @@ public class ProjectService {
     }
 
     /**
-     * Updates all project statuses automatically (call periodically)
+     * Updates all project statuses automatically (call periodically). Projects unchanged since
+     * the previous call on this service are skipped; see {@link ProjectStatusSweep}.
      */
-    public void updateAllProjectStatuses() throws SQLException {
-        List<Project> allProjects = projectDAO.findAll();
-        for (Project project : allProjects) {
-            updateProjectStatusAutomatically(project.getProjectId());
-        }
+    public ProjectStatusSweep.Report updateAllProjectStatuses() throws SQLException {
+        return updateAllProjectStatuses(null);
+    }
+
+    public synchronized ProjectStatusSweep.Report updateAllProjectStatuses(ProjectStatusSweep.Progress progress)
+            throws SQLException {
+        if (sweep == null) sweep = new ProjectStatusSweep(this, projectDAO);
+        return sweep.run(progress);
     }
 
     // ==============================================================================
@@ -318,6 +349,7 @@ public class ProjectService {
         pmDAO.addMember(projectId, managerId, "MANAGER");
         // Also update the direct assignment field
         projectDAO.assignManager(projectId, managerId);
+        publish(projectId);
     }
 
     public void addMember(long projectId, long userId) throws SQLException {
@@ -336,9 +368,38 @@ public class ProjectService {
         return pmDAO.listMembers(projectId);
     }
 
+    /** Tasks, members, status counts, progress and the user's role for a project, in one round trip. */
+    public Optional<ProjectSnapshot> snapshot(long projectId, long userId) throws SQLException {
+        return projectDAO.snapshot(projectId, userId);
+    }
+
+    /** Progress of the project from its tasks, in the configured weighting (progress.weighting). */
     public double calculateOverallProgress(long projectId) throws SQLException {
-        // Delegate the call to the DAO, which fetches the value calculated by the DB trigger/function
-        return projectDAO.getProjectProgress(projectId);
+        return calculateOverallProgress(projectId, PROGRESS_WEIGHTING);
+    }
+
+    /**
+     * Progress of the project from its tasks, kept current by TaskService writes (see
+     * ProjectProgressAggregator); PROJECTS.PROGRESS_PCT is no longer read.
+     */
+    public double calculateOverallProgress(long projectId, Weighting weighting) throws SQLException {
+        return progress.progressPct(projectId, weighting, this::loadProgressTotals);
+    }
+
+    /** Progress from tasks already loaded (e.g. a ProjectSnapshot's), without a query. */
+    public double calculateOverallProgress(Collection<Task> tasks) {
+        ProgressTotals t = ProgressTotals.EMPTY;
+        for (Task task : tasks) t = t.plus(progress.share(task));
+        return t.progressPct(PROGRESS_WEIGHTING);
+    }
+
+    /** Progress of many projects at once (a project list): O(1) each once held, one query for the rest. */
+    public Map<Long, Double> overallProgress(Collection<Long> projectIds) throws SQLException {
+        return progress.progressPct(projectIds, PROGRESS_WEIGHTING, this::loadProgressTotals);
+    }
+
+    private Map<Long, ProgressTotals> loadProgressTotals(Collection<Long> projectIds) throws SQLException {
+        return projectDAO.findProgressTotals(projectIds, progress.defaultHours());
     }
 
     private static String roleOf(User u) {
@@ -358,6 +419,8 @@ public class ProjectService {
             throw new SecurityException("You are not allowed to delete this project.");
         }
         projectDAO.delete(projectId);
+        TaskGraphCache.shared().invalidateProject(projectId);
+        publish(projectId);
     }
 
     public boolean isManagerOfProject(long projectId, long userId) throws SQLException {
@@ -376,6 +439,11 @@ public class ProjectService {
         return pmDAO.hasRole(projectId, userId, "MANAGER");
     }
 
+    /** Tells subscribers (open dashboards) that a project row changed; the sweep goes through applyStatus. */
+    private static void publish(long projectId) {
+        EventBus.shared().publish(ChangeEvent.project(projectId));
+    }
+
     // ==============================================================================
     // Deprecated methods for backward compatibility
     // ==============================================================================
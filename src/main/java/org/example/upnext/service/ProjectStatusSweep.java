@@ -0,0 +1,148 @@
+package org.example.upnext.service;
+
+import org.example.upnext.auth.AuthContext;
+import org.example.upnext.config.Db;
+import org.example.upnext.dao.ProjectDAO;
+import org.example.upnext.model.ProjectActivity;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The periodic "update all project statuses" pass. One query reads every project together with
+ * its task counts and latest task change ({@link ProjectDAO#findActivity}); the automatic status
+ * rules are evaluated on those rows in memory, and only projects whose status must change are
+ * written, on a bounded pool of threads. A project whose row is identical to the previous run's
+ * (same day) is skipped outright. A failure is recorded for that project and the rest carry on.
+ */
+public class ProjectStatusSweep {
+    private static final int THREADS = Math.max(1, Db.intProperty("project.sweep.threads", 4));
+    private static final AtomicInteger THREAD_NO = new AtomicInteger();
+
+    /** Called from the sweeping threads after each project is dealt with. */
+    @FunctionalInterface
+    public interface Progress {
+        void update(int done, int total);
+    }
+
+    /**
+     * Outcome of one run. changed = status written, unchanged = evaluated with no change,
+     * skipped = identical to the previous run; failures maps PROJECT_ID to the error message.
+     */
+    public record Report(int total, int changed, int unchanged, int skipped, Map<Long, String> failures,
+                         Duration elapsed) {
+        public int failed() { return failures.size(); }
+
+        @Override public String toString() {
+            return String.format("%d projects in %d ms: %d changed, %d unchanged, %d skipped, %d failed",
+                    total, elapsed.toMillis(), changed, unchanged, skipped, failed());
+        }
+    }
+
+    private final ProjectService projectService;
+    private final ProjectDAO projectDAO;
+    private final Map<Long, ProjectActivity> lastSeen = new ConcurrentHashMap<>();
+    private LocalDate lastRunDay;
+
+    ProjectStatusSweep(ProjectService projectService, ProjectDAO projectDAO) {
+        this.projectService = projectService;
+        this.projectDAO = projectDAO;
+    }
+
+    synchronized Report run(Progress progress) throws SQLException {
+        long started = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        boolean sameDay = today.equals(lastRunDay);   // date rules may flip a status overnight
+
+        List<ProjectActivity> rows = projectDAO.findActivity();
+        int total = rows.size();
+        AtomicInteger done = new AtomicInteger();
+        int skipped = 0, unchanged = 0;
+        Map<Long, String> failures = new ConcurrentHashMap<>();
+        Map<Long, ProjectActivity> seen = new HashMap<>(total * 2);
+        List<ProjectActivity> toChange = new ArrayList<>();
+
+        for (ProjectActivity a : rows) {
+            seen.put(a.projectId(), a);
+            if (sameDay && a.equals(lastSeen.get(a.projectId()))) {
+                skipped++;
+            } else if (Objects.equals(newStatus(a, today), a.status())) {
+                unchanged++;
+            } else {
+                toChange.add(a);
+                continue;
+            }
+            report(progress, done.incrementAndGet(), total);
+        }
+        lastSeen.keySet().retainAll(seen.keySet());   // forget deleted projects
+        lastSeen.putAll(seen);
+
+        if (!toChange.isEmpty()) {
+            String username = AuthContext.getUsername();
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(THREADS, toChange.size()), r -> {
+                Thread t = new Thread(r, "status-sweep-" + THREAD_NO.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            try {
+                List<Future<?>> futures = new ArrayList<>(toChange.size());
+                for (ProjectActivity a : toChange) {
+                    futures.add(pool.submit(() -> {
+                        AuthContext.setUsername(username);
+                        try {
+                            projectService.applyStatus(a.projectId(), newStatus(a, today));
+                        } catch (Exception e) {
+                            failures.put(a.projectId(), String.valueOf(e.getMessage()));
+                            lastSeen.remove(a.projectId());   // try it again next run
+                        } finally {
+                            AuthContext.clear();
+                            report(progress, done.incrementAndGet(), total);
+                        }
+                    }));
+                }
+                for (Future<?> f : futures) {
+                    try {
+                        f.get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    } catch (Exception ignored) {
+                        // recorded in failures by the task itself
+                    }
+                }
+            } finally {
+                pool.shutdown();
+                try {
+                    pool.awaitTermination(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        lastRunDay = today;
+
+        int changed = toChange.size() - failures.size();
+        return new Report(total, changed, unchanged, skipped, Map.copyOf(failures),
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private static String newStatus(ProjectActivity a, LocalDate today) {
+        return ProjectService.calculateAutoStatus(a.status(), a.startDate(), a.taskCount(), a.doneCount(), today);
+    }
+
+    private static void report(Progress progress, int done, int total) {
+        if (progress != null) progress.update(done, total);
+    }
+}
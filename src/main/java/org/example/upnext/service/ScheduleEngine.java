@@ -0,0 +1,409 @@
+package org.example.upnext.service;
+
+import org.example.upnext.model.Task;
+import org.example.upnext.model.TaskDependency;
+import org.example.upnext.model.TaskGraph;
+import org.example.upnext.model.TaskIdSet;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * Critical-path schedule of one project: a forward pass in topological order gives each task's
+ * earliest start/finish, a backward pass its latest start/finish against the project's finish,
+ * and the difference is the slack; tasks with no slack are critical. Times are working hours
+ * from the start of today, turned into dates at a fixed number of hours per day.
+ * <p>
+ * A task's duration is its remaining work: ESTIMATED_HOURS (or a default when unset) less
+ * PROGRESS_PCT, and 0 once DONE or CANCELLED. A START_DATE in the future holds the task back
+ * until that day. DUE_DATE does not constrain the schedule; tasks forecast to finish after it
+ * are reported as late. Only dependencies between tasks of this project are scheduled.
+ * <p>
+ * Everything is held in primitive arrays indexed by node (tasks in TASK_ID order) with the
+ * edges in compressed rows, so both passes are O(V + E). When a task's estimate, progress,
+ * status or start date changes, {@link #refresh} re-propagates from that task only: downstream
+ * for the earliest times, upstream for the latest ones. Not thread-safe.
+ */
+public final class ScheduleEngine {
+    private static final double EPS = 1e-6;
+
+    private final LocalDate today;
+    private final int hoursPerDay;
+    private final double defaultHours;
+
+    private final int n;
+    private final long[] ids;                // node -> TASK_ID, ascending
+    private final int[] succStart, succ;     // successors of v: succ[succStart[v] .. succStart[v + 1])
+    private final int[] predStart, pred;
+    private final int edges;
+    private final int[] order;               // topological order
+    private final int[] pos;                 // node -> index in order
+
+    private final double[] dur;              // remaining hours
+    private final double[] release;          // earliest allowed start (START_DATE)
+    private final long[] due;                // DUE_DATE as epoch day, Long.MIN_VALUE if none
+    private final double[] es, ef, ls, lf;
+    private final boolean[] dirty;           // scratch for incremental passes, all false between calls
+    private double finish;                   // project finish, max ef
+
+    private ScheduleEngine(TaskGraph g, LocalDate today, int hoursPerDay, double defaultHours) {
+        this.today = today;
+        this.hoursPerDay = hoursPerDay;
+        this.defaultHours = defaultHours;
+
+        ids = sortedIds(g);
+        n = ids.length;
+
+        // edges inside the project, as compressed rows in both directions
+        int[] from = new int[g.dependencies().size()], to = new int[from.length];
+        int m = 0;
+        for (TaskDependency d : g.dependencies()) {
+            int p = node(d.getPredecessorTaskId()), s = node(d.getSuccessorTaskId());
+            if (p < 0 || s < 0) continue;
+            from[m] = p;
+            to[m++] = s;
+        }
+        edges = m;
+        succStart = new int[n + 1];
+        predStart = new int[n + 1];
+        succ = new int[m];
+        pred = new int[m];
+        for (int i = 0; i < m; i++) { succStart[from[i] + 1]++; predStart[to[i] + 1]++; }
+        for (int v = 0; v < n; v++) { succStart[v + 1] += succStart[v]; predStart[v + 1] += predStart[v]; }
+        int[] sFill = Arrays.copyOf(succStart, n), pFill = Arrays.copyOf(predStart, n);
+        for (int i = 0; i < m; i++) {
+            succ[sFill[from[i]]++] = to[i];
+            pred[pFill[to[i]]++] = from[i];
+        }
+
+        order = topologicalOrder();
+        pos = new int[n];
+        for (int i = 0; i < n; i++) pos[order[i]] = i;
+
+        dur = new double[n];
+        release = new double[n];
+        due = new long[n];
+        int k = 0;
+        for (Task t : g.tasks()) load(node(t.getTaskId(), k++), t);
+        es = new double[n];
+        ef = new double[n];
+        ls = new double[n];
+        lf = new double[n];
+        dirty = new boolean[n];
+        forwardPass();
+        backwardPass();
+    }
+
+    /**
+     * Schedules a loaded project. Throws IllegalStateException if the dependencies contain a
+     * cycle (TaskService refuses to add one, so only a hand-edited table gets there).
+     */
+    public static ScheduleEngine of(TaskGraph g, LocalDate today, int hoursPerDay, double defaultHours) {
+        if (hoursPerDay <= 0) throw new IllegalArgumentException("hoursPerDay must be positive");
+        return new ScheduleEngine(g, today, hoursPerDay, defaultHours);
+    }
+
+    /**
+     * Brings the schedule up to date with a newer load of the same project. If the tasks and
+     * edges are unchanged only the tasks whose inputs differ are re-propagated and this engine
+     * is returned; otherwise (tasks or dependencies added or removed, or a new day) a new
+     * engine is built.
+     */
+    public ScheduleEngine refresh(TaskGraph g) {
+        if (!today.equals(LocalDate.now()) || !sameShape(g)) return of(g, LocalDate.now(), hoursPerDay, defaultHours);
+        double[] d = new double[1], r = new double[1];
+        int k = 0;
+        for (Task t : g.tasks()) {
+            int v = node(t.getTaskId(), k++);
+            due[v] = t.getDueDate() == null ? Long.MIN_VALUE : t.getDueDate().toEpochDay();
+            inputs(t, d, r);
+            if (d[0] != dur[v] || r[0] != release[v]) update(v, d[0], r[0]);
+        }
+        return this;
+    }
+
+    public LocalDate today() { return today; }
+
+    public int size() { return n; }
+
+    public boolean contains(long taskId) { return node(taskId) >= 0; }
+
+    /** Day the last task is forecast to finish; today for an empty or finished project. */
+    public LocalDate projectFinish() { return finishDate(finish); }
+
+    /**
+     * Schedule of one task, or null if it is not in the project. Hours are working hours from
+     * the start of today; the dates are the days those hours fall on.
+     */
+    public Slot slot(long taskId) {
+        int v = node(taskId);
+        if (v < 0) return null;
+        double slack = ls[v] - es[v];
+        return new Slot(taskId, es[v], ef[v], ls[v], lf[v], slack, isCritical(v),
+                startDate(es[v]), finishDate(ef[v]), startDate(ls[v]), finishDate(lf[v]), isLate(v));
+    }
+
+    /** Project-level summary: finish date, critical and late tasks, and the critical path. */
+    public Forecast forecast() {
+        return new Forecast(projectFinish(), criticalTasks(), lateTasks(), criticalPath());
+    }
+
+    /** Open tasks with no slack: any delay to one of them delays the project. */
+    public TaskIdSet criticalTasks() {
+        TaskIdSet.Builder b = new TaskIdSet.Builder(n == 0 ? 0 : ids[0]);
+        for (int v = 0; v < n; v++) if (isCritical(v)) b.add(ids[v]);
+        return b.build();
+    }
+
+    /** Open tasks forecast to finish after their DUE_DATE. */
+    public TaskIdSet lateTasks() {
+        TaskIdSet.Builder b = new TaskIdSet.Builder(n == 0 ? 0 : ids[0]);
+        for (int v = 0; v < n; v++) if (isLate(v)) b.add(ids[v]);
+        return b.build();
+    }
+
+    /**
+     * One chain of critical tasks, first to last, ending with the task that finishes last:
+     * walked back through predecessors whose finish sets the next task's start.
+     */
+    public long[] criticalPath() {
+        int last = -1;
+        for (int v = 0; v < n; v++) {
+            if (dur[v] > 0 && Math.abs(ef[v] - finish) <= EPS && (last < 0 || pos[v] > pos[last])) last = v;
+        }
+        if (last < 0) return new long[0];
+        long[] path = new long[n];
+        int k = n;
+        for (int v = last; v >= 0; ) {
+            if (dur[v] > 0) path[--k] = ids[v];
+            int next = -1;
+            for (int i = predStart[v]; i < predStart[v + 1]; i++) {
+                int p = pred[i];
+                if (Math.abs(ef[p] - es[v]) <= EPS && ls[p] - es[p] <= EPS) { next = p; break; }
+            }
+            v = next;
+        }
+        return Arrays.copyOfRange(path, k, n);
+    }
+
+    /** Sets a task's remaining hours and re-propagates from it; returns false if it is unknown. */
+    public boolean setRemainingHours(long taskId, double hours) {
+        int v = node(taskId);
+        if (v < 0) return false;
+        update(v, Math.max(0, hours), release[v]);
+        return true;
+    }
+
+    /** Schedule of one task; see {@link #slot}. Hours are relative to the start of today. */
+    public record Slot(long taskId, double earliestStartHours, double earliestFinishHours,
+                       double latestStartHours, double latestFinishHours, double slackHours,
+                       boolean critical, LocalDate earliestStart, LocalDate earliestFinish,
+                       LocalDate latestStart, LocalDate latestFinish, boolean late) {}
+
+    /** See {@link #forecast}. */
+    public record Forecast(LocalDate projectFinish, TaskIdSet critical, TaskIdSet late, long[] criticalPath) {}
+
+    // ==============================================================================
+    // Passes
+    // ==============================================================================
+
+    /** Kahn's algorithm over the predecessor counts. */
+    private int[] topologicalOrder() {
+        int[] indeg = new int[n];
+        for (int v = 0; v < n; v++) indeg[v] = predStart[v + 1] - predStart[v];
+        int[] out = new int[n];
+        int head = 0, tail = 0;
+        for (int v = 0; v < n; v++) if (indeg[v] == 0) out[tail++] = v;
+        while (head < tail) {
+            int v = out[head++];
+            for (int i = succStart[v]; i < succStart[v + 1]; i++) {
+                if (--indeg[succ[i]] == 0) out[tail++] = succ[i];
+            }
+        }
+        if (tail < n) {
+            for (int v = 0; v < n; v++) {
+                if (indeg[v] > 0) throw new IllegalStateException("Task dependencies contain a cycle through task " + ids[v]);
+            }
+        }
+        return out;
+    }
+
+    private void forwardPass() {
+        finish = 0;
+        for (int i = 0; i < n; i++) {
+            int v = order[i];
+            es[v] = earliestStart(v);
+            ef[v] = es[v] + dur[v];
+            finish = Math.max(finish, ef[v]);
+        }
+    }
+
+    private void backwardPass() {
+        for (int i = n - 1; i >= 0; i--) {
+            int v = order[i];
+            lf[v] = latestFinish(v);
+            ls[v] = lf[v] - dur[v];
+        }
+    }
+
+    private double earliestStart(int v) {
+        double t = release[v];
+        for (int i = predStart[v]; i < predStart[v + 1]; i++) t = Math.max(t, ef[pred[i]]);
+        return t;
+    }
+
+    private double latestFinish(int v) {
+        double t = finish;
+        for (int i = succStart[v]; i < succStart[v + 1]; i++) t = Math.min(t, ls[succ[i]]);
+        return t;
+    }
+
+    /**
+     * Applies new inputs to one node. Earliest times can only change downstream, so the forward
+     * pass walks the topological order from the node visiting just the successors marked dirty;
+     * latest times change upstream, walked backwards the same way. If the project finish moves,
+     * every latest time moves with it and the backward pass is redone in full.
+     */
+    private void update(int v, double newDur, double newRelease) {
+        boolean durChanged = newDur != dur[v];
+        dur[v] = newDur;
+        release[v] = newRelease;
+
+        double oldFinish = finish;
+        int pending = 0;
+        double start = earliestStart(v);
+        if (start != es[v] || durChanged) {
+            es[v] = start;
+            ef[v] = start + newDur;
+            pending = markSuccessors(v);
+        }
+        for (int i = pos[v] + 1; pending > 0 && i < n; i++) {
+            int u = order[i];
+            if (!dirty[u]) continue;
+            dirty[u] = false;
+            pending--;
+            double s = earliestStart(u);
+            if (s == es[u]) continue;
+            es[u] = s;
+            ef[u] = s + dur[u];
+            pending += markSuccessors(u);
+        }
+        finish = 0;
+        for (int u = 0; u < n; u++) finish = Math.max(finish, ef[u]);
+
+        if (finish != oldFinish) {
+            backwardPass();
+            return;
+        }
+        if (!durChanged) return;
+        ls[v] = lf[v] - newDur;
+        pending = markPredecessors(v);
+        for (int i = pos[v] - 1; pending > 0 && i >= 0; i--) {
+            int u = order[i];
+            if (!dirty[u]) continue;
+            dirty[u] = false;
+            pending--;
+            double f = latestFinish(u);
+            if (f == lf[u]) continue;
+            lf[u] = f;
+            ls[u] = f - dur[u];
+            pending += markPredecessors(u);
+        }
+    }
+
+    private int markSuccessors(int v) {
+        int marked = 0;
+        for (int i = succStart[v]; i < succStart[v + 1]; i++) {
+            if (!dirty[succ[i]]) { dirty[succ[i]] = true; marked++; }
+        }
+        return marked;
+    }
+
+    private int markPredecessors(int v) {
+        int marked = 0;
+        for (int i = predStart[v]; i < predStart[v + 1]; i++) {
+            if (!dirty[pred[i]]) { dirty[pred[i]] = true; marked++; }
+        }
+        return marked;
+    }
+
+    // ==============================================================================
+    // Inputs and dates
+    // ==============================================================================
+
+    private void load(int v, Task t) {
+        double[] d = new double[1], r = new double[1];
+        inputs(t, d, r);
+        dur[v] = d[0];
+        release[v] = r[0];
+        due[v] = t.getDueDate() == null ? Long.MIN_VALUE : t.getDueDate().toEpochDay();
+    }
+
+    /** Remaining hours and release time of a task, into d[0] and r[0]. */
+    private void inputs(Task t, double[] d, double[] r) {
+        String status = t.getStatus();
+        if ("DONE".equals(status) || "CANCELLED".equals(status)) {
+            d[0] = 0;
+        } else {
+            double est = t.getEstimatedHours() != null ? t.getEstimatedHours() : defaultHours;
+            d[0] = Math.max(0, est * (1 - Math.min(100, Math.max(0, t.getProgressPct())) / 100.0));
+        }
+        long daysAhead = t.getStartDate() == null ? 0 : ChronoUnit.DAYS.between(today, t.getStartDate());
+        r[0] = Math.max(0, daysAhead) * (double) hoursPerDay;
+    }
+
+    private boolean sameShape(TaskGraph g) {
+        if (g.size() != n) return false;
+        int k = 0;
+        for (Task t : g.tasks()) if (node(t.getTaskId(), k++) < 0) return false;
+        int m = 0;
+        for (TaskDependency d : g.dependencies()) {
+            int p = node(d.getPredecessorTaskId()), s = node(d.getSuccessorTaskId());
+            if (p < 0 || s < 0) continue;
+            if (!hasEdge(p, s)) return false;
+            m++;
+        }
+        return m == edges;
+    }
+
+    private boolean hasEdge(int p, int s) {
+        for (int i = succStart[p]; i < succStart[p + 1]; i++) if (succ[i] == s) return true;
+        return false;
+    }
+
+    private boolean isCritical(int v) {
+        return dur[v] > 0 && ls[v] - es[v] <= EPS;
+    }
+
+    private boolean isLate(int v) {
+        return dur[v] > 0 && due[v] != Long.MIN_VALUE && finishDate(ef[v]).toEpochDay() > due[v];
+    }
+
+    private LocalDate startDate(double hours) {
+        return today.plusDays((long) Math.floor(hours / hoursPerDay + EPS));
+    }
+
+    /** The day the given hour falls in: 8h of work started this morning finishes today. */
+    private LocalDate finishDate(double hours) {
+        return today.plusDays(Math.max(0, (long) Math.ceil(hours / hoursPerDay - EPS) - 1));
+    }
+
+    private int node(long taskId) {
+        return Arrays.binarySearch(ids, taskId);
+    }
+
+    /** Node of the task at position k of a TaskGraph, which is usually node k (both by TASK_ID). */
+    private int node(long taskId, int k) {
+        return k < n && ids[k] == taskId ? k : node(taskId);
+    }
+
+    /** TaskGraph lists tasks by TASK_ID already; sorting keeps binary search safe for any source. */
+    private static long[] sortedIds(TaskGraph g) {
+        long[] a = new long[g.size()];
+        int k = 0;
+        for (Task t : g.tasks()) a[k++] = t.getTaskId();
+        Arrays.sort(a);
+        return a;
+    }
+}
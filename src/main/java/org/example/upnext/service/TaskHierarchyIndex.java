@@ -0,0 +1,333 @@
+package org.example.upnext.service;
+
+import org.example.upnext.model.Task;
+import org.example.upnext.model.TaskGraph;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rollups of one project's task hierarchy (PARENT_TASK_ID), kept per subtree: number of tasks,
+ * number DONE, and progress weighted by ESTIMATED_HOURS. Progress comes from the leaves, each
+ * weighing its estimate (a default when unset, nothing when CANCELLED) and counting 100% once
+ * DONE, so a parent's figure covers every level below it, not just its direct children.
+ * <p>
+ * Nodes live in primitive arrays with parent / first-child / sibling links; every subtree total
+ * includes the node itself. A change to one task adds the difference to it and each ancestor,
+ * and moving or removing a subtree subtracts its totals along the old path, so updates cost
+ * O(depth) instead of re-reading children level by level. Node 0 is the project itself, parent
+ * of the top-level tasks (and of tasks whose parent is not loaded). Not thread-safe.
+ */
+public final class TaskHierarchyIndex {
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private final double defaultHours;
+    private final LongIntMap index = new LongIntMap();   // TASK_ID -> node, -1 once removed
+    private long[] ids = new long[16];
+    private int[] parent = new int[16], firstChild = new int[16], nextSibling = new int[16], prevSibling = new int[16];
+    private boolean[] live = new boolean[16];
+    // the task's own values
+    private boolean[] done = new boolean[16], cancelled = new boolean[16];
+    private double[] hours = new double[16], pct = new double[16];
+    // totals over the subtree, the node included
+    private int[] count = new int[16], doneCount = new int[16];
+    private double[] weight = new double[16], work = new double[16];   // leaf hours, leaf hours x progress
+    private int n = 1;
+
+    private TaskHierarchyIndex(double defaultHours) {
+        this.defaultHours = defaultHours;
+        parent[ROOT] = NONE;
+        firstChild[ROOT] = NONE;
+        live[ROOT] = true;
+    }
+
+    /**
+     * Indexes a project's tasks (TaskDAO.findByProject) or one subtree (TaskDAO.findSubtree).
+     * Links and totals are set up in one O(n) pass; a parent loop in the data is broken by
+     * hanging its tasks under the project.
+     */
+    public static TaskHierarchyIndex of(List<Task> tasks, double defaultHours) {
+        TaskHierarchyIndex h = new TaskHierarchyIndex(defaultHours);
+        for (Task t : tasks) h.setOwn(h.alloc(t.getTaskId()), t);
+        for (Task t : tasks) {
+            int p = t.getParentTaskId() == null ? ROOT : h.index.get(t.getParentTaskId());
+            h.attach(h.index.get(t.getTaskId()), p < 0 ? ROOT : p);
+        }
+        h.computeTotals();
+        return h;
+    }
+
+    public static TaskHierarchyIndex of(TaskGraph g, double defaultHours) {
+        return of(g.tasks(), defaultHours);
+    }
+
+    /** Number of tasks indexed. */
+    public int size() { return count[ROOT] - 1; }
+
+    public boolean contains(long taskId) { return index.get(taskId) >= 0; }
+
+    /** Totals of the task and everything below it, or null if it is not indexed. */
+    public Rollup rollup(long taskId) {
+        int v = index.get(taskId);
+        return v < 0 ? null : rollupOf(v);
+    }
+
+    /** Totals of every indexed task (the project, or the loaded subtree). */
+    public Rollup total() { return rollupOf(ROOT); }
+
+    /**
+     * Adds the task or applies its new values (status, progress, estimate, parent), updating
+     * the totals of the task and its ancestors. Throws IllegalArgumentException if the new
+     * parent is the task itself or one of its descendants.
+     */
+    public void put(Task t) {
+        int p = parentNode(t);
+        int v = index.get(t.getTaskId());
+        if (v < 0) {
+            v = alloc(t.getTaskId());
+            setOwn(v, t);
+            count[v] = 1;
+            doneCount[v] = done[v] ? 1 : 0;
+            weight[v] = leafHours(v);
+            work[v] = leafWork(v);
+            link(v, p);
+            return;
+        }
+        if (parent[v] != p) {
+            for (int a = p; a != NONE; a = parent[a]) {
+                if (a == v) throw new IllegalArgumentException("Task " + t.getTaskId() + " cannot move under its own subtask " + t.getParentTaskId());
+            }
+            unlink(v);
+            link(v, p);
+        }
+        update(v, t);
+    }
+
+    /** Removes the task and its subtasks (FK_TASKS_PARENT cascades the same way in the table). */
+    public void remove(long taskId) {
+        int v = index.get(taskId);
+        if (v < 0) return;
+        unlink(v);
+        int[] stack = new int[count[v]];
+        int top = 0;
+        stack[top++] = v;
+        while (top > 0) {
+            int u = stack[--top];
+            live[u] = false;
+            index.put(ids[u], -1);
+            for (int c = firstChild[u]; c != NONE; c = nextSibling[c]) stack[top++] = c;
+        }
+    }
+
+    /**
+     * Brings the index up to date with a newer load of the project: new tasks are added, changed
+     * ones re-applied and missing ones removed, each at O(depth); unchanged tasks cost a compare.
+     */
+    public void sync(TaskGraph g) {
+        for (Task t : g.tasks()) syncTask(g, t);
+        for (int v = 1; v < n; v++) {
+            if (live[v] && !g.contains(ids[v])) remove(ids[v]);
+        }
+    }
+
+    private void syncTask(TaskGraph g, Task t) {
+        int v = index.get(t.getTaskId());
+        if (v >= 0 && !changed(v, t)) return;
+        Long parentId = t.getParentTaskId();
+        if (parentId != null && index.get(parentId) < 0 && g.contains(parentId) && !parentId.equals(t.getTaskId())) {
+            syncTask(g, g.task(parentId));   // parent first, so the task is not parked under the project
+        }
+        try {
+            put(t);
+        } catch (IllegalArgumentException loop) {   // parent loop in the data: keep it under the project
+            int w = index.get(t.getTaskId());
+            if (parent[w] != ROOT) {
+                unlink(w);
+                link(w, ROOT);
+            }
+            update(w, t);
+        }
+    }
+
+    /** Totals of one node; see {@link #rollup}. */
+    public record Rollup(int tasks, int doneTasks, double progressPct, double estimatedHours) {}
+
+    // ==============================================================================
+    // Totals
+    // ==============================================================================
+
+    private Rollup rollupOf(int v) {
+        int tasks = v == ROOT ? count[v] - 1 : count[v];
+        double progress = weight[v] > 0 ? work[v] / weight[v] : (tasks > 0 && doneCount[v] == tasks ? 100 : 0);
+        return new Rollup(tasks, doneCount[v], progress, weight[v]);
+    }
+
+    /** Applies a task's new own values to its totals and its ancestors'. */
+    private void update(int v, Task t) {
+        double oldHours = leafHours(v), oldWork = leafWork(v);
+        int oldDone = done[v] ? 1 : 0;
+        setOwn(v, t);
+        addUp(v, 0, (done[v] ? 1 : 0) - oldDone, leafHours(v) - oldHours, leafWork(v) - oldWork);
+    }
+
+    /** Adds a difference to a node and all its ancestors. */
+    private void addUp(int v, int dCount, int dDone, double dWeight, double dWork) {
+        if (dCount == 0 && dDone == 0 && dWeight == 0 && dWork == 0) return;
+        for (int u = v; u != NONE; u = parent[u]) {
+            count[u] += dCount;
+            doneCount[u] += dDone;
+            weight[u] += dWeight;
+            work[u] += dWork;
+        }
+    }
+
+    private double leafHours(int v) {
+        return v == ROOT || firstChild[v] != NONE || cancelled[v] ? 0 : hours[v];
+    }
+
+    private double leafWork(int v) {
+        return leafHours(v) * (done[v] ? 100 : pct[v]);
+    }
+
+    /**
+     * Totals bottom-up after a bulk build: depth-first from the project, then each node into its
+     * parent in reverse order. Tasks not reached are in a parent loop and are moved to the top.
+     */
+    private void computeTotals() {
+        int[] order = new int[n];
+        int k = preorder(ROOT, order, 0);
+        if (k < n) {
+            boolean[] seen = new boolean[n];
+            for (int i = 0; i < k; i++) seen[order[i]] = true;
+            for (int v = 1; v < n; v++) {
+                if (seen[v]) continue;
+                detach(v);
+                attach(v, ROOT);
+                int from = k;
+                k = preorder(v, order, k);
+                for (int i = from; i < k; i++) seen[order[i]] = true;
+            }
+        }
+        for (int i = k - 1; i >= 0; i--) {
+            int v = order[i];
+            count[v] += 1;
+            doneCount[v] += done[v] ? 1 : 0;
+            weight[v] += leafHours(v);
+            work[v] += leafWork(v);
+            int p = parent[v];
+            if (p != NONE) {
+                count[p] += count[v];
+                doneCount[p] += doneCount[v];
+                weight[p] += weight[v];
+                work[p] += work[v];
+            }
+        }
+    }
+
+    private int preorder(int from, int[] out, int k) {
+        int[] stack = new int[n];
+        int top = 0;
+        stack[top++] = from;
+        while (top > 0) {
+            int v = stack[--top];
+            out[k++] = v;
+            for (int c = firstChild[v]; c != NONE; c = nextSibling[c]) stack[top++] = c;
+        }
+        return k;
+    }
+
+    // ==============================================================================
+    // Structure
+    // ==============================================================================
+
+    /** Hangs a node and its subtree under p, moving p's own leaf share out if p stops being a leaf. */
+    private void link(int v, int p) {
+        if (firstChild[p] == NONE) addUp(p, 0, 0, -leafHours(p), -leafWork(p));
+        attach(v, p);
+        addUp(p, count[v], doneCount[v], weight[v], work[v]);
+    }
+
+    /** Takes a node and its subtree off its parent, which gets its leaf share back if now childless. */
+    private void unlink(int v) {
+        int p = parent[v];
+        addUp(p, -count[v], -doneCount[v], -weight[v], -work[v]);
+        detach(v);
+        if (firstChild[p] == NONE) addUp(p, 0, 0, leafHours(p), leafWork(p));
+    }
+
+    private void attach(int v, int p) {
+        parent[v] = p;
+        prevSibling[v] = NONE;
+        nextSibling[v] = firstChild[p];
+        if (firstChild[p] != NONE) prevSibling[firstChild[p]] = v;
+        firstChild[p] = v;
+    }
+
+    private void detach(int v) {
+        int p = parent[v];
+        if (prevSibling[v] != NONE) nextSibling[prevSibling[v]] = nextSibling[v];
+        else if (p != NONE && firstChild[p] == v) firstChild[p] = nextSibling[v];
+        if (nextSibling[v] != NONE) prevSibling[nextSibling[v]] = prevSibling[v];
+        parent[v] = NONE;
+        prevSibling[v] = nextSibling[v] = NONE;
+    }
+
+    /** Node of the task's parent; the project when it has none or the parent is not indexed. */
+    private int parentNode(Task t) {
+        Long parentId = t.getParentTaskId();
+        int p = parentId == null ? ROOT : index.get(parentId);
+        return p < 0 ? ROOT : p;
+    }
+
+    private boolean changed(int v, Task t) {
+        return parent[v] != parentNode(t)
+                || done[v] != "DONE".equals(t.getStatus()) || cancelled[v] != "CANCELLED".equals(t.getStatus())
+                || hours[v] != hoursOf(t) || pct[v] != pctOf(t);
+    }
+
+    private void setOwn(int v, Task t) {
+        done[v] = "DONE".equals(t.getStatus());
+        cancelled[v] = "CANCELLED".equals(t.getStatus());
+        hours[v] = hoursOf(t);
+        pct[v] = pctOf(t);
+    }
+
+    private double hoursOf(Task t) {
+        return t.getEstimatedHours() != null ? Math.max(0, t.getEstimatedHours()) : defaultHours;
+    }
+
+    private static double pctOf(Task t) {
+        return Math.min(100, Math.max(0, t.getProgressPct()));
+    }
+
+    private int alloc(long taskId) {
+        if (n == ids.length) grow();
+        int v = n++;
+        ids[v] = taskId;
+        parent[v] = prevSibling[v] = nextSibling[v] = firstChild[v] = NONE;
+        live[v] = true;
+        count[v] = doneCount[v] = 0;
+        weight[v] = work[v] = 0;
+        index.put(taskId, v);
+        return v;
+    }
+
+    private void grow() {
+        int cap = ids.length * 2;
+        ids = Arrays.copyOf(ids, cap);
+        parent = Arrays.copyOf(parent, cap);
+        firstChild = Arrays.copyOf(firstChild, cap);
+        nextSibling = Arrays.copyOf(nextSibling, cap);
+        prevSibling = Arrays.copyOf(prevSibling, cap);
+        live = Arrays.copyOf(live, cap);
+        done = Arrays.copyOf(done, cap);
+        cancelled = Arrays.copyOf(cancelled, cap);
+        hours = Arrays.copyOf(hours, cap);
+        pct = Arrays.copyOf(pct, cap);
+        count = Arrays.copyOf(count, cap);
+        doneCount = Arrays.copyOf(doneCount, cap);
+        weight = Arrays.copyOf(weight, cap);
+        work = Arrays.copyOf(work, cap);
+    }
+}
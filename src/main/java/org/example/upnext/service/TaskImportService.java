@@ -0,0 +1,353 @@
+package org.example.upnext.service;
+
+import org.example.upnext.config.Db;
+import org.example.upnext.dao.TaskDAO;
+import org.example.upnext.model.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams tasks from CSV or JSON Lines into a project through {@link TaskDAO#createAll}.
+ * Rows are read one at a time and flushed in chunks, so only the current chunk and a
+ * key -> id map are kept in memory.
+ *
+ * Recognised fields (CSV header names / JSON keys, case-insensitive):
+ * key, parent_key, title, description, assignee_id, status, priority,
+ * start_date, due_date (yyyy-MM-dd), progress_pct, estimated_hours, actual_hours.
+ * A parent must appear before its children in the file; "title" is required.
+ * <p>
+ * Each chunk is one createAll call: a failure leaves the earlier chunks in place, plus whatever
+ * of the failing chunk createAll had committed (nothing when task.batch.commitInterval is 0).
+ * The import then throws an {@link ImportException} saying how many tasks, and which keys,
+ * were created.
+ */
+public class TaskImportService {
+    private final TaskDAO taskDAO;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int commitInterval;
+
+    /** Uses task.import.chunkSize, task.batch.size and task.batch.commitInterval. */
+    public TaskImportService(TaskDAO taskDAO) {
+        this(taskDAO,
+                Db.intProperty("task.import.chunkSize", 5000),
+                Db.intProperty("task.batch.size", 500),
+                Db.intProperty("task.batch.commitInterval", 0));
+    }
+
+    public TaskImportService(TaskDAO taskDAO, int chunkSize, int batchSize, int commitInterval) {
+        this.taskDAO = taskDAO;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.commitInterval = commitInterval;
+    }
+
+    /**
+     * An import that stopped part way. The tasks created before the failure stay in the project:
+     * {@link #imported} of them, with the keyed ones in {@link #keys}.
+     */
+    public static final class ImportException extends SQLException {
+        private final int imported;
+        private final Map<String, Long> keys;
+
+        ImportException(Exception cause, int line, int imported, Map<String, Long> keys) {
+            super(cause.getMessage() + " (import stopped at line " + line + "; " + imported
+                    + " task(s) were created before that)",
+                    cause instanceof SQLException e ? e.getSQLState() : null,
+                    cause instanceof SQLException e ? e.getErrorCode() : 0, cause);
+            this.imported = imported;
+            this.keys = Collections.unmodifiableMap(keys);
+        }
+
+        /** Tasks created before the failure. */
+        public int imported() { return imported; }
+
+        /** File key -> TASK_ID of the created tasks that had a key. */
+        public Map<String, Long> keys() { return keys; }
+    }
+
+    /** Imports a CSV file with a header row. Returns the number of tasks created. */
+    public int importCsv(long projectId, Reader in) throws IOException, SQLException {
+        BufferedReader r = in instanceof BufferedReader br ? br : new BufferedReader(in);
+        List<String> header = readCsvRecord(r);
+        if (header == null) return 0;
+        for (int i = 0; i < header.size(); i++) header.set(i, header.get(i).trim().toLowerCase(Locale.ROOT));
+
+        Chunker chunker = new Chunker(projectId);
+        List<String> rec;
+        int line = 1;
+        try {
+            while ((rec = readCsvRecord(r)) != null) {
+                line++;
+                if (rec.size() == 1 && rec.get(0).isBlank()) continue;
+                Map<String, String> row = new HashMap<>();
+                for (int i = 0; i < header.size() && i < rec.size(); i++) row.put(header.get(i), rec.get(i));
+                chunker.add(row, line);
+            }
+            return chunker.finish();
+        } catch (IOException | SQLException e) {
+            throw chunker.failed(e, line);
+        }
+    }
+
+    /** Imports JSON Lines: one flat JSON object per line. Returns the number of tasks created. */
+    public int importJsonLines(long projectId, Reader in) throws IOException, SQLException {
+        BufferedReader r = in instanceof BufferedReader br ? br : new BufferedReader(in);
+        Chunker chunker = new Chunker(projectId);
+        String s;
+        int line = 0;
+        try {
+            while ((s = r.readLine()) != null) {
+                line++;
+                if (s.isBlank()) continue;
+                Map<String, String> raw = parseFlatJson(s, line);
+                Map<String, String> row = new HashMap<>();
+                raw.forEach((k, v) -> row.put(k.toLowerCase(Locale.ROOT), v));
+                chunker.add(row, line);
+            }
+            return chunker.finish();
+        } catch (IOException | SQLException e) {
+            throw chunker.failed(e, line);
+        }
+    }
+
+    // ==============================================================================
+    // Chunking + key resolution
+    // ==============================================================================
+
+    private final class Chunker {
+        private final long projectId;
+        private final Map<String, Long> flushed = new HashMap<>();   // file key -> real TASK_ID
+        private final Map<String, Long> inChunk = new HashMap<>();   // file key -> temporary batch key
+        private final List<Task> chunk = new ArrayList<>();
+        private final List<String> chunkKeys = new ArrayList<>();
+        private long nextTempKey = -1;
+        private int imported;
+
+        Chunker(long projectId) { this.projectId = projectId; }
+
+        void add(Map<String, String> row, int line) throws SQLException {
+            String title = blankToNull(row.get("title"));
+            if (title == null) throw new SQLException("Line " + line + ": title is required");
+
+            Task t = new Task(projectId, title);
+            t.setDescription(blankToNull(row.get("description")));
+            t.setAssigneeId(parseLong(row.get("assignee_id"), line));
+            String status = blankToNull(row.get("status"));
+            if (status != null) t.setStatus(status.trim().toUpperCase(Locale.ROOT));
+            String priority = blankToNull(row.get("priority"));
+            if (priority != null) t.setPriority(priority.trim().toUpperCase(Locale.ROOT));
+            t.setStartDate(parseDate(row.get("start_date"), line));
+            t.setDueDate(parseDate(row.get("due_date"), line));
+            Double pct = parseDouble(row.get("progress_pct"), line);
+            t.setProgressPct(pct == null ? 0.0 : pct);
+            t.setEstimatedHours(parseDouble(row.get("estimated_hours"), line));
+            t.setActualHours(parseDouble(row.get("actual_hours"), line));
+
+            String parentKey = blankToNull(row.get("parent_key"));
+            if (parentKey != null) {
+                Long ref = inChunk.containsKey(parentKey) ? inChunk.get(parentKey) : flushed.get(parentKey);
+                if (ref == null) {
+                    throw new SQLException("Line " + line + ": unknown parent_key '" + parentKey
+                            + "' (parents must come before their children)");
+                }
+                t.setParentTaskId(ref);
+            }
+
+            String key = blankToNull(row.get("key"));
+            if (key != null) {
+                if (inChunk.containsKey(key) || flushed.containsKey(key)) {
+                    throw new SQLException("Line " + line + ": duplicate key '" + key + "'");
+                }
+                long temp = nextTempKey--;
+                t.setTaskId(temp);
+                inChunk.put(key, temp);
+            }
+            chunk.add(t);
+            chunkKeys.add(key);
+            if (chunk.size() >= chunkSize) flush();
+        }
+
+        int finish() throws SQLException {
+            flush();
+            return imported;
+        }
+
+        ImportException failed(Exception e, int line) {
+            return new ImportException(e, line, imported, new HashMap<>(flushed));
+        }
+
+        private void flush() throws SQLException {
+            if (chunk.isEmpty()) return;
+            List<Long> ids;
+            try {
+                ids = taskDAO.createAll(chunk, batchSize, commitInterval);
+            } catch (SQLException e) {
+                // with a commitInterval, rows committed before the failure have their real IDs
+                for (int i = 0; i < chunk.size(); i++) {
+                    Long id = chunk.get(i).getTaskId();
+                    if (id == null || id <= 0) continue;
+                    imported++;
+                    if (chunkKeys.get(i) != null) flushed.put(chunkKeys.get(i), id);
+                }
+                throw e;
+            } finally {
+                // committed rows (all, or those before a failed batch) change the project's progress
+                ProjectProgressAggregator.shared().invalidate(projectId);
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                String key = chunkKeys.get(i);
+                if (key != null) flushed.put(key, ids.get(i));
+            }
+            imported += ids.size();
+            chunk.clear();
+            chunkKeys.clear();
+            inChunk.clear();
+        }
+    }
+
+    // ==============================================================================
+    // Parsing helpers
+    // ==============================================================================
+
+    /** Reads one RFC 4180 record (quoted fields may contain commas, quotes and newlines). */
+    private static List<String> readCsvRecord(BufferedReader r) throws IOException {
+        String line = r.readLine();
+        if (line == null) return null;
+        List<String> out = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char ch = line.charAt(i);
+                if (quoted) {
+                    if (ch == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') { field.append('"'); i++; }
+                        else quoted = false;
+                    } else {
+                        field.append(ch);
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                } else if (ch == ',') {
+                    out.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(ch);
+                }
+            }
+            if (!quoted) break;
+            line = r.readLine();
+            if (line == null) throw new IOException("Unterminated quoted CSV field");
+            field.append('\n');
+        }
+        out.add(field.toString());
+        return out;
+    }
+
+    /** Parses a single-level JSON object; nested values are not supported. */
+    private static Map<String, String> parseFlatJson(String s, int line) throws IOException {
+        Map<String, String> out = new HashMap<>();
+        int[] pos = {skipWs(s, 0)};
+        expect(s, pos, '{', line);
+        pos[0] = skipWs(s, pos[0]);
+        if (pos[0] < s.length() && s.charAt(pos[0]) == '}') return out;
+        while (true) {
+            pos[0] = skipWs(s, pos[0]);
+            String key = readJsonString(s, pos, line);
+            pos[0] = skipWs(s, pos[0]);
+            expect(s, pos, ':', line);
+            pos[0] = skipWs(s, pos[0]);
+            if (pos[0] >= s.length()) throw new IOException("Line " + line + ": unexpected end of JSON");
+            char ch = s.charAt(pos[0]);
+            String value;
+            if (ch == '"') {
+                value = readJsonString(s, pos, line);
+            } else {
+                int start = pos[0];
+                while (pos[0] < s.length() && ",} \t".indexOf(s.charAt(pos[0])) < 0) pos[0]++;
+                value = s.substring(start, pos[0]);
+                if (value.equals("null")) value = null;
+                else if (value.startsWith("{") || value.startsWith("["))
+                    throw new IOException("Line " + line + ": nested JSON values are not supported");
+            }
+            out.put(key, value);
+            pos[0] = skipWs(s, pos[0]);
+            if (pos[0] >= s.length()) throw new IOException("Line " + line + ": unexpected end of JSON");
+            char sep = s.charAt(pos[0]++);
+            if (sep == '}') return out;
+            if (sep != ',') throw new IOException("Line " + line + ": expected ',' or '}' in JSON");
+        }
+    }
+
+    private static String readJsonString(String s, int[] pos, int line) throws IOException {
+        expect(s, pos, '"', line);
+        StringBuilder sb = new StringBuilder();
+        while (pos[0] < s.length()) {
+            char ch = s.charAt(pos[0]++);
+            if (ch == '"') return sb.toString();
+            if (ch != '\\') { sb.append(ch); continue; }
+            if (pos[0] >= s.length()) break;
+            char esc = s.charAt(pos[0]++);
+            switch (esc) {
+                case 'n' -> sb.append('\n');
+                case 't' -> sb.append('\t');
+                case 'r' -> sb.append('\r');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (pos[0] + 4 > s.length()) throw new IOException("Line " + line + ": bad \\u escape");
+                    sb.append((char) Integer.parseInt(s.substring(pos[0], pos[0] + 4), 16));
+                    pos[0] += 4;
+                }
+                default -> sb.append(esc); // \" \\ \/
+            }
+        }
+        throw new IOException("Line " + line + ": unterminated JSON string");
+    }
+
+    private static void expect(String s, int[] pos, char ch, int line) throws IOException {
+        if (pos[0] >= s.length() || s.charAt(pos[0]) != ch) {
+            throw new IOException("Line " + line + ": expected '" + ch + "' at column " + (pos[0] + 1));
+        }
+        pos[0]++;
+    }
+
+    private static int skipWs(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        return i;
+    }
+
+    private static String blankToNull(String s) { return s == null || s.isBlank() ? null : s; }
+
+    private static Long parseLong(String s, int line) throws SQLException {
+        s = blankToNull(s);
+        if (s == null) return null;
+        try { return Long.parseLong(s.trim()); }
+        catch (NumberFormatException e) { throw new SQLException("Line " + line + ": not a number: " + s); }
+    }
+
+    private static Double parseDouble(String s, int line) throws SQLException {
+        s = blankToNull(s);
+        if (s == null) return null;
+        try { return Double.parseDouble(s.trim()); }
+        catch (NumberFormatException e) { throw new SQLException("Line " + line + ": not a number: " + s); }
+    }
+
+    private static LocalDate parseDate(String s, int line) throws SQLException {
+        s = blankToNull(s);
+        if (s == null) return null;
+        try { return LocalDate.parse(s.trim()); }
+        catch (RuntimeException e) { throw new SQLException("Line " + line + ": not a date (yyyy-MM-dd): " + s); }
+    }
+}
@@ -1,18 +1,33 @@
 package org.example.upnext.service;
 
+import org.example.upnext.config.Db;
 import org.example.upnext.dao.ProjectDAO;
 import org.example.upnext.dao.ProjectMemberDAO;
 import org.example.upnext.dao.TaskDAO;
 import org.example.upnext.dao.TaskDependencyDAO;
+import org.example.upnext.dao.TaskGraphCache;
+import org.example.upnext.dao.impl.CachingTaskDAO;
 import org.example.upnext.dao.impl.ProjectDAOImpl;
+import org.example.upnext.events.ChangeEvent;
+import org.example.upnext.events.EventBus;
+import org.example.upnext.model.ProgressTotals;
 import org.example.upnext.model.Project;
 import org.example.upnext.model.Task;
+import org.example.upnext.model.TaskDependency;
+import org.example.upnext.model.TaskGraph;
+import org.example.upnext.model.TaskIdSet;
 import org.example.upnext.model.User;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 public class TaskService {
     private final TaskDAO taskDAO;
@@ -21,6 +36,27 @@ public class TaskService {
     private org.example.upnext.dao.ActivityLogDAO activityLogDAO;
     private final ProjectMemberDAO pmDAO = new org.example.upnext.dao.impl.ProjectMemberDAOImpl();
     private ProjectService projectService; // Enhanced integration
+    private final Map<Long, DepGraphEntry> depGraphs = perProject();     // see dependencyGraph
+    private final Map<Long, ScheduleEntry> schedules = perProject();     // see scheduleEngine
+    private final Map<Long, HierarchyEntry> hierarchies = perProject();  // see hierarchy
+    private final ProjectProgressAggregator progress = ProjectProgressAggregator.shared();
+
+    private static final int HOURS_PER_DAY = Db.intProperty("schedule.hoursPerDay", 8);
+    private static final int DEFAULT_ESTIMATE_HOURS = Db.intProperty("schedule.defaultEstimateHours", 8);
+
+    /**
+     * State derived from one project's TaskGraph, least recently used dropped first. Each entry
+     * holds its source graph, so the bound is TaskGraphCache's: no more projects stay in memory
+     * than the cache itself would keep.
+     */
+    private static <V> Map<Long, V> perProject() {
+        int max = TaskGraphCache.shared().maxProjects();
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                return size() > max;
+            }
+        };
+    }
 
     public TaskService(TaskDAO taskDAO, TaskDependencyDAO depDAO) {
         this.taskDAO = taskDAO;
@@ -149,7 +185,10 @@ public class TaskService {
         task.setPriority("MEDIUM");
         task.setProgressPct(0.0);
 
-        return taskDAO.create(task);
+        long id = taskDAO.create(task);
+        progressChanged(task, ProgressTotals.EMPTY, true);
+        publish(projectId, id);
+        return id;
     }
 
     // Overloaded method for backward compatibility
@@ -219,12 +258,12 @@ public class TaskService {
         sub.setProgressPct(0.0);
 
         long newId = taskDAO.create(sub);
+        progressChanged(sub, ProgressTotals.EMPTY, true);
 
         // If parent was DONE and now has a new child, ensure it's no longer marked DONE
-        if ("DONE".equalsIgnoreCase(parent.getStatus())) {
-            taskDAO.updateStatus(parentTaskId, "IN_PROGRESS");
-        }
+        reopen(parentTaskId);
 
+        publish(parent.getProjectId(), newId);
         return newId;
     }
 
@@ -247,15 +286,32 @@ public class TaskService {
     // ==============================================================================
 
     public long create(Task t) throws SQLException {
-        return taskDAO.create(t);
+        long id = taskDAO.create(t);
+        progressChanged(t, ProgressTotals.EMPTY, true);
+        publish(t.getProjectId(), id);
+        return id;
     }
 
     public void update(Task t) throws SQLException {
+        Task before = taskDAO.findById(t.getTaskId()).orElse(null);
         taskDAO.update(t);
+        if (before == null || !before.getProjectId().equals(t.getProjectId())) {
+            if (before != null) progress.invalidate(before.getProjectId());
+            progress.invalidate(t.getProjectId());
+        } else {
+            progressChanged(t, progress.share(before), !Objects.equals(before.getStatus(), t.getStatus()));
+        }
+        publish(t.getProjectId(), t.getTaskId());
     }
 
     public void delete(long taskId) throws SQLException {
+        Task before = taskDAO.findById(taskId).orElse(null);
+        if (before == null) { taskDAO.delete(taskId); publish(null, taskId); return; }
+        boolean hasSubtasks = !taskDAO.findChildren(taskId).isEmpty();
         taskDAO.delete(taskId);
+        if (hasSubtasks) progress.invalidate(before.getProjectId());   // the subtree went with it
+        else progress.taskChanged(before.getProjectId(), progress.share(before), ProgressTotals.EMPTY);
+        publish(before.getProjectId(), taskId);
     }
 
     public Task get(long id) throws SQLException {
@@ -282,15 +338,171 @@ public class TaskService {
         return taskDAO.findByProject(projectId);
     }
 
+    /** Tasks inserted or updated after the given time, for incremental refreshes. */
+    public List<Task> changedSince(long projectId, OffsetDateTime since) throws SQLException {
+        return taskDAO.findChangedSince(projectId, since);
+    }
+
+    /** Current TASK_IDs of the project; ids missing from it were deleted. */
+    public Set<Long> taskIds(long projectId) throws SQLException {
+        return taskDAO.findIdsByProject(projectId);
+    }
+
     // ==============================================================================
     // Dependencies Management (preserved from original)
     // ==============================================================================
 
+    /**
+     * Read from the database, not the cached graph: this guards writes (start, complete), and the
+     * graph may miss another instance's change for up to cache.taskGraph.maxAgeMs.
+     */
     public boolean dependenciesSatisfied(long taskId) throws SQLException {
         if (depDAO == null) return true;
         return !depDAO.hasUnfinishedPredecessor(taskId);
     }
 
+    /**
+     * Adds "predecessor must be DONE before successor" after checking, over the successor's
+     * project graph, that it would not close a cycle; the message names the cycle. The DAO
+     * checks again in the database, for writers that bypass this. Returns the new DEP_ID.
+     */
+    public long addDependency(long predecessorTaskId, long successorTaskId) throws SQLException {
+        Task successor = get(successorTaskId);
+        long projectId = successor.getProjectId();
+        synchronized (depGraphs) {
+            long[] cycle = dependencyGraph(projectId).cycleIfAdded(predecessorTaskId, successorTaskId);
+            if (cycle != null) {
+                StringBuilder msg = new StringBuilder("This dependency would create a cycle: ");
+                for (int i = 0; i < cycle.length; i++) msg.append(i == 0 ? "" : " -> ").append(cycle[i]);
+                throw new SQLException(msg.toString());
+            }
+        }
+        long depId = depDAO.create(new TaskDependency(predecessorTaskId, successorTaskId));
+        publish(projectId, successorTaskId);
+        return depId;
+    }
+
+    /**
+     * Tasks of the project that cannot finish yet because some task upstream, at any distance,
+     * is unfinished; sorted TASK_IDs. One pass over the cached dependency graph.
+     */
+    public long[] transitivelyBlocked(long projectId) throws SQLException {
+        synchronized (depGraphs) {
+            return dependencyGraph(projectId).blockedSet();
+        }
+    }
+
+    /**
+     * The project's dependency graph. Rebuilt (O(V + E)) only when the cached task graph it
+     * came from has been replaced, i.e. after a write or expiry; otherwise reused.
+     * Callers hold the depGraphs lock while using the result.
+     */
+    DependencyGraph dependencyGraph(long projectId) throws SQLException {
+        return dependencyGraph(projectGraph(projectId));
+    }
+
+    private DependencyGraph dependencyGraph(TaskGraph source) throws SQLException {
+        synchronized (depGraphs) {
+            DepGraphEntry e = depGraphs.get(source.getProjectId());
+            if (e != null && e.source() == source) return e.graph();
+
+            DependencyGraph g = DependencyGraph.of(source);
+            for (long ext : g.externalIds()) {   // predecessors in other projects
+                g.setDone(ext, taskDAO.findById(ext).map(t -> "DONE".equals(t.getStatus())).orElse(true));
+            }
+            depGraphs.put(source.getProjectId(), new DepGraphEntry(source, g));
+            return g;
+        }
+    }
+
+    /** Tasks and dependency edges of the project; the shared cached graph when the DAO caches. */
+    private TaskGraph projectGraph(long projectId) throws SQLException {
+        return taskDAO instanceof CachingTaskDAO c ? c.graph(projectId)
+                : new TaskGraph(projectId, taskDAO.findByProject(projectId), depDAO.findByProject(projectId));
+    }
+
+    private record DepGraphEntry(TaskGraph source, DependencyGraph graph) {}
+
+    // ==============================================================================
+    // Schedule forecast (critical path over the dependency graph)
+    // ==============================================================================
+
+    /** Forecast finish, critical and late tasks and the critical path of the project. */
+    public ScheduleEngine.Forecast forecast(long projectId) throws SQLException {
+        synchronized (schedules) {
+            return scheduleEngine(projectGraph(projectId)).forecast();
+        }
+    }
+
+    /** Earliest/latest start and finish and slack of one task. */
+    public ScheduleEngine.Slot schedule(long taskId) throws SQLException {
+        Long projectId = cachedProjectOf(taskId);
+        if (projectId == null) projectId = get(taskId).getProjectId();
+        synchronized (schedules) {
+            return scheduleEngine(projectGraph(projectId)).slot(taskId);
+        }
+    }
+
+    /**
+     * The project's schedule. When the cached task graph has been replaced the engine is
+     * refreshed from the new one, which after an estimate, progress or status change only
+     * re-propagates the changed tasks; a changed task set or dependency rebuilds it.
+     */
+    private ScheduleEngine scheduleEngine(TaskGraph source) {
+        synchronized (schedules) {
+            ScheduleEntry e = schedules.get(source.getProjectId());
+            if (e != null && e.source() == source && e.engine().today().equals(LocalDate.now())) return e.engine();
+
+            ScheduleEngine engine = e == null
+                    ? ScheduleEngine.of(source, LocalDate.now(), HOURS_PER_DAY, DEFAULT_ESTIMATE_HOURS)
+                    : e.engine().refresh(source);
+            schedules.put(source.getProjectId(), new ScheduleEntry(source, engine));
+            return engine;
+        }
+    }
+
+    private record ScheduleEntry(TaskGraph source, ScheduleEngine engine) {}
+
+    // ==============================================================================
+    // Subtree rollups (task count, done count, estimate-weighted progress at every level)
+    // ==============================================================================
+
+    /**
+     * Totals of the task and all its subtasks. From the project's hierarchy index when the
+     * project is cached; otherwise one CONNECT BY read of just that subtree.
+     */
+    public TaskHierarchyIndex.Rollup rollup(long taskId) throws SQLException {
+        Long projectId = cachedProjectOf(taskId);
+        if (projectId == null) {
+            return TaskHierarchyIndex.of(taskDAO.findSubtree(taskId), DEFAULT_ESTIMATE_HOURS).rollup(taskId);
+        }
+        synchronized (hierarchies) {
+            return hierarchy(projectGraph(projectId)).rollup(taskId);
+        }
+    }
+
+    /**
+     * The project's hierarchy index, synced with the cached task graph when that has been
+     * replaced: only added, removed or changed tasks are applied, each along its ancestor path.
+     */
+    private TaskHierarchyIndex hierarchy(TaskGraph source) {
+        synchronized (hierarchies) {
+            HierarchyEntry e = hierarchies.get(source.getProjectId());
+            if (e != null && e.source() == source) return e.index();
+            TaskHierarchyIndex index;
+            if (e == null) {
+                index = TaskHierarchyIndex.of(source, DEFAULT_ESTIMATE_HOURS);
+            } else {
+                index = e.index();
+                index.sync(source);
+            }
+            hierarchies.put(source.getProjectId(), new HierarchyEntry(source, index));
+            return index;
+        }
+    }
+
+    private record HierarchyEntry(TaskGraph source, TaskHierarchyIndex index) {}
+
     // ==============================================================================
     // Task Status Management (enhanced with project status integration)
     // ==============================================================================
@@ -306,11 +518,18 @@ public class TaskService {
         if (!dependenciesSatisfied(taskId)) {
             throw new SQLException("Task has unfinished dependencies");
         }
+        Task task = get(taskId);
+        ProgressTotals was = progress.share(task);
+        boolean statusChanged = !"DONE".equals(task.getStatus());
         taskDAO.setProgress(taskId, 100.0);
         taskDAO.updateStatus(taskId, "DONE");
+        task.setProgressPct(100.0);
+        task.setStatus("DONE");
+        progressChanged(task, was, statusChanged);
 
         // Auto-update project status if all tasks are complete
-        Task task = get(taskId);
+        publish(task.getProjectId(), taskId);
+        publishUnblocked(task.getProjectId(), taskId);
         if (projectService != null) {
             projectService.updateProjectStatusAutomatically(task.getProjectId());
         }
@@ -321,16 +540,24 @@ public class TaskService {
         if (pct < 0 || pct > 100) {
             throw new SQLException("Progress must be 0..100");
         }
+        Task task = get(taskId);
+        ProgressTotals was = progress.share(task);
+        boolean statusChanged = pct == 100.0 && !"DONE".equals(task.getStatus());
         taskDAO.setProgress(taskId, pct);
+        task.setProgressPct(pct);
         if (pct == 100.0) {
             taskDAO.updateStatus(taskId, "DONE");
-
+            task.setStatus("DONE");
+        }
+        progressChanged(task, was, statusChanged);
+        if (pct == 100.0) {
             // Auto-update project status if all tasks are complete
-            Task task = get(taskId);
+            publishUnblocked(task.getProjectId(), taskId);
             if (projectService != null) {
                 projectService.updateProjectStatusAutomatically(task.getProjectId());
             }
         }
+        publish(task.getProjectId(), taskId);
     }
 
     // ==============================================================================
@@ -357,6 +584,7 @@ public class TaskService {
         }
 
         taskDAO.assignTo(taskId, assigneeId);
+        publish(t.getProjectId(), taskId);
     }
 
     // ==============================================================================
@@ -417,7 +645,7 @@ public class TaskService {
     public void deleteTaskWithAuth(long taskId, User user) throws SQLException {
         if (!canDeleteTask(taskId, user))
             throw new SecurityException("You are not allowed to delete this task.");
-        taskDAO.delete(taskId);
+        delete(taskId);
     }
 
     // ==============================================================================
@@ -435,9 +663,59 @@ public class TaskService {
         createTaskWithProjectStatus(projectId, title, description, assigneeId, actingRole);
     }
 
+    /**
+     * Every task of the project that {@link #canStartTask} would allow, worked out in one pass
+     * over the cached project graph instead of three queries per task. For the UI hint (Start
+     * button, greyed tasks) only; {@link #start} checks the database. No unfinished predecessor
+     * (dependency graph), and no open sibling under the same parent with a higher priority
+     * (the rule of TaskDependencyDAO.getHigherPriorityUnfinishedTasks, via the highest open
+     * priority per parent). A task's own status is not considered.
+     */
+    public TaskIdSet startableTasks(long projectId) throws SQLException {
+        TaskGraph g = projectGraph(projectId);
+        if (g.size() == 0) return TaskIdSet.EMPTY;
+
+        Map<Long, Integer> topOpenRank = new HashMap<>();   // parent TASK_ID -> highest open child priority
+        long minId = Long.MAX_VALUE;
+        for (Task t : g.tasks()) {
+            minId = Math.min(minId, t.getTaskId());
+            if (t.getParentTaskId() != null && isOpen(t)) {
+                topOpenRank.merge(t.getParentTaskId(), priorityRank(t.getPriority()), Math::max);
+            }
+        }
+
+        TaskIdSet.Builder startable = new TaskIdSet.Builder(minId);
+        synchronized (depGraphs) {
+            DependencyGraph deps = dependencyGraph(g);
+            for (Task t : g.tasks()) {
+                if (deps.isBlocked(t.getTaskId())) continue;
+                if (t.getParentTaskId() != null && t.getPriority() != null
+                        && topOpenRank.getOrDefault(t.getParentTaskId(), 0) > priorityRank(t.getPriority())) continue;
+                startable.add(t.getTaskId());
+            }
+        }
+        return startable.build();
+    }
+
+    private static boolean isOpen(Task t) {
+        return t.getStatus() != null && !"DONE".equals(t.getStatus()) && !"CANCELLED".equals(t.getStatus());
+    }
+
+    private static int priorityRank(String priority) {
+        if (priority == null) return 0;
+        return switch (priority) {
+            case "CRITICAL" -> 4;
+            case "HIGH" -> 3;
+            case "MEDIUM" -> 2;
+            case "LOW" -> 1;
+            default -> 0;
+        };
+    }
+
+    /** Checked against the database, as it decides a write; see {@link #startableTasks} for the UI. */
     public boolean canStartTask(long taskId) throws SQLException {
         // First, check regular dependencies using DAO
-        if (depDAO.hasUnfinishedPredecessor(taskId)) {
+        if (!dependenciesSatisfied(taskId)) {
             return false;
         }
 
@@ -457,15 +735,15 @@ public class TaskService {
         return higherPriorityTasks.isEmpty();
     }
 
+    /** The same checks as {@link #canStartTask}, each read once, so the error names the actual cause. */
     public void start(long taskId) throws SQLException {
-        if (!canStartTask(taskId)) {
-            Task task = get(taskId);
-            List<Task> blockingTasks = depDAO.getHigherPriorityUnfinishedTasks(
-                    taskId,
-                    task.getParentTaskId(),
-                    task.getPriority()
-            );
-
+        if (!dependenciesSatisfied(taskId)) {
+            throw new SQLException("This task has unfinished dependencies; complete its predecessors first.");
+        }
+        Task task = get(taskId);
+        List<Task> blockingTasks = task.getParentTaskId() == null ? List.of()
+                : depDAO.getHigherPriorityUnfinishedTasks(taskId, task.getParentTaskId(), task.getPriority());
+        if (!blockingTasks.isEmpty()) {
             StringBuilder errorMessage = new StringBuilder();
             errorMessage.append("You must complete these higher priority tasks first:\n\n");
 
@@ -485,7 +763,61 @@ public class TaskService {
             throw new SQLException(errorMessage.toString());
         }
 
+        ProgressTotals was = progress.share(task);
+        boolean statusChanged = !"IN_PROGRESS".equals(task.getStatus());
         taskDAO.updateStatus(taskId, "IN_PROGRESS");
+        task.setStatus("IN_PROGRESS");
+        progressChanged(task, was, statusChanged);
+        publish(task.getProjectId(), taskId);
+    }
+
+    /** Moves a DONE task back to IN_PROGRESS, e.g. after a subtask was added under it. */
+    public void reopen(long taskId) throws SQLException {
+        Task task = get(taskId);
+        if (!"DONE".equalsIgnoreCase(task.getStatus())) return;
+        ProgressTotals was = progress.share(task);
+        taskDAO.updateStatus(taskId, "IN_PROGRESS");
+        task.setStatus("IN_PROGRESS");
+        progressChanged(task, was, true);
+        publish(task.getProjectId(), taskId);
+    }
+
+    // ==============================================================================
+    // Change events
+    // ==============================================================================
+
+    /**
+     * After a task became DONE: the successors it was the last open predecessor of can start
+     * now. Found from the task's own edges in the project graph, not by re-checking every
+     * dependent task.
+     */
+    private void publishUnblocked(long projectId, long taskId) throws SQLException {
+        long[] unblocked;
+        synchronized (depGraphs) {
+            DepGraphEntry e = depGraphs.get(projectId);
+            if (e == null) return;   // nobody asked about this project's dependencies yet
+            unblocked = e.graph().setDone(taskId, true);
+        }
+        for (long id : unblocked) publish(projectId, id);
     }
 
+    /**
+     * Feeds a task write into the shared project progress totals, O(1). A status change of a
+     * subtask may also flip its parent (TRG_TASKS_ROLLUP), so then the project is re-read instead.
+     */
+    private void progressChanged(Task task, ProgressTotals before, boolean statusChanged) {
+        if (task.getProjectId() == null) return;
+        if (task.getParentTaskId() != null && statusChanged) progress.invalidate(task.getProjectId());
+        else progress.taskChanged(task.getProjectId(), before, progress.share(task));
+    }
+
+    /** Tells subscribers (open dashboards) that a task changed; a null project reaches all of them. */
+    private static void publish(Long projectId, long taskId) {
+        EventBus.shared().publish(ChangeEvent.task(projectId, taskId));
+    }
+
+    /** The task's project if it is cached; read before a write, which drops the task from the cache. */
+    private static Long cachedProjectOf(long taskId) {
+        return TaskGraphCache.shared().projectOf(taskId);
+    }
 }
\ No newline at end of file
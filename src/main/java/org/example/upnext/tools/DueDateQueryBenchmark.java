@@ -0,0 +1,174 @@
+package org.example.upnext.tools;
+
+import org.example.upnext.config.Db;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the old TRUNC(DUE_DATE) forms of the deadline queries with the half-open range forms
+ * now used by TaskDAOImpl / NotificationDAOImpl: prints each plan (look for INDEX RANGE SCAN on
+ * IX_TASKS_STATUS_DUE instead of TABLE ACCESS FULL) and the median time over a few runs.
+ * <pre>
+ *   DueDateQueryBenchmark seed [rows]   adds a benchmark project with rows tasks (default 1,000,000)
+ *   DueDateQueryBenchmark run [reps]    explains and times the queries (default 5 runs each)
+ *   DueDateQueryBenchmark drop          deletes the benchmark project and its tasks
+ * </pre>
+ * Run db/V8 first. Seeding needs an existing user to own the project (the first USER_ID).
+ */
+public class DueDateQueryBenchmark {
+    private static final String PROJECT_NAME = "Due date query benchmark";
+
+    private record Case(String name, String oldSql, String newSql) {}
+
+    public static void main(String[] args) throws Exception {
+        String cmd = args.length > 0 ? args[0] : "run";
+        try (Connection c = Db.openUnpooled()) {
+            switch (cmd) {
+                case "seed" -> seed(c, args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000);
+                case "run" -> run(c, args.length > 1 ? Integer.parseInt(args[1]) : 5);
+                case "drop" -> drop(c);
+                default -> System.err.println("usage: DueDateQueryBenchmark seed [rows] | run [reps] | drop");
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------ cases
+
+    private static List<Case> cases(LocalDate day) {
+        String d = "DATE '" + day + "'";   // literals, so EXPLAIN PLAN sees the same values the run uses
+        String open = "t.STATUS IN ('TODO','IN_PROGRESS','BLOCKED','ON_HOLD')";
+        return List.of(
+                new Case("tasks due on a day (TaskDAO.findTasksDueOn)",
+                        "SELECT t.TASK_ID FROM TASKS t WHERE TRUNC(t.DUE_DATE) = " + d
+                                + " AND t.STATUS NOT IN ('DONE','CANCELLED')",
+                        "SELECT t.TASK_ID FROM TASKS t WHERE " + open
+                                + " AND t.DUE_DATE >= " + d + " AND t.DUE_DATE < " + d + " + 1"),
+                new Case("due-soon window for the notification generator",
+                        "SELECT t.TASK_ID, t.ASSIGNEE_ID FROM TASKS t WHERE TRUNC(t.DUE_DATE) = " + d + " + 3"
+                                + " AND t.ASSIGNEE_ID IS NOT NULL AND t.STATUS NOT IN ('DONE','CANCELLED')",
+                        "SELECT t.TASK_ID, t.ASSIGNEE_ID FROM TASKS t WHERE " + open
+                                + " AND t.DUE_DATE >= " + d + " + 3 AND t.DUE_DATE < " + d + " + 4"
+                                + " AND t.ASSIGNEE_ID IS NOT NULL"),
+                new Case("overdue in the last week",
+                        "SELECT t.TASK_ID FROM TASKS t WHERE TRUNC(t.DUE_DATE) < " + d
+                                + " AND TRUNC(t.DUE_DATE) >= " + d + " - 7 AND t.STATUS NOT IN ('DONE','CANCELLED')",
+                        "SELECT t.TASK_ID FROM TASKS t WHERE " + open
+                                + " AND t.DUE_DATE >= " + d + " - 7 AND t.DUE_DATE < " + d));
+    }
+
+    private static void run(Connection c, int reps) throws SQLException {
+        System.out.println("TASKS rows: " + count(c, "SELECT COUNT(*) FROM TASKS"));
+        for (Case k : cases(LocalDate.now())) {
+            System.out.println();
+            System.out.println("=== " + k.name());
+            report(c, "old", k.oldSql(), reps);
+            report(c, "new", k.newSql(), reps);
+        }
+    }
+
+    private static void report(Connection c, String label, String sql, int reps) throws SQLException {
+        List<String> plan = explain(c, sql);
+        long rows = 0;
+        long[] times = new long[Math.max(1, reps)];
+        for (int i = 0; i < times.length; i++) {
+            long t0 = System.nanoTime();
+            rows = count(c, "SELECT COUNT(*) FROM (" + sql + ")");
+            times[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(times);
+        String access = plan.stream().anyMatch(l -> l.contains("TABLE ACCESS FULL")) ? "FULL SCAN"
+                : plan.stream().anyMatch(l -> l.contains("INDEX RANGE SCAN")) ? "INDEX RANGE SCAN" : "other";
+        System.out.printf("[%s] %s, %d rows, median %.1f ms%n", label, access, rows, times[times.length / 2] / 1e6);
+        for (String line : plan) System.out.println("    " + line);
+    }
+
+    private static List<String> explain(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("DELETE FROM PLAN_TABLE WHERE STATEMENT_ID = 'DUE_BENCH'");
+            st.execute("EXPLAIN PLAN SET STATEMENT_ID = 'DUE_BENCH' FOR " + sql);
+            List<String> out = new ArrayList<>();
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT PLAN_TABLE_OUTPUT FROM TABLE(DBMS_XPLAN.DISPLAY('PLAN_TABLE', 'DUE_BENCH', 'BASIC'))")) {
+                while (rs.next()) out.add(rs.getString(1));
+            }
+            return out;
+        }
+    }
+
+    // ------------------------------------------------------------------ data
+
+    /**
+     * Inserts the tasks in one INSERT ... SELECT (row generator, no round trip per row) with due
+     * dates spread over two years around today and about a third of them DONE or CANCELLED,
+     * then gathers optimizer statistics so the plans reflect the new volume.
+     */
+    private static void seed(Connection c, int rows) throws SQLException {
+        c.setAutoCommit(false);
+        long owner = count(c, "SELECT MIN(USER_ID) FROM USERS");
+        long projectId;
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT INTO PROJECTS (PROJECT_ID, NAME, OWNER_ID) VALUES (PROJECTS_SEQ.NEXTVAL, ?, ?)",
+                new String[]{"PROJECT_ID"})) {
+            ps.setString(1, PROJECT_NAME);
+            ps.setLong(2, owner);
+            ps.executeUpdate();
+            try (ResultSet k = ps.getGeneratedKeys()) {
+                k.next();
+                projectId = k.getLong(1);
+            }
+        }
+        String sql = """
+            INSERT INTO TASKS (TASK_ID, PROJECT_ID, TITLE, ASSIGNEE_ID, STATUS, PRIORITY, DUE_DATE)
+            SELECT TASKS_SEQ.NEXTVAL, ?, 'Benchmark task ' || n,
+                   CASE WHEN MOD(n, 4) = 0 THEN NULL ELSE ? END,
+                   CASE MOD(n, 6) WHEN 0 THEN 'TODO' WHEN 1 THEN 'IN_PROGRESS' WHEN 2 THEN 'BLOCKED'
+                                  WHEN 3 THEN 'ON_HOLD' WHEN 4 THEN 'DONE' ELSE 'CANCELLED' END,
+                   'MEDIUM',
+                   TRUNC(SYSDATE) - 365 + MOD(n * 7919, 730)
+              FROM (SELECT (a.r - 1) * 1000 + b.r AS n
+                      FROM (SELECT LEVEL r FROM DUAL CONNECT BY LEVEL <= 1000) a,
+                           (SELECT LEVEL r FROM DUAL CONNECT BY LEVEL <= 1000) b)
+             WHERE n <= ?
+            """;
+        int inserted = 0;
+        for (int done = 0; done < rows; ) {   // the generator yields 1M rows per statement
+            int batch = Math.min(1_000_000, rows - done);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setLong(1, projectId);
+                ps.setLong(2, owner);
+                ps.setInt(3, batch);
+                inserted += ps.executeUpdate();
+            }
+            c.commit();
+            done += batch;
+        }
+        try (CallableStatement cs = c.prepareCall("BEGIN DBMS_STATS.GATHER_TABLE_STATS(USER, 'TASKS', cascade => TRUE); END;")) {
+            cs.execute();
+        }
+        System.out.println("Seeded " + inserted + " tasks into project " + projectId);
+    }
+
+    private static void drop(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("DELETE FROM PROJECTS WHERE NAME = ?")) {
+            ps.setString(1, PROJECT_NAME);
+            System.out.println("Deleted " + ps.executeUpdate() + " benchmark project(s); their tasks cascade");
+        }
+        if (!c.getAutoCommit()) c.commit();
+    }
+
+    private static long count(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.upnext.tools;
+
+import org.example.upnext.export.ExportFormat;
+import org.example.upnext.export.ProjectExporter;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Exports a project, its tasks and its activity log for reporting (see export.ProjectExporter).
+ * <pre>
+ *   ExportProject &lt;projectId&gt; [csv|json] [dir] [--gzip]
+ * </pre>
+ * Writes project-&lt;id&gt;-project / -tasks / -activity files to dir (default: the current directory).
+ */
+public class ExportProject {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: ExportProject <projectId> [csv|json] [dir] [--gzip]");
+            return;
+        }
+        long projectId = Long.parseLong(args[0]);
+        ExportFormat format = ExportFormat.CSV;
+        Path dir = Path.of(".");
+        boolean gzip = false;
+        for (int i = 1; i < args.length; i++) {
+            String a = args[i];
+            if (a.equals("--gzip")) gzip = true;
+            else if (a.equalsIgnoreCase("csv") || a.equalsIgnoreCase("json")) format = ExportFormat.valueOf(a.toUpperCase(Locale.ROOT));
+            else dir = Path.of(a);
+        }
+
+        long start = System.nanoTime();
+        for (ProjectExporter.Result r : ProjectExporter.fromConfig().export(projectId, format, dir, gzip)) {
+            System.out.printf("%-9s %,12d rows %,15d bytes  %s%n",
+                    r.dataset(), r.rows(), r.bytes(), r.file());
+        }
+        System.out.printf("done in %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+}
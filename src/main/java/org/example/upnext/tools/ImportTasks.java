@@ -0,0 +1,50 @@
+package org.example.upnext.tools;
+
+import org.example.upnext.dao.impl.TaskDAOImpl;
+import org.example.upnext.service.TaskImportService;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Loads tasks from a file into an existing project (see service.TaskImportService for the fields).
+ * <pre>
+ *   ImportTasks &lt;projectId&gt; &lt;file.csv|file.jsonl&gt;
+ * </pre>
+ * Chunk size, batch size and commit interval come from config.properties (task.import.chunkSize,
+ * task.batch.size, task.batch.commitInterval). If the import stops part way, the tasks already
+ * created stay; the error says how many and lists the keyed ones, so the file can be trimmed
+ * and loaded again.
+ */
+public class ImportTasks {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("usage: ImportTasks <projectId> <file.csv|file.jsonl>");
+            return;
+        }
+        long projectId = Long.parseLong(args[0]);
+        Path file = Path.of(args[1]);
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean csv = name.endsWith(".csv");
+        if (!csv && !name.endsWith(".jsonl") && !name.endsWith(".json")) {
+            System.err.println("ImportTasks: " + file + " is neither .csv nor .jsonl");
+            return;
+        }
+
+        TaskImportService importer = new TaskImportService(new TaskDAOImpl());
+        long start = System.nanoTime();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int n = csv ? importer.importCsv(projectId, in) : importer.importJsonLines(projectId, in);
+            System.out.printf("imported %,d tasks into project %d in %.1f s%n",
+                    n, projectId, (System.nanoTime() - start) / 1e9);
+        } catch (TaskImportService.ImportException e) {
+            System.err.println("Import failed: " + e.getMessage());
+            e.keys().forEach((key, id) -> System.err.println("  created " + key + " -> " + id));
+            System.exit(1);
+        }
+    }
+}
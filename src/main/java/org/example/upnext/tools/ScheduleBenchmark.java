@@ -0,0 +1,150 @@
+package org.example.upnext.tools;
+
+import org.example.upnext.model.Task;
+import org.example.upnext.model.TaskDependency;
+import org.example.upnext.model.TaskGraph;
+import org.example.upnext.service.ScheduleEngine;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Times ScheduleEngine on a synthetic project, no database needed: a full build (what every
+ * reload cost before refresh) against refresh() after one task's estimate or status changes,
+ * and checks after each refresh that it agrees with a rebuild of the same graph.
+ * <pre>
+ *   ScheduleBenchmark [tasks] [reps]   default 100,000 tasks, 5 runs of each case
+ * </pre>
+ * The project is a random DAG with up to 3 predecessors per task, picked among the 2,000 tasks
+ * before it, so chains are long and a change near the start reaches much of the graph.
+ */
+public class ScheduleBenchmark {
+    private static final int HOURS_PER_DAY = 8;
+    private static final double DEFAULT_HOURS = 8;
+
+    public static void main(String[] args) {
+        int tasks, reps;
+        try {
+            tasks = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+            reps = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        } catch (NumberFormatException e) {
+            System.err.println("usage: ScheduleBenchmark [tasks] [reps]");
+            return;
+        }
+        Random rnd = new Random(1);
+        LocalDate today = LocalDate.now();
+        List<Task> base = tasks(tasks, rnd);
+        List<TaskDependency> deps = dependencies(tasks, rnd);
+        TaskGraph graph = new TaskGraph(1, base, deps);
+        System.out.printf("%,d tasks, %,d dependencies%n", tasks, deps.size());
+
+        report("full build", reps, () -> ScheduleEngine.of(graph, today, HOURS_PER_DAY, DEFAULT_HOURS));
+
+        ScheduleEngine engine = ScheduleEngine.of(graph, today, HOURS_PER_DAY, DEFAULT_HOURS);
+        refreshes("refresh, one estimate changed", engine, base, deps, reps, rnd,
+                t -> t.setEstimatedHours(1.0 + rnd.nextInt(40)));
+        refreshes("refresh, one task completed", engine, base, deps, reps, rnd,
+                t -> t.setStatus("DONE"));
+    }
+
+    /**
+     * Each run edits one random task in a fresh copy of the task list and times refresh() alone
+     * (building the TaskGraph is the cache's cost, paid either way), then compares with a rebuild.
+     */
+    private static void refreshes(String label, ScheduleEngine engine, List<Task> base, List<TaskDependency> deps,
+                                  int reps, Random rnd, Consumer<Task> edit) {
+        long[] times = new long[Math.max(1, reps)];
+        int mismatches = 0;
+        List<Task> current = base;
+        for (int i = 0; i < times.length; i++) {
+            List<Task> next = new ArrayList<>(current);
+            int k = rnd.nextInt(next.size());
+            Task changed = copy(next.get(k));
+            edit.accept(changed);
+            next.set(k, changed);
+            TaskGraph g = new TaskGraph(1, next, deps);
+
+            long t0 = System.nanoTime();
+            ScheduleEngine refreshed = engine.refresh(g);
+            times[i] = System.nanoTime() - t0;
+            if (refreshed != engine) System.err.println("  refresh rebuilt the engine (new day?)");
+            engine = refreshed;
+            if (!sameSchedule(ScheduleEngine.of(g, engine.today(), HOURS_PER_DAY, DEFAULT_HOURS), engine, next)) mismatches++;
+            current = next;
+        }
+        Arrays.sort(times);
+        System.out.printf("%-32s median %8.2f ms%s%n", label, times[times.length / 2] / 1e6,
+                mismatches == 0 ? "" : "  (" + mismatches + " runs differ from a rebuild!)");
+    }
+
+    private static void report(String label, int reps, Supplier<ScheduleEngine> run) {
+        long[] times = new long[Math.max(1, reps)];
+        for (int i = 0; i < times.length; i++) {
+            long t0 = System.nanoTime();
+            run.get();
+            times[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(times);
+        System.out.printf("%-32s median %8.2f ms%n", label, times[times.length / 2] / 1e6);
+    }
+
+    private static boolean sameSchedule(ScheduleEngine a, ScheduleEngine b, List<Task> tasks) {
+        for (Task t : tasks) {
+            ScheduleEngine.Slot x = a.slot(t.getTaskId()), y = b.slot(t.getTaskId());
+            if (Math.abs(x.earliestStartHours() - y.earliestStartHours()) > 1e-6
+                    || Math.abs(x.earliestFinishHours() - y.earliestFinishHours()) > 1e-6
+                    || Math.abs(x.latestStartHours() - y.latestStartHours()) > 1e-6
+                    || Math.abs(x.latestFinishHours() - y.latestFinishHours()) > 1e-6
+                    || x.critical() != y.critical()) return false;
+        }
+        return true;
+    }
+
+    // ------------------------------------------------------------------ data
+
+    private static List<Task> tasks(int n, Random rnd) {
+        List<Task> out = new ArrayList<>(n);
+        for (int v = 1; v <= n; v++) {
+            Task t = new Task(1L, "Benchmark task " + v);
+            t.setTaskId((long) v);
+            t.setEstimatedHours(rnd.nextInt(5) == 0 ? null : 1.0 + rnd.nextInt(40));
+            if (rnd.nextInt(5) == 0) t.setStatus("DONE");
+            out.add(t);
+        }
+        return out;
+    }
+
+    /** Edges only point to higher TASK_IDs, so the graph is acyclic. */
+    private static List<TaskDependency> dependencies(int n, Random rnd) {
+        List<TaskDependency> out = new ArrayList<>();
+        long[] picked = new long[3];
+        for (int s = 2; s <= n; s++) {
+            int k = 0;
+            for (int j = rnd.nextInt(4); j > 0; j--) {
+                long p = Math.max(1, s - 1 - rnd.nextInt(2_000));
+                boolean dup = false;
+                for (int i = 0; i < k; i++) dup |= picked[i] == p;
+                if (dup) continue;
+                picked[k++] = p;
+                out.add(new TaskDependency(p, (long) s));
+            }
+        }
+        return out;
+    }
+
+    private static Task copy(Task src) {
+        Task t = new Task(src.getProjectId(), src.getTitle());
+        t.setTaskId(src.getTaskId());
+        t.setStatus(src.getStatus());
+        t.setEstimatedHours(src.getEstimatedHours());
+        t.setProgressPct(src.getProgressPct());
+        t.setStartDate(src.getStartDate());
+        t.setDueDate(src.getDueDate());
+        return t;
+    }
+}
@@ -3,6 +3,7 @@ package org.example.upnext.tools;
 import org.example.upnext.dao.impl.*;
 import org.example.upnext.model.*;
 import org.example.upnext.service.AuthService;
+import org.example.upnext.service.TaskService;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
@@ -16,6 +17,7 @@ public class SetupData {
         var projectDAO = new ProjectDAOImpl();
         var taskDAO = new TaskDAOImpl();
         var depDAO = new TaskDependencyDAOImpl();
+        var taskService = new TaskService(taskDAO, depDAO);
 
         // 1) Ensure demo user
         var auth = new AuthService(userDAO);
@@ -39,7 +41,7 @@ public class SetupData {
                 "FXML and controllers", "HIGH", "TODO", 0, LocalDate.now(), LocalDate.now().plusDays(7), demoUserId);
 
         // 4) Add dependency: Build MVP depends on Plan MVP
-        ensureDependency(depDAO, taskPlanId, taskBuildId);
+        ensureDependency(taskService, depDAO, taskPlanId, taskBuildId);
 
         System.out.println("Seed complete.");
         System.out.println("Login with username: admin   password: admin123");
@@ -91,12 +93,12 @@ public class SetupData {
         return taskDAO.create(t);
     }
 
-    private static void ensureDependency(TaskDependencyDAOImpl depDAO, long pred, long succ) throws SQLException {
+    private static void ensureDependency(TaskService taskService, TaskDependencyDAOImpl depDAO,
+                                         long pred, long succ) throws SQLException {
         for (TaskDependency d : depDAO.findForSuccessor(succ)) {
             if (d.getPredecessorTaskId() == pred) return;
         }
-        TaskDependency d = new TaskDependency(pred, succ);
-        depDAO.create(d);
+        taskService.addDependency(pred, succ);   // rejects an edge that would close a cycle
     }
 
     private static java.lang.reflect.Field getField(Object obj, String name) {
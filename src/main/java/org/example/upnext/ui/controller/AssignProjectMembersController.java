@@ -20,7 +20,7 @@ public class AssignProjectMembersController {
     private final UserDAOImpl userDAO = new UserDAOImpl();
     private final ProjectService projectService =
             new ProjectService(new org.example.upnext.dao.impl.ProjectDAOImpl(),
-                    new org.example.upnext.dao.impl.TaskDAOImpl());
+                    new org.example.upnext.dao.impl.CachingTaskDAO());
 
     private Project project;
 
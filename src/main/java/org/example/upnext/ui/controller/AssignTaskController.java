@@ -16,8 +16,8 @@ public class AssignTaskController {
     @FXML private ComboBox<User> memberBox;
 
     private final TaskService taskService =
-            new TaskService(new org.example.upnext.dao.impl.TaskDAOImpl(),
-                    new org.example.upnext.dao.impl.TaskDependencyDAOImpl());
+            new TaskService(new org.example.upnext.dao.impl.CachingTaskDAO(),
+                    new org.example.upnext.dao.impl.CachingTaskDependencyDAO());
 
     private Task task;
     private Long projectId;
@@ -1,7 +1,9 @@
 package org.example.upnext.ui.controller;
 
 import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.scene.layout.HBox;
 import javafx.util.Duration;
 import javafx.event.ActionEvent;
@@ -14,19 +16,32 @@ import javafx.scene.control.TreeItem;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.example.upnext.auth.AuthContext;
+import org.example.upnext.config.Db;
 import org.example.upnext.dao.impl.*;
 import org.example.upnext.dao.impl.ProjectDAOImpl;
+import org.example.upnext.events.ChangeEvent;
+import org.example.upnext.events.EventBus;
 import org.example.upnext.model.Project;
+import org.example.upnext.model.ProjectSnapshot;
 import org.example.upnext.model.Task;
+import org.example.upnext.model.TaskIdSet;
 import org.example.upnext.model.User;
 import org.example.upnext.service.NotificationService;
 import org.example.upnext.service.ProjectService;
+import org.example.upnext.service.ScheduleEngine;
 import org.example.upnext.service.TaskService;
 import org.example.upnext.service.NotificationService.Role;
 import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import org.example.upnext.service.NotificationScheduler;
 
 public class DashboardController {
@@ -39,7 +54,9 @@ public class DashboardController {
     @FXML private Button assignMembersBtn;  // Manager-only
     @FXML private Button assignTaskBtn;     // Manager-only
     @FXML private Button newSubtaskBtn;
+    @FXML private Button startBtn;
     @FXML private Button notificationBtn;
+    @FXML private ProgressIndicator loadingIndicator;
     // Add this method to your DashboardController class
     @FXML
     private void onShowNotifications() {
@@ -74,6 +91,10 @@ public class DashboardController {
             Stage stage = new Stage();
             stage.setTitle("Notifications - " + p.getName());
             stage.setScene(scene);
+            stage.setOnHidden(e -> {
+                ctrl.close();
+                resetBadge(projectTable.getSelectionModel().getSelectedItem()); // may have marked some read
+            });
             stage.show();
         } catch (Exception e) {
             statusLabel.setText("Open notifications failed: " + e.getMessage());
@@ -81,14 +102,36 @@ public class DashboardController {
         }
     }
 
-    private Timeline poller;
+    private Timeline poller;   // asks for notifications newer than lastNotifId, see pollNotifications
+    private static final long NOTIFICATION_POLL_MS = Db.longProperty("ui.notifications.pollMs", 30_000);
+    private final NotificationService notificationService = new NotificationService(new NotificationDAOImpl());
+    private final UiTasks.Latest badgeLoad = new UiTasks.Latest();
+    private final Label unreadBadge = new Label();
+    private long badgeProjectId;   // project the badge counts for; 0 = none
+    private long lastNotifId;      // newest NOTIF_ID already counted
+    private int unreadCount;
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
+    private final PauseTransition taskChangeDebounce = new PauseTransition(Duration.millis(250)); // one refresh per burst
 
     private final ProjectService projectService =
-            new ProjectService(new ProjectDAOImpl(), new TaskDAOImpl());
+            new ProjectService(new ProjectDAOImpl(), new CachingTaskDAO());
     private final TaskService taskService =
-            new TaskService(new TaskDAOImpl(), new TaskDependencyDAOImpl()); // supply dependencyDAO if you use it
+            new TaskService(new CachingTaskDAO(), new CachingTaskDependencyDAO()); // supply dependencyDAO if you use it
 
     private User currentUser;
+    private ProjectSnapshot snapshot;   // last loaded state of the selected project
+    private static final int TREE_PAGE_SIZE = Db.intProperty("ui.tree.pageSize", 200);
+    private static final long REFRESH_OVERLAP_MS = Db.longProperty("ui.tree.refreshOverlapMs", 60_000);
+    private final UiTasks.Latest projectLoad = new UiTasks.Latest();
+    private final UiTasks.Latest projectListLoad = new UiTasks.Latest();
+    private final UiTasks.Latest startableLoad = new UiTasks.Latest();
+    private final UiTasks.Latest forecastLoad = new UiTasks.Latest();
+    private final UiTasks.Latest rollupLoad = new UiTasks.Latest();
+    private TaskIdSet startable;   // tasks of the shown project that may be started; null = not known yet
+    private long[] upstreamBlocked;  // sorted TASK_IDs with an unfinished task anywhere upstream; null = not known yet
+    private ScheduleEngine.Forecast forecast;   // critical path of the shown project; null = not known yet
+    private String forecastError;  // why the shown project has no forecast; null = none
+    private String summaryText;    // last project summary put in the status label
 
     {
         // Inject ActivityLogDAO so TaskService can check creators
@@ -103,6 +146,84 @@ public class DashboardController {
         applyRoleUI();
         loadProjects();
         NotificationScheduler.startScheduler();
+        startNotificationPolling();
+        subscribeToChanges();
+    }
+
+    /**
+     * Reacts to changes published on the {@link EventBus} (this instance's services, or other
+     * instances when a change source is configured): the badge is polled at once, and task changes
+     * to the shown project refresh the tree, coalesced per burst. The timed poll stays as a fallback.
+     */
+    private void subscribeToChanges() {
+        if (!subscriptions.isEmpty()) return;
+        taskChangeDebounce.setOnFinished(e -> {
+            Project p = projectTable.getSelectionModel().getSelectedItem();
+            if (currentUser != null && p != null && shownTree() != null) refreshTasks(p.getProjectId());
+        });
+        EventBus bus = EventBus.shared();
+        subscriptions.add(bus.subscribe(ChangeEvent.Topic.NOTIFICATION,
+                e -> Platform.runLater(this::pollNotifications)));
+        subscriptions.add(bus.subscribe(ChangeEvent.Topic.TASK, e -> Platform.runLater(() -> {
+            Project p = projectTable.getSelectionModel().getSelectedItem();
+            if (currentUser != null && p != null && e.concerns(p.getProjectId())) taskChangeDebounce.playFromStart();
+        })));
+    }
+
+    private void unsubscribeFromChanges() {
+        subscriptions.forEach(EventBus.Subscription::close);
+        subscriptions.clear();
+        taskChangeDebounce.stop();
+    }
+
+    // ==============================================================================
+    // Unread badge on the Notifications button
+    // ==============================================================================
+
+    private void startNotificationPolling() {
+        if (poller != null) return;
+        unreadBadge.setStyle("-fx-background-color: #B22222; -fx-text-fill: white; "
+                + "-fx-background-radius: 8; -fx-padding: 0 5 0 5; -fx-font-size: 10;");
+        poller = new Timeline(new KeyFrame(Duration.millis(NOTIFICATION_POLL_MS), e -> pollNotifications()));
+        poller.setCycleCount(Timeline.INDEFINITE);
+        poller.play();
+    }
+
+    /** Counts the selected project's unread notifications from scratch (selection change, after reading). */
+    private void resetBadge(Project p) {
+        badgeLoad.cancel();
+        badgeProjectId = 0;
+        showBadge(0);
+        if (p == null || currentUser == null) return;
+        long projectId = p.getProjectId(), userId = currentUser.getUserId();
+        badgeLoad.run(() -> notificationService.unreadBadge(projectId, userId), b -> {
+            badgeProjectId = projectId;
+            lastNotifId = b.lastId();
+            showBadge(b.unread());
+        }, e -> System.err.println("Unread count failed: " + e.getMessage()));
+    }
+
+    /** Timeline tick: fetches only rows above the last NOTIF_ID seen and adds the unread ones. */
+    private void pollNotifications() {
+        if (currentUser == null || badgeProjectId == 0) return;
+        long projectId = badgeProjectId, userId = currentUser.getUserId(), after = lastNotifId;
+        badgeLoad.run(() -> notificationService.newerThan(projectId, userId, after), rows -> {
+            if (projectId != badgeProjectId || rows.isEmpty()) return;
+            int added = 0;
+            for (var n : rows) {
+                lastNotifId = Math.max(lastNotifId, n.getNotificationId());
+                if (!n.isRead()) added++;
+            }
+            showBadge(unreadCount + added);
+        }, e -> System.err.println("Notification poll failed: " + e.getMessage()));
+    }
+
+    private void showBadge(int unread) {
+        unreadCount = unread;
+        if (notificationBtn == null) return;
+        unreadBadge.setText(unread > 99 ? "99+" : String.valueOf(unread));
+        notificationBtn.setGraphic(unread > 0 ? unreadBadge : null);
+        notificationBtn.setContentDisplay(ContentDisplay.RIGHT);
     }
 
     @FXML
@@ -124,49 +245,72 @@ public class DashboardController {
             return;
         }
 
-        try {
-            // Validate subtask creation first - will throw detailed exception if blocked
+        // Validate subtask creation first - will throw detailed exception if blocked
+        Callable<ProjectSnapshot> snapshotWork = snapshotWork(p);
+        UiTasks.run(() -> {
             taskService.validateSubtaskCreation(parent.getTaskId());
+            return snapshotWork.call();
+        }, snap -> {
+            snapshot = snap;
+            try {
+                // Check user permissions
+                boolean isAdmin = "ADMIN".equalsIgnoreCase(currentUser.getGlobalRole());
+                boolean isManager = snap != null && snap.isManager();
+                boolean isParentAssignee = parent.getAssigneeId() != null &&
+                        parent.getAssigneeId().equals(currentUser.getUserId());
+
+                if (!isAdmin && !isManager && !isParentAssignee) {
+                    showTaskCreationWarning("Permission Denied",
+                            "You can only create subtasks under tasks assigned to you.\n\n" +
+                                    "Parent Task: " + parent.getTitle() + "\n" +
+                                    "Assigned to: " + (parent.getAssigneeName() != null ? parent.getAssigneeName() : "Unassigned") + "\n" +
+                                    "Your Role: " + currentUser.getGlobalRole());
+                    return;
+                }
 
-            // Check user permissions
-            boolean isAdmin = "ADMIN".equalsIgnoreCase(currentUser.getGlobalRole());
-            boolean isManager = projectService.isManagerOfProject(p.getProjectId(), currentUser.getUserId());
-            boolean isParentAssignee = parent.getAssigneeId() != null &&
-                    parent.getAssigneeId().equals(currentUser.getUserId());
-
-            if (!isAdmin && !isManager && !isParentAssignee) {
-                showTaskCreationWarning("Permission Denied",
-                        "You can only create subtasks under tasks assigned to you.\n\n" +
-                                "Parent Task: " + parent.getTitle() + "\n" +
-                                "Assigned to: " + (parent.getAssigneeName() != null ? parent.getAssigneeName() : "Unassigned") + "\n" +
-                                "Your Role: " + currentUser.getGlobalRole());
-                return;
-            }
-
-            // If validation passes, proceed with subtask creation
-            var members = projectService.projectMembers(p.getProjectId());
+                // If validation passes, proceed with subtask creation
+                var members = snap != null ? snap.getMembers() : List.<User>of();
 
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/SubtaskForm.fxml"));
-            Scene scene = new Scene(loader.load());
-            SubtaskFormController ctrl = loader.getController();
-            ctrl.init(parent, currentUser, members);
+                FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/SubtaskForm.fxml"));
+                Scene scene = new Scene(loader.load());
+                SubtaskFormController ctrl = loader.getController();
+                ctrl.init(parent, currentUser, members);
 
-            Stage dlg = new Stage();
-            dlg.initModality(Modality.APPLICATION_MODAL);
-            dlg.setTitle("New Subtask under: " + parent.getTitle());
-            dlg.setScene(scene);
-            dlg.showAndWait();
+                Stage dlg = new Stage();
+                dlg.initModality(Modality.APPLICATION_MODAL);
+                dlg.setTitle("New Subtask under: " + parent.getTitle());
+                dlg.setScene(scene);
+                dlg.showAndWait();
 
-            loadTasksForProject(p.getProjectId());
+                refreshTasks(p.getProjectId());
+            } catch (Exception e) {
+                statusLabel.setText("Subtask creation failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }, ex -> {
+            if (ex instanceof SQLException) {
+                // Show detailed warning dialog for validation errors
+                showTaskCreationWarning("Cannot Create Subtask", ex.getMessage());
+                statusLabel.setText("Subtask creation blocked");
+            } else {
+                statusLabel.setText("Subtask creation failed: " + ex.getMessage());
+                ex.printStackTrace();
+            }
+        });
+    }
 
-        } catch (SQLException ex) {
-            // Show detailed warning dialog for validation errors
-            showTaskCreationWarning("Cannot Create Subtask", ex.getMessage());
-            statusLabel.setText("Subtask creation blocked");
-        } catch (Exception e) {
-            statusLabel.setText("Subtask creation failed: " + e.getMessage());
-            e.printStackTrace();
-        }
+    // Selecting a "load more" row pages in the next children and selects the first of them
+    private void wireLoadMore() {
+        taskTree.getSelectionModel().selectedItemProperty().addListener((obs, a, b) -> {
+            if (!(b instanceof LazyTaskTreeItem.LoadMore more)) return;
+            Platform.runLater(() -> {
+                LazyTaskTreeItem owner = more.owner();
+                int index = owner.getChildren().indexOf(more);
+                if (index < 0) return;
+                owner.loadMore();
+                taskTree.getSelectionModel().select(owner.getChildren().get(index));
+            });
+        });
     }
 
     private void wireNewSubtaskButton() {
@@ -178,22 +322,118 @@ public class DashboardController {
         });
     }
 
+    /** Start is enabled only for an open task that the dependency and sibling-priority rules allow. */
+    private void wireStartButton() {
+        if (startBtn == null) return;
+        taskTree.getSelectionModel().selectedItemProperty().addListener((obs, a, b) -> {
+            updateStartButton();
+            showSelectedRollup();
+        });
+        updateStartButton();
+    }
+
+    private void updateStartButton() {
+        if (startBtn == null) return;
+        Task t = getSelectedTask();
+        boolean enabled = t != null && t.getTaskId() != null && !isStartedOrClosed(t)
+                && (startable == null || startable.contains(t.getTaskId()));
+        startBtn.setDisable(!enabled);
+    }
+
+    /** For a task with subtasks: totals over its whole subtree, at every depth, in the status bar. */
+    private void showSelectedRollup() {
+        Task t = getSelectedTask();
+        TreeItem<Task> item = taskTree.getSelectionModel().getSelectedItem();
+        if (t == null || t.getTaskId() == null || item == null || item.isLeaf()) { rollupLoad.cancel(); return; }
+        long taskId = t.getTaskId();
+        rollupLoad.run(() -> taskService.rollup(taskId), r -> {
+            Task now = getSelectedTask();
+            if (r == null || now == null || now.getTaskId() == null || now.getTaskId() != taskId) return;
+            statusLabel.setText(String.format("%s: %d of %d tasks in this subtree done, %.0f%% by estimate (%.0f h)",
+                    t.getTitle(), r.doneTasks(), r.tasks(), r.progressPct(), r.estimatedHours()));
+        }, e -> System.err.println("Subtask rollup failed: " + e.getMessage()));
+    }
+
+    private static boolean isStartedOrClosed(Task t) {
+        String s = t.getStatus();
+        return "IN_PROGRESS".equals(s) || "DONE".equals(s) || "CANCELLED".equals(s);
+    }
+
+    /**
+     * Recomputes which tasks can start and which have open work anywhere upstream (one pass each
+     * over the cached project graph) and, separately,
+     * the schedule forecast (incremental after an edit), then repaints. A project whose schedule
+     * cannot be computed (e.g. a dependency cycle) keeps its startability highlighting.
+     */
+    private void refreshStartable(long projectId) {
+        startableLoad.run(() -> new StartFlags(taskService.startableTasks(projectId),
+                taskService.transitivelyBlocked(projectId)), s -> {
+            TaskTree tree = shownTree();
+            if (tree == null || tree.projectId() != projectId) return;
+            startable = s.startable();
+            upstreamBlocked = s.upstreamBlocked();
+            updateStartButton();
+            taskTree.refresh();
+        }, e -> System.err.println("Startable tasks failed: " + e.getMessage()));
+        forecastLoad.run(() -> taskService.forecast(projectId), f -> {
+            TaskTree tree = shownTree();
+            if (tree == null || tree.projectId() != projectId) return;
+            forecast = f;
+            forecastError = null;
+            taskTree.refresh();
+            if (summaryText != null && summaryText.equals(statusLabel.getText())) showSnapshotSummary();
+        }, e -> {
+            TaskTree tree = shownTree();
+            if (tree == null || tree.projectId() != projectId) return;
+            forecast = null;
+            forecastError = e.getMessage();
+            taskTree.refresh();
+            if (summaryText != null && summaryText.equals(statusLabel.getText())) showSnapshotSummary();
+        });
+    }
+
+    private record StartFlags(TaskIdSet startable, long[] upstreamBlocked) {}
+
     @FXML
     public void initialize() {
         wireEditProjectButton();
+        if (loadingIndicator != null) {
+            loadingIndicator.visibleProperty().bind(UiTasks.runningProperty().greaterThan(0));
+        }
         // Projects table columns
         TableColumn<Project, String> nameCol = new TableColumn<>("Name");
         nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
         TableColumn<Project, String> statusCol = new TableColumn<>("Status");
         statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
 
-        projectTable.getColumns().setAll(nameCol, statusCol);
+        TableColumn<Project, String> progressCol = new TableColumn<>("Progress");
+        progressCol.setCellValueFactory(p -> new javafx.beans.property.SimpleStringProperty(
+                String.format("%.0f%%", p.getValue().getProgressPct())));
+
+        projectTable.getColumns().setAll(nameCol, statusCol, progressCol);
 
         // Tasks tree columns (title, status, priority, progress, assignee)
         TreeTableColumn<Task, String> tTitle = new TreeTableColumn<>("Title");
         tTitle.setCellValueFactory(p -> new javafx.beans.property.SimpleStringProperty(
                 p.getValue().getValue().getTitle()));
         tTitle.setPrefWidth(400);
+        tTitle.setCellFactory(col -> new TreeTableCell<>() {
+            @Override protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty ? null : item);
+                Task t = empty || getTableRow() == null ? null : getTableRow().getItem();
+                boolean waiting = t != null && t.getTaskId() != null && startable != null
+                        && !isStartedOrClosed(t) && !startable.contains(t.getTaskId());
+                boolean upstream = !waiting && t != null && t.getTaskId() != null && upstreamBlocked != null
+                        && !isStartedOrClosed(t) && Arrays.binarySearch(upstreamBlocked, t.getTaskId()) >= 0;
+                boolean critical = !waiting && !upstream && t != null && t.getTaskId() != null && forecast != null
+                        && forecast.critical().contains(t.getTaskId());
+                setStyle(waiting ? "-fx-text-fill: #888888; -fx-font-style: italic;"   // cannot start yet
+                        : upstream ? "-fx-text-fill: #888888;"   // open work further up its dependency chain
+                        : critical ? "-fx-text-fill: #B22222; -fx-font-weight: bold;"   // on the critical path
+                        : "");
+            }
+        });
         taskTree.setColumnResizePolicy(TreeTableView.CONSTRAINED_RESIZE_POLICY);
         TreeTableColumn<Task, String> tStatus = new TreeTableColumn<>("Status");
         tStatus.setCellValueFactory(p -> new javafx.beans.property.SimpleStringProperty(
@@ -213,7 +453,8 @@ public class DashboardController {
         TreeTableColumn<Task, String> tPct = new TreeTableColumn<>("%");
         tPct.setCellValueFactory(p ->
                 new javafx.beans.property.SimpleStringProperty(
-                        String.format("%.0f%%", p.getValue().getValue().getProgressPct())
+                        p.getValue().getValue().getTaskId() == null ? ""
+                                : String.format("%.0f%%", p.getValue().getValue().getProgressPct())
                 )
         );
         tPct.setPrefWidth(70);
@@ -229,19 +470,23 @@ public class DashboardController {
         taskTree.getColumns().setAll(tTitle, tStatus, tPrio, tProg, tAssignee , tPct );
 
         if (taskTree != null) wireAssignButton();
+        wireStartButton();
 
         // When project selection changes, refresh tasks
         projectTable.getSelectionModel().selectedItemProperty().addListener((obs, a, b) -> {
+            resetBadge(b);
             if (b != null) {
-                try { loadTasksForProject(b.getProjectId()); }
-                catch (Exception e) { statusLabel.setText("Load tasks failed: " + e.getMessage()); }
+                loadTasksForProject(b.getProjectId(), this::showSnapshotSummary);
             } else {
+                projectLoad.cancel();
+                snapshot = null;
                 taskTree.setRoot(null);
             }
         });
 
         wireAssignButton();
         wireNewSubtaskButton();
+        wireLoadMore();
 
     }
 
@@ -256,55 +501,187 @@ public class DashboardController {
     }
 
     private void loadProjects() {
-        try {
-            if (currentUser == null) { projectTable.getItems().clear(); return; }
-            String role = currentUser.getGlobalRole();
+        if (currentUser == null) { projectListLoad.cancel(); projectTable.getItems().clear(); return; }
+        String role = currentUser.getGlobalRole();
+        long userId = currentUser.getUserId();
+        projectListLoad.run(() -> {
+            List<Project> projects;
             if ("ADMIN".equalsIgnoreCase(role)) {
-                projectTable.getItems().setAll(projectService.all());
+                projects = projectService.all();
             } else if ("MANAGER".equalsIgnoreCase(role)) {
-                projectTable.getItems().setAll(projectService.byManager(currentUser.getUserId()));
+                projects = projectService.byManager(userId);
             } else {
-                projectTable.getItems().setAll(projectService.byMember(currentUser.getUserId()));
+                projects = projectService.byMember(userId);
             }
-        } catch (SQLException e) {
-            statusLabel.setText("Failed to load projects: " + e.getMessage());
-        }
+            // progress from the tasks, held in memory: one grouped query the first time, O(1) after
+            List<Long> ids = new ArrayList<>();
+            for (Project p : projects) ids.add(p.getProjectId());
+            Map<Long, Double> progress = projectService.overallProgress(ids);
+            for (Project p : projects) p.setProgressPct(progress.getOrDefault(p.getProjectId(), 0.0));
+            return projects;
+        }, projects -> {
+            // setAll drops the selection; put it back if the project is still listed
+            Project selected = projectTable.getSelectionModel().getSelectedItem();
+            projectTable.getItems().setAll(projects);
+            if (selected != null) {
+                for (Project p : projects) {
+                    if (p.getProjectId().equals(selected.getProjectId())) {
+                        projectTable.getSelectionModel().select(p);
+                        break;
+                    }
+                }
+            }
+        }, e -> statusLabel.setText("Failed to load projects: " + e.getMessage()));
     }
 
-    private void loadTasksForProject(long projectId) throws SQLException {
-        List<Task> tasks = taskService.findByProject(projectId); // or projectTasks(projectId)
+    private void loadTasksForProject(long projectId) {
+        loadTasksForProject(projectId, null);
+    }
+
+    /**
+     * Fetches the project snapshot in the background and rebuilds the tree when it arrives.
+     * A newer load (e.g. the user clicking through projects) supersedes one still in flight.
+     */
+    private void loadTasksForProject(long projectId, Runnable onLoaded) {
+        if (currentUser == null) return;
+        long userId = currentUser.getUserId();
+        // Tasks, members, counts and the caller's role arrive together in one query
+        projectLoad.run(() -> {
+            ProjectSnapshot snap = projectService.snapshot(projectId, userId).orElse(null);
+            if (snap != null) snap.getProject().setProgressPct(projectService.calculateOverallProgress(snap.getTasks()));
+            // index parent -> children here so the FX thread only assembles items
+            TaskTree tree = new TaskTree(projectId, snap != null ? snap.getTasks() : List.of(), TREE_PAGE_SIZE);
+            return new LoadedProject(snap, tree);
+        }, loaded -> {
+            snapshot = loaded.snapshot();
+            showTasks(loaded.tree());
+            refreshStartable(projectId);
+            if (onLoaded != null) onLoaded.run();
+        }, e -> statusLabel.setText("Load tasks failed: " + e.getMessage()));
+    }
+
+    private record LoadedProject(ProjectSnapshot snapshot, TaskTree tree) {}
+
+    /**
+     * Brings the shown tree up to date after an edit: reads only the rows whose
+     * NVL(UPDATED_AT, CREATED_AT) is past the last one seen (minus an overlap for transactions
+     * that committed late) plus the project's current TASK_IDs to spot deletions, then patches
+     * the existing items. Falls back to a full load for another project or a large change set.
+     */
+    private void refreshTasks(long projectId) {
+        TaskTree tree = shownTree();
+        if (tree == null || tree.projectId() != projectId) { loadTasksForProject(projectId); return; }
+        OffsetDateTime since = tree.watermark() == null
+                ? OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC)
+                : tree.watermark().minusNanos(REFRESH_OVERLAP_MS * 1_000_000);
+        projectLoad.run(() -> new TaskChanges(taskService.changedSince(projectId, since), taskService.taskIds(projectId)),
+                changes -> {
+                    if (shownTree() != tree) return;
+                    if (changes.changed().size() > TREE_PAGE_SIZE * 10) { loadTasksForProject(projectId); return; }
+                    int before = tree.size();
+                    if (tree.apply(changes.changed(), changes.ids())) taskTree.refresh();
+                    if (!changes.changed().isEmpty() || tree.size() != before) refreshStartable(projectId);
+                    updateStartButton();
+                }, e -> statusLabel.setText("Refresh failed: " + e.getMessage()));
+    }
+
+    private record TaskChanges(List<Task> changed, Set<Long> ids) {}
+
+    private TaskTree shownTree() {
+        return taskTree.getRoot() instanceof LazyTaskTreeItem root ? root.tree() : null;
+    }
+
+    /**
+     * Swaps in a lazy tree over the project's tasks. Item objects are created only as nodes
+     * are expanded; when the same project is reloaded, the expanded nodes, the pages shown
+     * under them and the selected task are carried over.
+     */
+    private void showTasks(TaskTree tree) {
+        long projectId = tree.projectId();
+        Map<Long, Integer> expanded = new HashMap<>();   // expanded TASK_ID (null = root) -> children shown
+        Long selectedId = null;
+        TreeItem<Task> oldRoot = taskTree.getRoot();
+        if (oldRoot instanceof LazyTaskTreeItem old && old.getValue().getProjectId() == projectId) {
+            collectExpanded(old, expanded);
+            Task sel = getSelectedTask();
+            if (sel != null) selectedId = sel.getTaskId();
+        } else {
+            startable = null;   // another project; refreshStartable fills these in
+            upstreamBlocked = null;
+            forecast = null;
+            forecastError = null;
+        }
 
-        // Build parent->children map
-        Map<Long, TreeItem<Task>> byId = new HashMap<>();
-        TreeItem<Task> root = new TreeItem<>(new Task(projectId, "ROOT")); // dummy invisible root
+        LazyTaskTreeItem root = tree.root();
+        root.ensureShown(expanded.getOrDefault(null, 0));
         root.setExpanded(true);
+        TreeItem<Task> toSelect = restoreExpanded(root, expanded, selectedId);
+
+        taskTree.setRoot(root);
+        taskTree.setShowRoot(false);
+        if (toSelect != null) taskTree.getSelectionModel().select(toSelect);
+    }
 
-        // First pass: create an item for each task
-        for (Task t : tasks) {
-            TreeItem<Task> item = new TreeItem<>(t);
-            byId.put(t.getTaskId(), item);
+    private static void collectExpanded(LazyTaskTreeItem item, Map<Long, Integer> out) {
+        if (!item.isExpanded()) return;
+        out.put(item.key(), item.shown());
+        for (TreeItem<Task> child : item.getChildren()) {
+            if (child instanceof LazyTaskTreeItem c) collectExpanded(c, out);
         }
+    }
 
-        // Second pass: attach to parent or root
-        for (Task t : tasks) {
-            TreeItem<Task> item = byId.get(t.getTaskId());
-            Long parentId = t.getParentTaskId();
-            if (parentId != null && byId.containsKey(parentId)) {
-                byId.get(parentId).getChildren().add(item);
-            } else {
-                root.getChildren().add(item);
+    /** Re-expands the recorded nodes under item; returns the item for selectedId if it was reached. */
+    private static TreeItem<Task> restoreExpanded(LazyTaskTreeItem item, Map<Long, Integer> expanded, Long selectedId) {
+        TreeItem<Task> found = null;
+        for (TreeItem<Task> child : item.getChildren()) {
+            if (!(child instanceof LazyTaskTreeItem c)) continue;
+            if (selectedId != null && selectedId.equals(c.key())) found = c;
+            Integer shown = expanded.get(c.key());
+            if (shown != null && !c.isLeaf()) {
+                c.ensureShown(shown);
+                c.setExpanded(true);
+                TreeItem<Task> below = restoreExpanded(c, expanded, selectedId);
+                if (below != null) found = below;
             }
         }
+        return found;
+    }
 
-        taskTree.setRoot(root);
-        taskTree.setShowRoot(false);
+    /**
+     * Background work yielding the project's snapshot: the loaded one if it is for this
+     * project, otherwise a fresh query. Build it on the FX thread, call it on a worker.
+     */
+    private Callable<ProjectSnapshot> snapshotWork(Project p) {
+        ProjectSnapshot loaded = snapshot;
+        long projectId = p.getProjectId();
+        long userId = currentUser.getUserId();
+        if (loaded != null && loaded.getProject().getProjectId().equals(projectId)) return () -> loaded;
+        return () -> projectService.snapshot(projectId, userId).orElse(null);
+    }
+
+    private void showSnapshotSummary() {
+        if (snapshot == null) return;
+        String text = String.format("%s: %.0f%% done, %d tasks (%d in progress, %d blocked), %d members",
+                snapshot.getProject().getName(), snapshot.getProgressPct(), snapshot.getTasks().size(),
+                snapshot.getStatusCount("IN_PROGRESS"), snapshot.getStatusCount("BLOCKED"),
+                snapshot.getMembers().size());
+        if (forecast != null && shownTree() != null && shownTree().projectId() == snapshot.getProject().getProjectId()) {
+            text += String.format(", forecast finish %s (%d critical, %d late)",
+                    forecast.projectFinish(), forecast.critical().size(), forecast.late().size());
+        } else if (forecastError != null && shownTree() != null
+                && shownTree().projectId() == snapshot.getProject().getProjectId()) {
+            text += ", no forecast: " + forecastError;
+        }
+        summaryText = text;
+        statusLabel.setText(text);
     }
 
 
 
     private Task getSelectedTask() {
         TreeItem<Task> item = taskTree.getSelectionModel().getSelectedItem();
-        return item != null ? item.getValue() : null;
+        // the "load more" placeholder row has no task behind it
+        return item != null && !(item instanceof LazyTaskTreeItem.LoadMore) ? item.getValue() : null;
     }
 
     // =========== Handlers ===========
@@ -314,8 +691,7 @@ public class DashboardController {
     private void onOpenProject() {
         Project p = projectTable.getSelectionModel().getSelectedItem();
         if (p == null) { statusLabel.setText("Select a project first."); return; }
-        try { loadTasksForProject(p.getProjectId()); }
-        catch (Exception e) { statusLabel.setText("Open project failed: " + e.getMessage()); }
+        loadTasksForProject(p.getProjectId(), this::showSnapshotSummary);
     }
 
     // ADMIN: assign a Manager to the selected project (PROJECT_MEMBERS role='MANAGER')
@@ -341,6 +717,7 @@ public class DashboardController {
             dlg.setTitle("Assign Manager");
             dlg.setScene(scene);
             dlg.showAndWait();
+            loadTasksForProject(p.getProjectId());
         } catch (Exception e) {
             statusLabel.setText("Open Assign Manager dialog failed: " + e.getMessage());
         }
@@ -353,10 +730,17 @@ public class DashboardController {
         Project p = projectTable.getSelectionModel().getSelectedItem();
         if (p == null) { statusLabel.setText("Select a project"); return; }
 
+        UiTasks.run(snapshotWork(p), snap -> {
+            snapshot = snap;
+            openAssignMembersDialog(p, snap);
+        }, e -> statusLabel.setText("Open dialog failed: " + e.getMessage()));
+    }
+
+    private void openAssignMembersDialog(Project p, ProjectSnapshot snap) {
         try {
             boolean isAdmin = "ADMIN".equalsIgnoreCase(currentUser.getGlobalRole());
             boolean isGlobalManager = "MANAGER".equalsIgnoreCase(currentUser.getGlobalRole());
-            boolean isProjectManager = projectService.isManagerOfProject(p.getProjectId(), currentUser.getUserId());
+            boolean isProjectManager = snap != null && snap.isManager();
 
             if (!isAdmin && !isGlobalManager && !isProjectManager) {
                 statusLabel.setText("You cannot assign members for this project");
@@ -372,6 +756,7 @@ public class DashboardController {
             dlg.setTitle("Assign Project Members");
             dlg.setScene(scene);
             dlg.showAndWait();
+            loadTasksForProject(p.getProjectId());   // pick up the new member list
 
         } catch (Exception e) {
             statusLabel.setText("Open dialog failed: " + e.getMessage());
@@ -419,16 +804,12 @@ public class DashboardController {
             ctrl.initForEdit(currentUser, p, updated -> {
                 loadProjects();
                 // Refresh tasks if the project status changed
-                try {
-                    if (!p.getStatus().equals(updated.getStatus())) {
-                        loadTasksForProject(updated.getProjectId());
-                        statusLabel.setText("Project updated: " + updated.getName() +
-                                " (Status: " + updated.getStatus() + ")");
-                    } else {
-                        statusLabel.setText("Project updated: " + updated.getName());
-                    }
-                } catch (SQLException e) {
-                    statusLabel.setText("Project updated but task refresh failed: " + e.getMessage());
+                if (!p.getStatus().equals(updated.getStatus())) {
+                    refreshTasks(updated.getProjectId());
+                    statusLabel.setText("Project updated: " + updated.getName() +
+                            " (Status: " + updated.getStatus() + ")");
+                } else {
+                    statusLabel.setText("Project updated: " + updated.getName());
                 }
             });
             Stage dlg = new Stage();
@@ -474,16 +855,23 @@ public class DashboardController {
                 ButtonType.YES, ButtonType.NO);
         confirm.showAndWait().ifPresent(bt -> {
             if (bt == ButtonType.YES) {
-                try {
-                    projectService.deleteProjectWithAuth(p.getProjectId(), currentUser);
+                User user = currentUser;
+                UiTasks.run(() -> {
+                    projectService.deleteProjectWithAuth(p.getProjectId(), user);
+                    return null;
+                }, done -> {
                     loadProjects();
+                    projectLoad.cancel();
+                    snapshot = null;
                     taskTree.setRoot(null);
                     statusLabel.setText("Project deleted.");
-                } catch (SecurityException se) {
-                    new Alert(Alert.AlertType.WARNING, se.getMessage()).showAndWait();
-                } catch (SQLException e) {
-                    new Alert(Alert.AlertType.ERROR, "Delete failed: " + e.getMessage()).showAndWait();
-                }
+                }, e -> {
+                    if (e instanceof SecurityException) {
+                        new Alert(Alert.AlertType.WARNING, e.getMessage()).showAndWait();
+                    } else {
+                        new Alert(Alert.AlertType.ERROR, "Delete failed: " + e.getMessage()).showAndWait();
+                    }
+                });
             }
         });
     }
@@ -497,35 +885,37 @@ public class DashboardController {
             return;
         }
 
-        try {
-            // Validate before opening form - will throw detailed exception if blocked
+        // Validate before opening form - will throw detailed exception if blocked
+        UiTasks.run(() -> {
             taskService.validateTaskCreation(p.getProjectId());
-
-            // If validation passes, open the form
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/TaskForm.fxml"));
-            Scene scene = new Scene(loader.load());
-            TaskFormController ctrl = loader.getController();
-            ctrl.initForCreate(p.getProjectId(), savedId -> {
-                try {
-                    loadTasksForProject(p.getProjectId());
+            return null;
+        }, ok -> {
+            try {
+                // If validation passes, open the form
+                FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/TaskForm.fxml"));
+                Scene scene = new Scene(loader.load());
+                TaskFormController ctrl = loader.getController();
+                ctrl.initForCreate(p.getProjectId(), savedId -> {
+                    refreshTasks(p.getProjectId());
                     statusLabel.setText("Task created with ID: " + savedId);
-                } catch (SQLException e) {
-                    throw new RuntimeException(e);
-                }
-            });
-            Stage dlg = new Stage();
-            dlg.initModality(Modality.APPLICATION_MODAL);
-            dlg.setTitle("New Task");
-            dlg.setScene(scene);
-            dlg.showAndWait();
-
-        } catch (SQLException ex) {
-            // Show detailed warning dialog instead of just status message
-            showTaskCreationWarning("Cannot Create Task", ex.getMessage());
-            statusLabel.setText("Task creation blocked");
-        } catch (Exception ex) {
-            statusLabel.setText("Task creation failed: " + ex.getMessage());
-        }
+                });
+                Stage dlg = new Stage();
+                dlg.initModality(Modality.APPLICATION_MODAL);
+                dlg.setTitle("New Task");
+                dlg.setScene(scene);
+                dlg.showAndWait();
+            } catch (Exception ex) {
+                statusLabel.setText("Task creation failed: " + ex.getMessage());
+            }
+        }, ex -> {
+            if (ex instanceof SQLException) {
+                // Show detailed warning dialog instead of just status message
+                showTaskCreationWarning("Cannot Create Task", ex.getMessage());
+                statusLabel.setText("Task creation blocked");
+            } else {
+                statusLabel.setText("Task creation failed: " + ex.getMessage());
+            }
+        });
     }
 
     private void showTaskCreationWarning(String title, String message) {
@@ -546,15 +936,17 @@ public class DashboardController {
             statusLabel.setText("Select a task");
             return;
         }
-        try {
+        UiTasks.run(() -> {
             taskService.start(selected.getTaskId());
+            return null;
+        }, done -> {
             reloadSelectedProjectTasks();
             statusLabel.setText("Task started");
-        } catch (SQLException e) {
+        }, e -> {
             // Show warning dialog instead of status label
             showWarningDialog("Cannot Start Task", e.getMessage());
             statusLabel.setText("Task start blocked by priority rules");
-        }
+        });
     }
 
     // Add this helper method to DashboardController
@@ -575,6 +967,33 @@ public class DashboardController {
         alert.showAndWait();
     }
 
+    /**
+     * Makes the selected task wait for another task of the project. TaskService rejects an edge
+     * that would close a cycle and names the cycle.
+     */
+    @FXML
+    public void onAddDependency() {
+        Task successor = getSelectedTask();
+        if (successor == null || successor.getTaskId() == null) { statusLabel.setText("Select a task"); return; }
+        if (snapshot == null) return;
+        Map<String, Long> choices = new LinkedHashMap<>();
+        for (Task t : snapshot.getTasks()) {
+            if (!t.getTaskId().equals(successor.getTaskId())) choices.put(t.getTitle() + " (#" + t.getTaskId() + ")", t.getTaskId());
+        }
+        if (choices.isEmpty()) { statusLabel.setText("No other task to depend on"); return; }
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(choices.keySet().iterator().next(), choices.keySet());
+        dialog.setTitle("Add Dependency");
+        dialog.setHeaderText("\"" + successor.getTitle() + "\" can start once this task is DONE:");
+        dialog.showAndWait().ifPresent(choice -> {
+            long predecessorId = choices.get(choice), successorId = successor.getTaskId();
+            UiTasks.run(() -> taskService.addDependency(predecessorId, successorId), depId -> {
+                reloadSelectedProjectTasks();
+                refreshStartable(successor.getProjectId());   // a new edge changes no task row
+                statusLabel.setText("Dependency added");
+            }, e -> new Alert(Alert.AlertType.WARNING, e.getMessage()).showAndWait());
+        });
+    }
+
     @FXML
     public void onCompleteTask() {
         Task selected = getSelectedTask();
@@ -582,27 +1001,26 @@ public class DashboardController {
             statusLabel.setText("Select a task");
             return;
         }
-        try {
+        UiTasks.run(() -> {
             taskService.complete(selected.getTaskId());
+            return null;
+        }, done -> {
             reloadSelectedProjectTasks();
             loadProjects();
             statusLabel.setText("Task completed");
-        } catch (SQLException e) {
-            statusLabel.setText(e.getMessage());
-        }
+        }, e -> statusLabel.setText(e.getMessage()));
     }
 
     @FXML
-    public void onRefreshTasks() throws SQLException {
+    public void onRefreshTasks() {
         reloadSelectedProjectTasks();
     }
 
 
-    private void reloadSelectedProjectTasks() throws SQLException {
+    private void reloadSelectedProjectTasks() {
         Project p = projectTable.getSelectionModel().getSelectedItem();
         if (p == null) { taskTree.setRoot(null); return; }
-        try { loadTasksForProject(p.getProjectId()); }
-        catch (Exception e) { statusLabel.setText("Refresh failed: " + e.getMessage()); }
+        refreshTasks(p.getProjectId());
     }
 
 
@@ -614,17 +1032,24 @@ public class DashboardController {
 
         Task task = getSelectedTask();
         if (task == null) { statusLabel.setText("Select a task to assign"); return; }
+        UiTasks.run(snapshotWork(p), snap -> {
+            snapshot = snap;
+            openAssignTaskDialog(p, task, snap);
+        }, e -> statusLabel.setText("Open assign dialog failed: " + e.getMessage()));
+    }
+
+    private void openAssignTaskDialog(Project p, Task task, ProjectSnapshot snap) {
         try {
             boolean isAdmin = "ADMIN".equalsIgnoreCase(currentUser.getGlobalRole());
             boolean isGlobalManager = "MANAGER".equalsIgnoreCase(currentUser.getGlobalRole());
-            boolean isProjectManager = projectService.isManagerOfProject(p.getProjectId(), currentUser.getUserId());
+            boolean isProjectManager = snap != null && snap.isManager();
 
             if (!isAdmin && !isGlobalManager && !isProjectManager) {
                 statusLabel.setText("You cannot assign tasks in this project");
                 return;
             }
 
-            var members = projectService.projectMembers(p.getProjectId());
+            var members = snap != null ? snap.getMembers() : List.<User>of();
             if (members == null || members.isEmpty()) {
                 statusLabel.setText("No members in this project. Use 'Assign Members' first.");
                 return;
@@ -635,7 +1060,7 @@ public class DashboardController {
             AssignTaskController ctrl = loader.getController();
             ctrl.init(task, p.getProjectId(), currentUser, members, who -> {
                 statusLabel.setText("Assigned to " + who.getUsername());
-                try { loadTasksForProject(p.getProjectId()); } catch (Exception ignored) {}
+                refreshTasks(p.getProjectId());
             });
             Stage dlg = new Stage();
             dlg.initModality(Modality.APPLICATION_MODAL);
@@ -674,6 +1099,9 @@ public class DashboardController {
     private void onLogout() {
         try {
             this.currentUser = null;
+            if (poller != null) { poller.stop(); poller = null; }
+            badgeLoad.cancel();
+            unsubscribeFromChanges();
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/LoginView.fxml"));
             AuthContext.clear();
             Scene scene = new Scene(loader.load(), 920, 600);
@@ -687,26 +1115,30 @@ public class DashboardController {
     }
     @FXML
     public void onDeleteTask() {
-        var sel = taskTree.getSelectionModel().getSelectedItem();
-        Task t = (sel == null ? null : sel.getValue());
-        if (t == null) { statusLabel.setText("Select a task to delete"); return; }
+        Task t = getSelectedTask();
+        if (t == null || t.getTaskId() == null) { statusLabel.setText("Select a task to delete"); return; }
 
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
                 "Delete \"" + t.getTitle() + "\" and all its subtasks?",
                 ButtonType.YES, ButtonType.NO);
         confirm.showAndWait().ifPresent(bt -> {
             if (bt == ButtonType.YES) {
-                try {
-                    taskService.deleteTaskWithAuth(t.getTaskId(), currentUser);
+                User user = currentUser;
+                UiTasks.run(() -> {
+                    taskService.deleteTaskWithAuth(t.getTaskId(), user);
+                    return null;
+                }, done -> {
                     // refresh current project's tree
                     Project p = projectTable.getSelectionModel().getSelectedItem();
-                    if (p != null) loadTasksForProject(p.getProjectId());
+                    if (p != null) refreshTasks(p.getProjectId());
                     statusLabel.setText("Task deleted.");
-                } catch (SecurityException se) {
-                    new Alert(Alert.AlertType.WARNING, se.getMessage()).showAndWait();
-                } catch (SQLException e) {
-                    new Alert(Alert.AlertType.ERROR, "Delete failed: " + e.getMessage()).showAndWait();
-                }
+                }, e -> {
+                    if (e instanceof SecurityException) {
+                        new Alert(Alert.AlertType.WARNING, e.getMessage()).showAndWait();
+                    } else {
+                        new Alert(Alert.AlertType.ERROR, "Delete failed: " + e.getMessage()).showAndWait();
+                    }
+                });
             }
         });
     }
@@ -0,0 +1,136 @@
+package org.example.upnext.ui.controller;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+import org.example.upnext.model.Task;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tree node that creates its child items only when the tree first asks for them (on expand),
+ * a page at a time. When more children remain, the last child is a {@link LoadMore} placeholder.
+ * Children come from the owning {@link TaskTree}.
+ */
+class LazyTaskTreeItem extends TreeItem<Task> {
+    private final TaskTree tree;
+    private final Long key;        // TASK_ID of this node; null for the invisible root
+    private boolean loaded;
+    private int shown;             // number of real children materialized so far
+
+    LazyTaskTreeItem(TaskTree tree, Task task, Long key) {
+        super(task);
+        this.tree = tree;
+        this.key = key;
+    }
+
+    Long key() { return key; }
+    TaskTree tree() { return tree; }
+
+    @Override
+    public boolean isLeaf() {
+        return tree.children(key).isEmpty();
+    }
+
+    @Override
+    public ObservableList<TreeItem<Task>> getChildren() {
+        if (!loaded) {
+            loaded = true;
+            loadMore();
+        }
+        return super.getChildren();
+    }
+
+    /** Child items created so far, without triggering a load. */
+    List<TreeItem<Task>> createdChildren() {
+        return loaded ? super.getChildren() : List.of();
+    }
+
+    /** Number of real children created so far (0 until the node is first expanded). */
+    int shown() { return loaded ? shown : 0; }
+
+    /** Creates child items until at least n are shown (or all of them). */
+    void ensureShown(int n) {
+        getChildren();
+        while (shown < n && shown < tree.children(key).size()) loadMore();
+    }
+
+    /** Replaces the placeholder with the next page of children. */
+    void loadMore() {
+        ObservableList<TreeItem<Task>> items = super.getChildren();
+        List<Task> all = tree.children(key);
+        int end = Math.min(all.size(), shown + tree.pageSize());
+
+        List<TreeItem<Task>> page = new ArrayList<>(end - shown + 1);
+        for (int i = shown; i < end; i++) page.add(tree.newItem(all.get(i)));
+        shown = end;
+        if (shown < all.size()) page.add(new LoadMore(this, all.size() - shown));
+
+        if (!items.isEmpty() && items.get(items.size() - 1) instanceof LoadMore) {
+            items.remove(items.size() - 1);
+        }
+        items.addAll(page);
+    }
+
+    /**
+     * Brings the created children in line with the tree after an incremental update: items for
+     * removed or moved tasks are dropped, new tasks inside the shown range get items, the rest
+     * is counted in the placeholder. Items that stay keep their expansion and selection.
+     */
+    void reconcile() {
+        if (!loaded) return;   // nothing created yet; expanding will read the current children
+        ObservableList<TreeItem<Task>> items = super.getChildren();
+        List<Task> all = tree.children(key);
+
+        boolean complete = items.isEmpty() || !(items.get(items.size() - 1) instanceof LoadMore);
+        Long lastShown = null;
+        for (int i = items.size() - 1; i >= 0 && lastShown == null; i--) {
+            if (items.get(i) instanceof LazyTaskTreeItem c) lastShown = c.key;
+        }
+        List<Task> wanted = new ArrayList<>();
+        for (Task t : all) {
+            if (!complete && (lastShown == null || t.getTaskId() > lastShown)) break;
+            wanted.add(t);
+        }
+        Set<Long> wantedIds = new HashSet<>(wanted.size() * 2);
+        for (Task t : wanted) wantedIds.add(t.getTaskId());
+
+        for (int i = items.size() - 1; i >= 0; i--) {
+            TreeItem<Task> c = items.get(i);
+            if (c instanceof LazyTaskTreeItem l && wantedIds.contains(l.key)) continue;
+            items.remove(i);
+            if (c instanceof LazyTaskTreeItem l) tree.discard(l);
+        }
+        for (int i = 0; i < wanted.size(); i++) {
+            Task t = wanted.get(i);
+            if (i < items.size() && t.getTaskId().equals(((LazyTaskTreeItem) items.get(i)).key)) continue;
+            items.add(i, tree.newItem(t));
+        }
+        shown = wanted.size();
+        if (shown < all.size()) items.add(new LoadMore(this, all.size() - shown));
+    }
+
+    /** Placeholder row; selecting it loads the next page into its parent. Its task has no id. */
+    static final class LoadMore extends TreeItem<Task> {
+        private final LazyTaskTreeItem owner;
+
+        LoadMore(LazyTaskTreeItem owner, int remaining) {
+            super(placeholder(owner, remaining));
+            this.owner = owner;
+        }
+
+        LazyTaskTreeItem owner() { return owner; }
+
+        @Override public boolean isLeaf() { return true; }
+
+        private static Task placeholder(LazyTaskTreeItem owner, int remaining) {
+            Task t = new Task(owner.getValue().getProjectId(),
+                    "Load " + Math.min(remaining, owner.tree.pageSize()) + " more... (" + remaining + " remaining)");
+            t.setStatus("");
+            t.setPriority("");
+            return t;
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package org.example.upnext.ui.controller;
 import org.example.upnext.service.NotificationService.Role;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.fxml.FXML;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.control.*;
+import org.example.upnext.config.Db;
 import org.example.upnext.dao.impl.NotificationDAOImpl;
+import org.example.upnext.events.ChangeEvent;
+import org.example.upnext.events.EventBus;
 import org.example.upnext.model.Notification;
+import org.example.upnext.model.NotificationPage;
 import org.example.upnext.model.Task;
 import org.example.upnext.service.NotificationService;
 
@@ -13,23 +20,36 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 public class NotificationController {
+    private static final int PAGE_SIZE = Db.intProperty("ui.notifications.pageSize", 50);
 
     // ===== FXML refs =====
     @FXML private TableView<Notification> notificationTable;
     @FXML private TableColumn<Notification, String> colType, colTaskTitle, colMessage;
     @FXML private TableColumn<Notification, java.time.LocalDate> colDueDate;
     @FXML private TableColumn<Notification, java.time.LocalDateTime> colCreatedAt;
+    @FXML private Button assignedByMeBtn;
 
     // ===== Dependencies / context =====
     private NotificationService notificationService;
     private long currentProjectId;
     private long currentUserId;
     private Role currentRole;
+    private boolean assignedByMe;   // showing notifications on tasks the user created, not the inbox
+
+    // ===== Paging state (FX thread) =====
+    private final UiTasks.Latest pageLoad = new UiTasks.Latest();
+    private NotificationPage.Cursor nextCursor;   // where the next page starts
+    private boolean hasMore;
+    private boolean loadingPage;
+    private ScrollBar vbar;
+    private EventBus.Subscription subscription;   // new notifications; see setContext
 
     @FXML
     public void initialize() {
         this.notificationService = new NotificationService(new NotificationDAOImpl());
         setupTable();
+        // the scroll bars exist once the table has a skin
+        notificationTable.skinProperty().addListener((obs, o, skin) -> watchScrolling());
     }
 
     /** Parent controller must call once project/user/role are known */
@@ -39,14 +59,54 @@ public class NotificationController {
         this.currentRole = role;
         updateRoleUI();
         refreshNotifications();
+        if (subscription == null) {
+            subscription = EventBus.shared().subscribe(ChangeEvent.Topic.NOTIFICATION,
+                    e -> Platform.runLater(this::onNewNotifications));
+        }
+    }
+
+    /** Parent controller calls this when the window closes. */
+    public void close() {
+        if (subscription != null) { subscription.close(); subscription = null; }
+        pageLoad.cancel();
+    }
+
+    /** New rows sort first, so reload only while the user is still looking at the top of the list. */
+    private void onNewNotifications() {
+        if (subscription == null || loadingPage) return;
+        if (vbar == null || vbar.getValue() <= vbar.getMin()) refreshNotifications();
     }
 
     // ===== Actions =====
     @FXML public void onRefreshNotifications() { refreshNotifications(); }
 
+    @FXML public void onMarkAllRead() {
+        long projectId = currentProjectId, userId = currentUserId;
+        UiTasks.run(() -> notificationService.markAllRead(projectId, userId), n -> {
+            for (Notification x : notificationTable.getItems()) if (x.getUserId() == userId) x.setRead(true);
+            notificationTable.refresh();
+        }, e -> new Alert(Alert.AlertType.ERROR, "Mark all read failed: " + e.getMessage()).showAndWait());
+    }
+
+    /** Marks one of the user's own notifications read (double-click). */
+    private void markRead(Notification n) {
+        if (n == null || n.isRead() || n.getUserId() != currentUserId) return;
+        long userId = currentUserId;
+        UiTasks.run(() -> { notificationService.markRead(n.getNotificationId(), userId); return null; }, v -> {
+            n.setRead(true);
+            notificationTable.refresh();
+        }, e -> new Alert(Alert.AlertType.ERROR, "Mark read failed: " + e.getMessage()).showAndWait());
+    }
+
     @FXML public void onShowInbox() {
-        var data = notificationService.getInbox(currentProjectId, currentUserId, currentRole);
-        notificationTable.getItems().setAll(data);
+        assignedByMe = false;
+        refreshNotifications();
+    }
+
+    /** Notifications on tasks the user created (Admin/Manager), paged like the inbox. */
+    @FXML public void onShowAssignedByMe() {
+        assignedByMe = true;
+        refreshNotifications();
     }
 
     @FXML public void onShowOverdue() {
@@ -61,10 +121,57 @@ public class NotificationController {
     }
 
     // ===== Helpers =====
+    /** Starts the shown feed over from the newest notification; older pages load on scrolling. */
     private void refreshNotifications() {
         if (currentRole == null || currentProjectId == 0 || currentUserId == 0) return;
-        var data = notificationService.getInbox(currentProjectId, currentUserId, currentRole);
-        notificationTable.getItems().setAll(data);
+        pageLoad.cancel();
+        notificationTable.getItems().clear();
+        nextCursor = null;
+        hasMore = true;
+        loadingPage = false;
+        loadNextPage();
+    }
+
+    private void loadNextPage() {
+        if (loadingPage || !hasMore) return;
+        loadingPage = true;
+        long projectId = currentProjectId, userId = currentUserId;
+        Role role = currentRole;
+        NotificationPage.Cursor after = nextCursor;
+        boolean byMe = assignedByMe;
+        pageLoad.run(() -> byMe
+                ? notificationService.getAssignedByMePage(projectId, userId, role, after, PAGE_SIZE)
+                : notificationService.getInboxPage(projectId, userId, role, after, PAGE_SIZE), page -> {
+            loadingPage = false;
+            notificationTable.getItems().addAll(page.items());
+            nextCursor = page.next();
+            hasMore = page.hasMore();
+            fillViewport();
+        }, e -> {
+            loadingPage = false;
+            new Alert(Alert.AlertType.ERROR, "Loading notifications failed: " + e.getMessage()).showAndWait();
+        });
+    }
+
+    /** A list too short to scroll would never trigger the next page, so keep loading until it scrolls. */
+    private void fillViewport() {
+        if (vbar == null || !hasMore) return;   // not shown yet; checked again when the skin arrives
+        notificationTable.layout();
+        if (!vbar.isVisible()) loadNextPage();
+    }
+
+    /** Fetches the next page once the user scrolls into the last tenth of the list. */
+    private void watchScrolling() {
+        for (Node n : notificationTable.lookupAll(".scroll-bar")) {
+            if (n instanceof ScrollBar sb && sb.getOrientation() == Orientation.VERTICAL) {
+                vbar = sb;
+                sb.valueProperty().addListener((obs, o, v) -> {
+                    if (v.doubleValue() >= sb.getMax() - (sb.getMax() - sb.getMin()) * 0.1) loadNextPage();
+                });
+                Platform.runLater(this::fillViewport);
+                return;
+            }
+        }
     }
 
     private void setupTable() {
@@ -74,6 +181,19 @@ public class NotificationController {
         colDueDate.setCellValueFactory(cd -> new SimpleObjectProperty<>(cd.getValue().getDueDate()));
         colCreatedAt.setCellValueFactory(cd -> new SimpleObjectProperty<>(cd.getValue().getCreatedAt()));
 
+        // unread rows (addressed to this user) in bold; double-click marks one read
+        notificationTable.setRowFactory(tv -> {
+            TableRow<Notification> row = new TableRow<>() {
+                @Override protected void updateItem(Notification item, boolean empty) {
+                    super.updateItem(item, empty);
+                    boolean unread = !empty && item != null && !item.isRead() && item.getUserId() == currentUserId;
+                    setStyle(unread ? "-fx-font-weight: bold;" : "");
+                }
+            };
+            row.setOnMouseClicked(e -> { if (e.getClickCount() == 2) markRead(row.getItem()); });
+            return row;
+        });
+
         DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
         colCreatedAt.setCellFactory(col -> new TableCell<>() {
             @Override protected void updateItem(java.time.LocalDateTime item, boolean empty) {
@@ -84,7 +204,13 @@ public class NotificationController {
     }
 
     private void updateRoleUI() {
-        // No role-specific UI changes needed now
+        // only Admins and Managers have an assigned-by-me feed
+        boolean canAssign = currentRole == Role.ADMIN || currentRole == Role.MANAGER;
+        if (assignedByMeBtn != null) {
+            assignedByMeBtn.setVisible(canAssign);
+            assignedByMeBtn.setManaged(canAssign);
+        }
+        if (!canAssign) assignedByMe = false;
     }
 
     private static String n2e(String s) { return s == null ? "" : s; }
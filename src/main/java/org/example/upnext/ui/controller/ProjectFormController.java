@@ -21,7 +21,7 @@ public class ProjectFormController {
     @FXML private DatePicker endPicker;
     @FXML private ComboBox<String> statusBox;
 
-    private final ProjectService projectService = new ProjectService(new ProjectDAOImpl(), new org.example.upnext.dao.impl.TaskDAOImpl());
+    private final ProjectService projectService = new ProjectService(new ProjectDAOImpl(), new org.example.upnext.dao.impl.CachingTaskDAO());
     private User currentUser;
     private Project editing;
     private Consumer<Project> onSaved;
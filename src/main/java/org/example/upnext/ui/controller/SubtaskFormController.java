@@ -4,7 +4,7 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import org.example.upnext.dao.impl.ProjectDAOImpl;
-import org.example.upnext.dao.impl.TaskDAOImpl;
+import org.example.upnext.dao.impl.CachingTaskDAO;
 import org.example.upnext.model.Task;
 import org.example.upnext.model.User;
 import org.example.upnext.service.TaskService;
@@ -36,8 +36,8 @@ public class SubtaskFormController {
     @FXML
     public void initialize() {
         // Initialize services with proper wiring
-        taskService = new TaskService(new TaskDAOImpl(), new org.example.upnext.dao.impl.TaskDependencyDAOImpl());
-        projectService = new ProjectService(new ProjectDAOImpl(), new TaskDAOImpl());
+        taskService = new TaskService(new CachingTaskDAO(), new org.example.upnext.dao.impl.CachingTaskDependencyDAO());
+        projectService = new ProjectService(new ProjectDAOImpl(), new CachingTaskDAO());
         taskService.setProjectService(projectService);
         taskService.setProjectDAO(new ProjectDAOImpl());
 
@@ -234,12 +234,10 @@ public class SubtaskFormController {
         // Use taskService to create the subtask
         long newId = taskService.create(sub);
 
-        // If parent was DONE and now has a new child, update parent status using taskDAO directly
+        // If parent was DONE and now has a new child, move it back to IN_PROGRESS
         if ("DONE".equalsIgnoreCase(parent.getStatus())) {
             try {
-                // Use taskDAO to update status since taskService.updateStatus might not exist
-                TaskDAOImpl taskDAO = new TaskDAOImpl();
-                taskDAO.updateStatus(parentTaskId, "IN_PROGRESS");
+                taskService.reopen(parentTaskId);
             } catch (SQLException e) {
                 System.err.println("Warning: Could not update parent task status: " + e.getMessage());
             }
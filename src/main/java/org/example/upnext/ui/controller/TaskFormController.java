@@ -1,6 +1,6 @@
 package org.example.upnext.ui.controller;
 
-import org.example.upnext.dao.impl.TaskDAOImpl;
+import org.example.upnext.dao.impl.CachingTaskDAO;
 import org.example.upnext.dao.impl.ProjectDAOImpl;
 import org.example.upnext.model.Task;
 import org.example.upnext.service.TaskService;
@@ -33,8 +33,8 @@ public class TaskFormController {
     @FXML
     public void initialize() {
         // Initialize services with proper wiring
-        taskService = new TaskService(new TaskDAOImpl(), new org.example.upnext.dao.impl.TaskDependencyDAOImpl());
-        projectService = new ProjectService(new ProjectDAOImpl(), new TaskDAOImpl());
+        taskService = new TaskService(new CachingTaskDAO(), new org.example.upnext.dao.impl.CachingTaskDependencyDAO());
+        projectService = new ProjectService(new ProjectDAOImpl(), new CachingTaskDAO());
         taskService.setProjectService(projectService);
         taskService.setProjectDAO(new ProjectDAOImpl());
 
@@ -0,0 +1,151 @@
+package org.example.upnext.ui.controller;
+
+import org.example.upnext.model.Task;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A project's tasks indexed parent -> children, plus the tree items created for them so far.
+ * {@link #apply} patches both with the rows changed since the last load, so a refresh touches
+ * only the affected rows instead of rebuilding the tree. After the tree is shown, call
+ * everything except the constructor on the FX thread.
+ */
+final class TaskTree {
+    private static final Comparator<Task> BY_ID = Comparator.comparing(Task::getTaskId);
+
+    private final long projectId;
+    private final int pageSize;
+    private final Map<Long, Task> byId = new HashMap<>();
+    private final Map<Long, List<Task>> children = new HashMap<>();  // parent key -> children by TASK_ID; null = top level
+    private final Map<Long, Long> placedUnder = new HashMap<>();     // TASK_ID -> parent key it is filed under
+    private final Map<Long, LazyTaskTreeItem> items = new HashMap<>(); // items created so far, by TASK_ID
+    private final LazyTaskTreeItem root;
+    private OffsetDateTime watermark;                                 // newest NVL(UPDATED_AT, CREATED_AT) seen
+
+    /** Builds the index; tasks are expected in TASK_ID order. Safe to call off the FX thread. */
+    TaskTree(long projectId, List<Task> tasks, int pageSize) {
+        this.projectId = projectId;
+        this.pageSize = Math.max(1, pageSize);
+        for (Task t : tasks) byId.put(t.getTaskId(), t);
+        for (Task t : tasks) {
+            Long key = keyFor(t);
+            children.computeIfAbsent(key, k -> new ArrayList<>()).add(t);
+            placedUnder.put(t.getTaskId(), key);
+            advanceWatermark(t);
+        }
+        this.root = new LazyTaskTreeItem(this, new Task(projectId, "ROOT"), null); // dummy invisible root
+    }
+
+    long projectId() { return projectId; }
+    int pageSize() { return pageSize; }
+    LazyTaskTreeItem root() { return root; }
+    int size() { return byId.size(); }
+
+    /** Newest change time seen; null when the project had no tasks. */
+    OffsetDateTime watermark() { return watermark; }
+
+    List<Task> children(Long key) {
+        List<Task> list = children.get(key);
+        return list == null ? List.of() : Collections.unmodifiableList(list);
+    }
+
+    LazyTaskTreeItem newItem(Task t) {
+        LazyTaskTreeItem item = new LazyTaskTreeItem(this, t, t.getTaskId());
+        items.put(t.getTaskId(), item);
+        return item;
+    }
+
+    /** Forgets an item dropped from the tree, and the items created under it. */
+    void discard(LazyTaskTreeItem item) {
+        if (item.key() != null) items.remove(item.key(), item);
+        for (var child : item.createdChildren()) {
+            if (child instanceof LazyTaskTreeItem c) discard(c);
+        }
+    }
+
+    /**
+     * Applies rows changed since the last load and removes tasks missing from currentIds.
+     * Returns true when a shown node gained its first or lost its last child, in which case
+     * the caller should refresh the cells so the disclosure arrow follows.
+     */
+    boolean apply(List<Task> changed, Set<Long> currentIds) {
+        Map<Long, Boolean> wasLeaf = new HashMap<>();   // touched parent key -> had no children before
+
+        List<Long> gone = new ArrayList<>();
+        for (Long id : byId.keySet()) if (!currentIds.contains(id)) gone.add(id);
+        for (Long id : gone) {
+            if (!byId.containsKey(id)) continue;        // already removed with its parent
+            Long key = placedUnder.get(id);
+            wasLeaf.putIfAbsent(key, children(key).isEmpty());
+            removeSubtree(id);
+        }
+
+        for (Task t : changed) {
+            Long id = t.getTaskId();
+            if (id == null || !currentIds.contains(id)) continue;   // deleted since it was read
+            Task old = byId.get(id);
+            if (old != null && Objects.equals(old.getUpdatedAt(), t.getUpdatedAt())
+                    && Objects.equals(old.getCreatedAt(), t.getCreatedAt())) {
+                continue;                                           // re-read inside the overlap window
+            }
+            byId.put(id, t);
+            Long newKey = keyFor(t);
+            Long oldKey = old == null ? null : placedUnder.get(id);
+            if (old != null && Objects.equals(oldKey, newKey)) {
+                List<Task> list = children.get(oldKey);
+                list.set(Collections.binarySearch(list, t, BY_ID), t);
+            } else {
+                if (old != null) {
+                    wasLeaf.putIfAbsent(oldKey, children(oldKey).isEmpty());
+                    children.get(oldKey).remove(old);
+                }
+                wasLeaf.putIfAbsent(newKey, children(newKey).isEmpty());
+                List<Task> list = children.computeIfAbsent(newKey, k -> new ArrayList<>());
+                int at = Collections.binarySearch(list, t, BY_ID);
+                list.add(at < 0 ? -at - 1 : at, t);
+                placedUnder.put(id, newKey);
+            }
+            advanceWatermark(t);
+            LazyTaskTreeItem item = items.get(id);
+            if (item != null) item.setValue(t);
+        }
+
+        boolean leafChanged = false;
+        for (Map.Entry<Long, Boolean> e : wasLeaf.entrySet()) {
+            Long key = e.getKey();
+            LazyTaskTreeItem parent = key == null ? root : items.get(key);
+            if (parent == null) continue;
+            parent.reconcile();
+            if (key != null && e.getValue() != children(key).isEmpty()) leafChanged = true;
+        }
+        return leafChanged;
+    }
+
+    private void removeSubtree(Long id) {
+        List<Task> kids = children.remove(id);
+        if (kids != null) for (Task k : kids) removeSubtree(k.getTaskId());
+        Task t = byId.remove(id);
+        Long key = placedUnder.remove(id);
+        List<Task> siblings = children.get(key);
+        if (siblings != null && t != null) siblings.remove(t);
+    }
+
+    /** Parent key: the parent's id, or null (top level) when the parent is not in this project. */
+    private Long keyFor(Task t) {
+        Long parent = t.getParentTaskId();
+        return parent != null && byId.containsKey(parent) ? parent : null;
+    }
+
+    private void advanceWatermark(Task t) {
+        OffsetDateTime ts = t.getUpdatedAt() != null ? t.getUpdatedAt() : t.getCreatedAt();
+        if (ts != null && (watermark == null || ts.isAfter(watermark))) watermark = ts;
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.upnext.ui.controller;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+import org.example.upnext.auth.AuthContext;
+import org.example.upnext.config.Db;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work for the controllers on a small pool of daemon threads.
+ * Call from the FX thread; the success/failure callbacks are delivered back on it.
+ * The logged-in username (AuthContext) is carried over to the worker thread.
+ */
+final class UiTasks {
+    private static final AtomicInteger THREAD_NO = new AtomicInteger();
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Math.max(1, Db.intProperty("ui.workers", 4)), r -> {
+                Thread t = new Thread(r, "ui-worker-" + THREAD_NO.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    private static final ReadOnlyIntegerWrapper RUNNING = new ReadOnlyIntegerWrapper(0); // FX thread only
+
+    private UiTasks() {}
+
+    /** Number of submitted tasks that have not finished yet; bind a busy indicator to it. */
+    static ReadOnlyIntegerProperty runningProperty() { return RUNNING.getReadOnlyProperty(); }
+
+    static <T> Task<T> run(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        String username = AuthContext.getUsername();
+        Task<T> task = new Task<>() {
+            @Override protected T call() throws Exception {
+                AuthContext.setUsername(username);
+                try {
+                    return work.call();
+                } finally {
+                    AuthContext.clear();
+                }
+            }
+        };
+        task.setOnSucceeded(e -> { if (onSuccess != null) onSuccess.accept(task.getValue()); });
+        task.setOnFailed(e -> {
+            Throwable ex = task.getException();
+            if (onFailure != null) onFailure.accept(ex);
+            else ex.printStackTrace();
+        });
+        task.addEventHandler(WorkerStateEvent.ANY, e -> {
+            var type = e.getEventType();
+            if (type == WorkerStateEvent.WORKER_STATE_SUCCEEDED
+                    || type == WorkerStateEvent.WORKER_STATE_FAILED
+                    || type == WorkerStateEvent.WORKER_STATE_CANCELLED) {
+                RUNNING.set(RUNNING.get() - 1);
+            }
+        });
+        RUNNING.set(RUNNING.get() + 1);
+        WORKERS.execute(task);
+        return task;
+    }
+
+    /**
+     * A slot where a newer submission supersedes the previous one: the old task is cancelled
+     * and its result, if it still arrives, is dropped. The worker is not interrupted, since
+     * interrupting a thread blocked in the driver can break the pooled connection.
+     */
+    static final class Latest {
+        private Task<?> current;
+
+        <T> Task<T> run(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+            cancel();
+            Task<?>[] self = new Task<?>[1];
+            Task<T> task = UiTasks.run(work,
+                    v -> { if (current == self[0] && onSuccess != null) onSuccess.accept(v); },
+                    ex -> {
+                        if (current != self[0]) return;
+                        if (onFailure != null) onFailure.accept(ex);
+                        else ex.printStackTrace();
+                    });
+            self[0] = task;
+            current = task;
+            return task;
+        }
+
+        void cancel() {
+            if (current != null) current.cancel(false);
+            current = null;
+        }
+    }
+}
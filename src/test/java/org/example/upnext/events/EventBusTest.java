@@ -0,0 +1,87 @@
+package org.example.upnext.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventBusTest {
+    private final EventBus bus = new EventBus();
+    private final InMemoryChangeSource source = new InMemoryChangeSource();
+
+    @AfterEach
+    void close() {
+        bus.close();
+    }
+
+    @Test
+    void deliversExternalChangesInOrderPerTopic() throws Exception {
+        bus.attach(source);
+        List<ChangeEvent> tasks = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        bus.subscribe(ChangeEvent.Topic.TASK, e -> { tasks.add(e); done.countDown(); });
+        bus.subscribe(ChangeEvent.Topic.NOTIFICATION, e -> done.countDown());
+
+        source.fire(ChangeEvent.task(1L, 10L));
+        source.fire(ChangeEvent.notifications());
+        source.fire(ChangeEvent.task(1L, 11L));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(ChangeEvent.task(1L, 10L), ChangeEvent.task(1L, 11L)), tasks);
+    }
+
+    @Test
+    void coalescesEventsEqualToOneStillQueued() throws Exception {
+        bus.attach(source);
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<ChangeEvent> seen = new CopyOnWriteArrayList<>();
+        bus.subscribe(ChangeEvent.Topic.TASK, e -> {
+            seen.add(e);
+            if (e.id() == 1L) {
+                delivering.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        source.fire(ChangeEvent.task(7L, 1L));
+        assertTrue(delivering.await(5, TimeUnit.SECONDS));   // the dispatcher is now busy with it
+        for (int i = 0; i < 3; i++) source.fire(ChangeEvent.task(7L, 2L));
+        source.fire(ChangeEvent.task(7L, 3L));
+        source.fire(ChangeEvent.task(7L, 2L));
+        source.fire(ChangeEvent.task(7L, 1L));   // already delivered, so queued again
+        release.countDown();
+
+        CountDownLatch drained = new CountDownLatch(1);
+        bus.subscribe(ChangeEvent.Topic.PROJECT, e -> drained.countDown());
+        source.fire(ChangeEvent.project(7L));
+        assertTrue(drained.await(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of(ChangeEvent.task(7L, 1L), ChangeEvent.task(7L, 2L),
+                ChangeEvent.task(7L, 3L), ChangeEvent.task(7L, 1L)), seen);
+    }
+
+    @Test
+    void closingTheBusDetachesTheSource() throws Exception {
+        bus.attach(source);
+        List<ChangeEvent> seen = new CopyOnWriteArrayList<>();
+        bus.subscribe(ChangeEvent.Topic.TASK, seen::add);
+        bus.close();
+
+        source.fire(ChangeEvent.task(1L, 1L));
+        bus.publish(ChangeEvent.task(1L, 2L));
+
+        Thread.sleep(50);
+        assertTrue(seen.isEmpty());
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.upnext.service;
+
+import org.example.upnext.dao.impl.InMemoryLeaseDAO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationSchedulerTest {
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    private final FakeClock clock = new FakeClock(DAY.atTime(9, 0));
+    private final InMemoryLeaseDAO leases = new InMemoryLeaseDAO(clock);
+    private final StubGenerator generator = new StubGenerator();
+    private final NotificationScheduler a = scheduler(14);
+    private final NotificationScheduler b = scheduler(14);
+
+    @AfterEach
+    void stop() {
+        a.stop();
+        b.stop();
+    }
+
+    @Test
+    void onlyOneInstanceGeneratesPerSlot() {
+        a.run();
+        b.run();
+        a.run();
+
+        assertEquals(List.of(new Run(DAY, DAY)), generator.runs);
+        assertEquals(DAY.atTime(8, 0), b.lastCompletedSlot().orElseThrow());
+    }
+
+    @Test
+    void nextSlotRunsAgainOnWhicheverInstanceComesFirst() {
+        a.run();
+        clock.set(DAY.atTime(17, 45));
+        b.run();
+        a.run();
+
+        assertEquals(List.of(new Run(DAY, DAY), new Run(DAY, DAY)), generator.runs);
+    }
+
+    @Test
+    void otherInstanceTakesOverOnceTheLeaseExpires() throws Exception {
+        assertTrue(leases.tryAcquire("notifications", "crashed-leader", TTL));
+
+        b.run();
+        assertEquals(List.of(), generator.runs);
+
+        clock.advance(TTL.plusSeconds(1));
+        b.run();
+        assertEquals(List.of(new Run(DAY, DAY)), generator.runs);
+    }
+
+    @Test
+    void catchUpCoversTheDaysSinceTheLastCompletedSlot() {
+        a.run();
+        clock.advance(Duration.ofDays(3));
+        b.run();
+
+        assertEquals(List.of(new Run(DAY, DAY), new Run(DAY.plusDays(1), DAY.plusDays(3))), generator.runs);
+    }
+
+    @Test
+    void catchUpIsCappedAtMaxDays() {
+        NotificationScheduler c = scheduler(5);
+        c.run();
+        clock.advance(Duration.ofDays(30));
+        c.run();
+
+        LocalDate today = DAY.plusDays(30);
+        assertEquals(new Run(today.minusDays(4), today), generator.runs.get(1));
+    }
+
+    @Test
+    void runBeforeTheFirstTimeOfDayDoesYesterdaysSlot() {
+        clock.set(DAY.atTime(7, 0));
+        a.run();
+
+        assertEquals(List.of(new Run(DAY.minusDays(1), DAY.minusDays(1))), generator.runs);
+        assertEquals(DAY.minusDays(1).atTime(17, 30), a.lastCompletedSlot().orElseThrow());
+    }
+
+    @Test
+    void startIsIdempotent() throws Exception {
+        assertTrue(a.start());
+        assertFalse(a.start());
+        assertTrue(a.isRunning());
+
+        assertTrue(generator.firstRun.await(5, TimeUnit.SECONDS));
+        a.stop();
+        assertFalse(a.isRunning());
+        assertEquals(1, generator.runs.size());
+        assertTrue(a.start());   // can be started again after a stop
+    }
+
+    private NotificationScheduler scheduler(int maxCatchUpDays) {
+        return new NotificationScheduler(generator, leases,
+                List.of(LocalTime.of(17, 30), LocalTime.of(8, 0)), maxCatchUpDays, TTL, clock);
+    }
+
+    private record Run(LocalDate first, LocalDate last) {}
+
+    /** Records the requested day ranges instead of inserting notifications. */
+    private static final class StubGenerator extends NotificationGeneratorService {
+        final List<Run> runs = new CopyOnWriteArrayList<>();
+        final CountDownLatch firstRun = new CountDownLatch(1);
+
+        @Override
+        public int generateForRunDays(LocalDate firstDay, LocalDate lastDay) {
+            runs.add(new Run(firstDay, lastDay));
+            firstRun.countDown();
+            return 0;
+        }
+    }
+
+    private static final class FakeClock extends Clock {
+        private volatile Instant now;
+
+        FakeClock(LocalDateTime start) { set(start); }
+
+        void set(LocalDateTime t) { now = t.toInstant(ZoneOffset.UTC); }
+
+        void advance(Duration d) { now = now.plus(d); }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+
+        @Override public Clock withZone(ZoneId zone) { throw new UnsupportedOperationException(); }
+
+        @Override public Instant instant() { return now; }
+    }
+}
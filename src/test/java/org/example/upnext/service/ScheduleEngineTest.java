@@ -0,0 +1,158 @@
+package org.example.upnext.service;
+
+import org.example.upnext.model.Task;
+import org.example.upnext.model.TaskDependency;
+import org.example.upnext.model.TaskGraph;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ScheduleEngineTest {
+    private static final int HOURS_PER_DAY = 8;
+    private static final double DEFAULT_HOURS = 8;
+    private static final int TASKS = 400;
+
+    private final LocalDate today = LocalDate.now();
+    private final Random rnd = new Random(42);
+
+    @Test
+    void refreshAfterEstimateChangesMatchesRebuild() {
+        checkRefreshes(t -> t.setEstimatedHours(1.0 + rnd.nextInt(40)));
+    }
+
+    @Test
+    void refreshAfterStatusChangesMatchesRebuild() {
+        checkRefreshes(t -> t.setStatus("DONE".equals(t.getStatus()) ? "IN_PROGRESS" : "DONE"));
+    }
+
+    @Test
+    void refreshAfterProgressAndStartDateChangesMatchesRebuild() {
+        checkRefreshes(t -> {
+            if (rnd.nextBoolean()) t.setProgressPct(rnd.nextInt(101));
+            else t.setStartDate(rnd.nextBoolean() ? null : today.plusDays(rnd.nextInt(20)));
+        });
+    }
+
+    @Test
+    void chainSumsDurationsAndIsCritical() {
+        List<Task> tasks = List.of(task(1, 8.0), task(2, 16.0), task(3, 4.0), task(4, 2.0));
+        List<TaskDependency> deps = List.of(new TaskDependency(1L, 2L), new TaskDependency(2L, 3L),
+                new TaskDependency(1L, 4L));
+        ScheduleEngine e = ScheduleEngine.of(new TaskGraph(1, tasks, deps), today, HOURS_PER_DAY, DEFAULT_HOURS);
+
+        assertEquals(28, e.slot(3).earliestFinishHours(), 1e-9);
+        assertEquals(today.plusDays(3), e.projectFinish());
+        assertArrayEquals(new long[]{1, 2, 3}, e.criticalPath());
+        assertEquals(18, e.slot(4).slackHours(), 1e-9);
+        assertEquals(3, e.criticalTasks().size());
+    }
+
+    @Test
+    void cycleIsRejected() {
+        List<Task> tasks = List.of(task(1, 8.0), task(2, 8.0));
+        List<TaskDependency> deps = List.of(new TaskDependency(1L, 2L), new TaskDependency(2L, 1L));
+        assertThrows(IllegalStateException.class,
+                () -> ScheduleEngine.of(new TaskGraph(1, tasks, deps), today, HOURS_PER_DAY, DEFAULT_HOURS));
+    }
+
+    /**
+     * Applies a series of single-task edits to a random DAG; after each one the refreshed engine
+     * (which must be the same instance, i.e. the incremental path) must agree with a full rebuild.
+     */
+    private void checkRefreshes(Consumer<Task> edit) {
+        List<Task> tasks = randomTasks();
+        List<TaskDependency> deps = randomDependencies();
+        ScheduleEngine engine = ScheduleEngine.of(new TaskGraph(1, tasks, deps), today, HOURS_PER_DAY, DEFAULT_HOURS);
+
+        for (int round = 0; round < 50; round++) {
+            tasks = new ArrayList<>(tasks);
+            int i = rnd.nextInt(TASKS);
+            Task changed = copy(tasks.get(i));
+            edit.accept(changed);
+            tasks.set(i, changed);
+            TaskGraph g = new TaskGraph(1, tasks, deps);
+
+            ScheduleEngine refreshed = engine.refresh(g);
+            assertSame(engine, refreshed);
+            assertSameSchedule(ScheduleEngine.of(g, today, HOURS_PER_DAY, DEFAULT_HOURS), refreshed, tasks);
+        }
+    }
+
+    private static void assertSameSchedule(ScheduleEngine expected, ScheduleEngine actual, List<Task> tasks) {
+        assertEquals(expected.projectFinish(), actual.projectFinish());
+        assertEquals(expected.criticalTasks().size(), actual.criticalTasks().size());
+        for (Task t : tasks) {
+            ScheduleEngine.Slot e = expected.slot(t.getTaskId()), a = actual.slot(t.getTaskId());
+            String id = "task " + t.getTaskId();
+            assertEquals(e.earliestStartHours(), a.earliestStartHours(), 1e-9, id);
+            assertEquals(e.earliestFinishHours(), a.earliestFinishHours(), 1e-9, id);
+            assertEquals(e.latestStartHours(), a.latestStartHours(), 1e-9, id);
+            assertEquals(e.latestFinishHours(), a.latestFinishHours(), 1e-9, id);
+            assertEquals(e.critical(), a.critical(), id);
+            assertEquals(expected.criticalTasks().contains(t.getTaskId()), actual.criticalTasks().contains(t.getTaskId()), id);
+        }
+    }
+
+    // ------------------------------------------------------------------ data
+
+    /** Tasks 1..TASKS with mixed estimates, progress, statuses and start dates. */
+    private List<Task> randomTasks() {
+        List<Task> out = new ArrayList<>();
+        for (int v = 1; v <= TASKS; v++) {
+            Task t = task(v, rnd.nextInt(5) == 0 ? null : 1.0 + rnd.nextInt(40));
+            if (rnd.nextInt(6) == 0) t.setStatus("DONE");
+            if (rnd.nextInt(4) == 0) t.setProgressPct(rnd.nextInt(100));
+            if (rnd.nextInt(8) == 0) t.setStartDate(today.plusDays(rnd.nextInt(15)));
+            out.add(t);
+        }
+        return out;
+    }
+
+    /**
+     * Edges always run from a lower to a higher position of a shuffled order, so the graph is
+     * acyclic but its topological order differs from TASK_ID order.
+     */
+    private List<TaskDependency> randomDependencies() {
+        List<Long> order = new ArrayList<>();
+        for (long v = 1; v <= TASKS; v++) order.add(v);
+        Collections.shuffle(order, rnd);
+        Set<Long> seen = new HashSet<>();
+        List<TaskDependency> out = new ArrayList<>();
+        for (int s = 1; s < TASKS; s++) {
+            for (int k = rnd.nextInt(4); k > 0; k--) {
+                int p = Math.max(0, s - 1 - rnd.nextInt(30));
+                long pred = order.get(p), succ = order.get(s);
+                if (seen.add(pred * (TASKS + 1) + succ)) out.add(new TaskDependency(pred, succ));
+            }
+        }
+        return out;
+    }
+
+    private static Task task(long id, Double estimate) {
+        Task t = new Task(1L, "Task " + id);
+        t.setTaskId(id);
+        t.setEstimatedHours(estimate);
+        return t;
+    }
+
+    private static Task copy(Task src) {
+        Task t = task(src.getTaskId(), src.getEstimatedHours());
+        t.setStatus(src.getStatus());
+        t.setProgressPct(src.getProgressPct());
+        t.setStartDate(src.getStartDate());
+        t.setDueDate(src.getDueDate());
+        return t;
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.upnext.service;
+
+import org.example.upnext.dao.TaskDAO;
+import org.example.upnext.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskImportServiceTest {
+    private final List<Task> stored = new ArrayList<>();
+    private long nextId = 100;
+
+    @Test
+    void resolvesParentKeysAcrossChunks() throws Exception {
+        String csv = """
+                key,parent_key,title
+                a,,Root
+                b,a,Child
+                c,b,Grandchild
+                """;
+        int n = importer(2, 0).importCsv(1, new StringReader(csv));
+
+        assertEquals(3, n);
+        assertEquals(stored.get(0).getTaskId(), stored.get(1).getParentTaskId());
+        assertEquals(stored.get(1).getTaskId(), stored.get(2).getParentTaskId());
+    }
+
+    @Test
+    void failedChunkReportsWhatEarlierChunksCreated() {
+        String jsonl = """
+                {"key": "a", "title": "One"}
+                {"key": "b", "title": "Two"}
+                {"key": "c", "title": "boom"}
+                {"title": "Four"}
+                """;
+        TaskImportService.ImportException e = assertThrows(TaskImportService.ImportException.class,
+                () -> importer(2, 0).importJsonLines(1, new StringReader(jsonl)));
+
+        assertEquals(2, e.imported());
+        assertEquals(Map.of("a", 100L, "b", 101L), e.keys());
+    }
+
+    @Test
+    void rowsCommittedBeforeTheFailureInsideAChunkAreCounted() {
+        String csv = """
+                key,title
+                a,One
+                b,Two
+                c,Three
+                d,boom
+                """;
+        TaskImportService.ImportException e = assertThrows(TaskImportService.ImportException.class,
+                () -> importer(10, 2).importCsv(1, new StringReader(csv)));
+
+        assertEquals(2, e.imported());
+        assertEquals(Map.of("a", 100L, "b", 101L), e.keys());
+    }
+
+    @Test
+    void validationErrorAfterAFlushStillReportsTheCount() {
+        String csv = "key,title\na,One\nb,\n";
+        TaskImportService.ImportException e = assertThrows(TaskImportService.ImportException.class,
+                () -> importer(1, 0).importCsv(1, new StringReader(csv)));
+
+        assertEquals(1, e.imported());
+        assertEquals(Map.of("a", 100L), e.keys());
+    }
+
+    private TaskImportService importer(int chunkSize, int commitInterval) {
+        return new TaskImportService(fakeDao(), chunkSize, 100, commitInterval);
+    }
+
+    /**
+     * createAll only, in input order (tests list parents first). A task titled "boom" fails the
+     * call; with a commitInterval the rows of the intervals before it are kept, as in TaskDAOImpl.
+     */
+    private TaskDAO fakeDao() {
+        return (TaskDAO) Proxy.newProxyInstance(TaskDAO.class.getClassLoader(), new Class<?>[]{TaskDAO.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("createAll") || args.length != 3) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    @SuppressWarnings("unchecked") List<Task> tasks = (List<Task>) args[0];
+                    int commitInterval = (Integer) args[2];
+                    int failAt = -1;
+                    for (int i = 0; i < tasks.size() && failAt < 0; i++) {
+                        if ("boom".equals(tasks.get(i).getTitle())) failAt = i;
+                    }
+                    int keep = failAt < 0 ? tasks.size()
+                            : commitInterval > 0 ? failAt / commitInterval * commitInterval : 0;
+                    Map<Long, Long> newIds = new HashMap<>();
+                    List<Long> ids = new ArrayList<>();
+                    for (int i = 0; i < keep; i++) {
+                        Task t = tasks.get(i);
+                        long id = nextId++;
+                        if (t.getTaskId() != null) newIds.put(t.getTaskId(), id);
+                        if (t.getParentTaskId() != null) t.setParentTaskId(newIds.getOrDefault(t.getParentTaskId(), t.getParentTaskId()));
+                        t.setTaskId(id);
+                        stored.add(t);
+                        ids.add(id);
+                    }
+                    if (failAt >= 0) throw new SQLException("ORA-01400: cannot insert NULL");
+                    return ids;
+                });
+    }
+}